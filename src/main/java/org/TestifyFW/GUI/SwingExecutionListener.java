@@ -0,0 +1,49 @@
+package org.TestifyFW.GUI;
+
+import org.TestifyFW.framework.event.ExecutionListener;
+import org.TestifyFW.framework.plan.CompiledStep;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Shows execution progress in a status label of the GUI.
+ * Updates are handed to the event dispatch thread with invokeLater, so the
+ * test thread never blocks on Swing and a failing step costs no extra time.
+ */
+public class SwingExecutionListener implements ExecutionListener {
+    private static final Color FAILED_COLOR = new Color(180, 0, 0);
+    private static final Color PASSED_COLOR = new Color(0, 128, 0);
+
+    private final JLabel statusLabel;
+
+    public SwingExecutionListener(JLabel statusLabel) {
+        this.statusLabel = statusLabel;
+    }
+
+    @Override
+    public void testStarted(String testName) {
+        showStatus("Running: " + testName, Color.BLACK);
+    }
+
+    @Override
+    public void stepFailed(String testName, CompiledStep step, Throwable failure) {
+        showStatus(testName + " - " + step.getDisplayName() + " failed: " + failure.getMessage(), FAILED_COLOR);
+    }
+
+    @Override
+    public void testFinished(String testName, boolean passed) {
+        if (passed) {
+            showStatus(testName + " passed", PASSED_COLOR);
+        } else {
+            showStatus(testName + " failed. Check the console for results.", FAILED_COLOR);
+        }
+    }
+
+    private void showStatus(String text, Color color) {
+        SwingUtilities.invokeLater(() -> {
+            statusLabel.setText(text);
+            statusLabel.setForeground(color);
+        });
+    }
+}
@@ -8,16 +8,23 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.Vector;
 
 import org.TestifyFW.framework.ActionHandler;
-import org.TestifyFW.framework.BaseTest;
+import org.TestifyFW.framework.WebDriverPool;
+import org.TestifyFW.framework.action.ActionRegistry;
+import org.TestifyFW.framework.action.StepAction;
+import org.TestifyFW.framework.action.StepField;
 import org.TestifyFW.model.TestCase;
 import org.TestifyFW.model.TestStep;
+import org.TestifyFW.runner.SuiteResult;
+import org.TestifyFW.runner.SuiteRunner;
+import org.TestifyFW.yaml.TestLoadException;
 import org.TestifyFW.yaml.YamlTestLoader;
 import org.TestifyFW.yaml.YamlTestWriter;
-import org.openqa.selenium.WebDriver;
 
 public class TestifyGUI extends JFrame {
     private JPanel contentPane;
@@ -26,11 +33,10 @@ public class TestifyGUI extends JFrame {
     private DefaultTableModel tableModel;
     private JTextField testCaseNameField;
     private TestCase currentTestCase;
-    private WebDriver driver;
+    private JLabel statusLabel;
 
-    private static final String[] ACTIONS = {
-            "open url", "click", "input text", "wait", "verify_text", "end_the_test"
-    };
+    // Shared by all runs started from the GUI so repeated runs reuse the same browser
+    private static WebDriverPool driverPool;
 
     private static final String[] SELECTOR_TYPES = {
             "id", "css", "xpath", "class"
@@ -66,11 +72,23 @@ public class TestifyGUI extends JFrame {
         tabbedPane.addTab("Manual Test Builder", createManualTestPanel());
         tabbedPane.addTab("YAML Test Runner", createYamlTestPanel());
 
+        // Run progress is shown here instead of in modal dialogs
+        statusLabel = new JLabel("Ready");
+        contentPane.add(statusLabel, BorderLayout.SOUTH);
+
         // Initialize test case
         currentTestCase = new TestCase();
         currentTestCase.setSteps(new ArrayList<>());
     }
 
+    private static synchronized WebDriverPool getDriverPool() {
+        if (driverPool == null) {
+            driverPool = new WebDriverPool("chrome", 0, 1);
+            Runtime.getRuntime().addShutdownHook(new Thread(driverPool::close));
+        }
+        return driverPool;
+    }
+
     private JPanel createManualTestPanel() {
         JPanel panel = new JPanel();
         panel.setLayout(new BorderLayout(5, 5));
@@ -143,6 +161,7 @@ public class TestifyGUI extends JFrame {
         btnBrowse.addActionListener(e -> {
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setCurrentDirectory(new File("."));
+            fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
             int result = fileChooser.showOpenDialog(panel);
 
             if (result == JFileChooser.APPROVE_OPTION) {
@@ -151,15 +170,23 @@ public class TestifyGUI extends JFrame {
             }
         });
 
-        filePanel.add(new JLabel("YAML File:"));
+        filePanel.add(new JLabel("YAML File or Folder:"));
         filePanel.add(filePathField);
         filePanel.add(btnBrowse);
 
+        JPanel concurrencyPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JSpinner concurrencySpinner = new JSpinner(new SpinnerNumberModel(
+                Runtime.getRuntime().availableProcessors(), 1, 64, 1));
+        concurrencyPanel.add(new JLabel("Parallel workers (folders only):"));
+        concurrencyPanel.add(concurrencySpinner);
+
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         JButton btnExecuteYaml = new JButton("Execute YAML Test");
         btnExecuteYaml.addActionListener(e -> {
             String filePath = filePathField.getText();
-            if (!filePath.isEmpty()) {
+            if (!filePath.isEmpty() && new File(filePath).isDirectory()) {
+                executeYamlSuite(filePath, (Integer) concurrencySpinner.getValue());
+            } else if (!filePath.isEmpty()) {
                 executeYamlTest(filePath);
             } else {
                 JOptionPane.showMessageDialog(panel, "Please select a YAML file first.", "No File Selected", JOptionPane.WARNING_MESSAGE);
@@ -169,6 +196,7 @@ public class TestifyGUI extends JFrame {
 
         centerPanel.add(Box.createVerticalGlue());
         centerPanel.add(filePanel);
+        centerPanel.add(concurrencyPanel);
         centerPanel.add(Box.createVerticalStrut(20));
         centerPanel.add(buttonPanel);
         centerPanel.add(Box.createVerticalGlue());
@@ -190,7 +218,8 @@ public class TestifyGUI extends JFrame {
         // Action selection
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         actionPanel.add(new JLabel("Action:"));
-        JComboBox<String> actionCombo = new JComboBox<>(ACTIONS);
+        JComboBox<String> actionCombo = new JComboBox<>(
+                ActionRegistry.getDefault().getActionNames().toArray(new String[0]));
         actionPanel.add(actionCombo);
         panel.add(actionPanel);
         panel.add(Box.createVerticalStrut(10));
@@ -239,11 +268,13 @@ public class TestifyGUI extends JFrame {
 
         // Update visibility based on action selection
         actionCombo.addActionListener(e -> {
-            String selectedAction = (String) actionCombo.getSelectedItem();
-            boolean isSelectorNeeded = !"open url".equals(selectedAction) && !"wait".equals(selectedAction) && !"end_the_test".equals(selectedAction);
-            boolean isUrlNeeded = "open url".equals(selectedAction);
-            boolean isValueNeeded = "input text".equals(selectedAction) || "wait".equals(selectedAction);
-            boolean isExpectedNeeded = "verify_text".equals(selectedAction);
+            // Each action declares the step fields it reads
+            StepAction selectedAction = ActionRegistry.getDefault().get((String) actionCombo.getSelectedItem());
+            Set<StepField> fields = selectedAction != null ? selectedAction.getFields() : EnumSet.allOf(StepField.class);
+            boolean isSelectorNeeded = fields.contains(StepField.SELECTOR);
+            boolean isUrlNeeded = fields.contains(StepField.URL);
+            boolean isValueNeeded = fields.contains(StepField.VALUE);
+            boolean isExpectedNeeded = fields.contains(StepField.EXPECTED);
 
             selectorTypeCombo.setEnabled(isSelectorNeeded);
             selectorValueField.setEnabled(isSelectorNeeded);
@@ -330,11 +361,8 @@ public class TestifyGUI extends JFrame {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    BaseTest baseTest = new BaseTest();
-                    baseTest.setup();
-                    driver = baseTest.driver;
-
-                    ActionHandler actionHandler = new ActionHandler(driver);
+                    ActionHandler actionHandler = new ActionHandler(getDriverPool());
+                    actionHandler.setExecutionListener(new SwingExecutionListener(statusLabel));
                     actionHandler.executeTestCase(currentTestCase);
 
                     return null;
@@ -435,21 +463,29 @@ public class TestifyGUI extends JFrame {
     private void executeYamlTest(String yamlFilePath) {
        // boolean testFailed = false;
         SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            private TestLoadException loadError;
+
             @Override
             protected Void doInBackground() throws Exception {
                 try {
                     YamlTestLoader yamlLoader = new YamlTestLoader();
-                    TestCase testCase = yamlLoader.loadTestCase(yamlFilePath);
-
-                    if (testCase != null) {
-                        BaseTest baseTest = new BaseTest();
-                        baseTest.setup();
-                        driver = baseTest.driver;
-
-                        ActionHandler actionHandler = new ActionHandler(driver);
-                        actionHandler.executeTestCase(testCase);
+                    List<TestCase> testCases = yamlLoader.loadTestCaseInstances(yamlFilePath);
+
+                    // A data-driven test runs once per dataset row
+                    for (TestCase testCase : testCases) {
+                        ActionHandler actionHandler = new ActionHandler(getDriverPool());
+                        actionHandler.setExecutionListener(new SwingExecutionListener(statusLabel));
+                        try {
+                            actionHandler.executeTestCase(testCase);
+                        } catch (AssertionError e) {
+                            System.err.println("Test case failed: " + testCase.getName());
+                        }
                     }
 
+                    return null;
+                } catch (TestLoadException e) {
+                    loadError = e;
+                    System.err.println(e.getMessage());
                     return null;
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -459,6 +495,12 @@ public class TestifyGUI extends JFrame {
 
             @Override
             protected void done() {
+                if (loadError != null) {
+                    JOptionPane.showMessageDialog(TestifyGUI.this,
+                            String.join("\n", loadError.getErrors()),
+                            "Invalid Test File", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 JOptionPane.showMessageDialog(TestifyGUI.this,
                         "YAML test execution completed. Check the console for results.",
                         "Test Complete", JOptionPane.INFORMATION_MESSAGE);
@@ -467,4 +509,36 @@ public class TestifyGUI extends JFrame {
 
         worker.execute();
     }
-}
\ No newline at end of file
+
+    private void executeYamlSuite(String directory, int concurrency) {
+        SwingWorker<SuiteResult, Void> worker = new SwingWorker<SuiteResult, Void>() {
+            @Override
+            protected SuiteResult doInBackground() throws Exception {
+                SuiteRunner suiteRunner = new SuiteRunner(concurrency);
+                suiteRunner.setExecutionListener(new SwingExecutionListener(statusLabel));
+                SuiteResult suiteResult = suiteRunner.run(directory);
+                suiteResult.printSummary();
+                return suiteResult;
+            }
+
+            @Override
+            protected void done() {
+                String message;
+                try {
+                    SuiteResult suiteResult = get();
+                    message = "Suite execution completed.\n"
+                            + "Passed: " + suiteResult.getPassed() + " / " + suiteResult.getTotal()
+                            + "\nWall clock: " + suiteResult.getWallClockMillis() + " ms"
+                            + "\nCheck the console for details.";
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    message = "Suite execution failed: " + e.getMessage();
+                }
+                JOptionPane.showMessageDialog(TestifyGUI.this, message,
+                        "Suite Complete", JOptionPane.INFORMATION_MESSAGE);
+            }
+        };
+
+        worker.execute();
+    }
+}
@@ -1,12 +1,21 @@
 package org.TestifyFW;
 
-import org.TestifyFW.GUI.TestifyGUI;
+import org.TestifyFW.cli.CommandLineRunner;
 
 public class Main {
     public static void main(String[] args) {
         System.out.println("Starting TestifyFW...");
 
-        // Launch the GUI
-        TestifyGUI.main(args);
+        // Without arguments (or with --gui) launch the GUI, otherwise run headless from the command line
+        if (args.length == 0 || (args.length == 1 && "--gui".equals(args[0]))) {
+            launchGui();
+            return;
+        }
+        System.exit(CommandLineRunner.run(args));
     }
-}
\ No newline at end of file
+
+    // Kept in its own method so the Swing classes are only loaded in GUI mode
+    private static void launchGui() {
+        org.TestifyFW.GUI.TestifyGUI.main(new String[0]);
+    }
+}
@@ -0,0 +1,266 @@
+package org.TestifyFW.cli;
+
+import org.TestifyFW.runner.LoadedSuite;
+import org.TestifyFW.runner.SuiteLoader;
+import org.TestifyFW.runner.SuiteReportWriter;
+import org.TestifyFW.runner.SuiteResult;
+import org.TestifyFW.runner.SuiteRunner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Headless entry point for CI: runs YAML tests without loading any Swing class.
+ *
+ * Usage: java -jar TestifyFW.jar [options] <yaml file | directory | glob>...
+ *   -c, --concurrency N   number of parallel workers (default 1)
+ *   -b, --browser NAME    chrome, firefox or edge (default chrome)
+ *   -p, --profile NAME    browser profile from browser-profiles.properties (default, headless, fast, ...)
+ *       --headless        run the browser without a display
+ *       --share-prefixes  run steps that several test cases start with only once
+ *       --stream          start tests while the files are still being read (dependsOn must point backwards)
+ *       --validate        only load and check the test files, don't run them
+ *       --no-history      don't add the results to the run history
+ *       --quarantine      run test cases the history shows to be flaky in a low priority lane that
+ *                         doesn't fail the suite or report to Jira
+ *   -f, --format LIST     comma separated: text, junit, json (default text)
+ *   -o, --output DIR      directory for junit/json reports (default test-output)
+ *
+ * Results of earlier runs are queried with "history" (see HistoryCommand).
+ *
+ * Exit codes: 0 all tests passed, 1 a test failed (or, with --validate, a file is invalid),
+ * 2 invalid usage or no tests found.
+ */
+public class CommandLineRunner {
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_TEST_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private final List<String> locations = new ArrayList<>();
+    private final Set<String> formats = new LinkedHashSet<>();
+    private int concurrency = 1;
+    private String browser = "chrome";
+    private String profile;
+    private boolean headless = false;
+    private boolean sharePrefixes = false;
+    private boolean streaming = false;
+    private boolean validateOnly = false;
+    private boolean recordHistory = true;
+    private boolean quarantine = false;
+    private Path outputDirectory = Paths.get("test-output");
+
+    /**
+     * Parses the arguments, runs the suite and returns the process exit code
+     */
+    public static int run(String[] args) {
+        // Nothing below needs a display; make sure AWT (used for screenshot scaling) agrees
+        System.setProperty("java.awt.headless", "true");
+        if (args.length > 0 && args[0].equals("history")) {
+            return HistoryCommand.run(Arrays.copyOfRange(args, 1, args.length));
+        }
+
+        CommandLineRunner runner = new CommandLineRunner();
+        try {
+            if (!runner.parse(args)) {
+                printUsage();
+                return EXIT_SUCCESS;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            return EXIT_USAGE;
+        }
+        return runner.execute();
+    }
+
+    // Returns false when only help was requested
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return false;
+                case "-c":
+                case "--concurrency":
+                    concurrency = parseConcurrency(requireValue(args, ++i, arg));
+                    break;
+                case "-b":
+                case "--browser":
+                    browser = requireValue(args, ++i, arg).toLowerCase();
+                    break;
+                case "-p":
+                case "--profile":
+                    profile = requireValue(args, ++i, arg);
+                    break;
+                case "--headless":
+                    headless = true;
+                    break;
+                case "--share-prefixes":
+                    sharePrefixes = true;
+                    break;
+                case "--stream":
+                    streaming = true;
+                    break;
+                case "--validate":
+                    validateOnly = true;
+                    break;
+                case "--no-history":
+                    recordHistory = false;
+                    break;
+                case "--quarantine":
+                    quarantine = true;
+                    break;
+                case "-f":
+                case "--format":
+                    for (String format : requireValue(args, ++i, arg).split(",")) {
+                        String name = format.trim().toLowerCase();
+                        if (!name.equals("text") && !name.equals("junit") && !name.equals("json")) {
+                            throw new IllegalArgumentException("Unknown format: " + format);
+                        }
+                        formats.add(name);
+                    }
+                    break;
+                case "-o":
+                case "--output":
+                    outputDirectory = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    locations.add(arg);
+            }
+        }
+        if (locations.isEmpty()) {
+            throw new IllegalArgumentException("No YAML files or directories given");
+        }
+        if (formats.isEmpty()) {
+            formats.add("text");
+        }
+        if (streaming && sharePrefixes) {
+            throw new IllegalArgumentException("--stream can't be combined with --share-prefixes");
+        }
+        return true;
+    }
+
+    private int execute() {
+        if (validateOnly) {
+            return validate();
+        }
+        SuiteRunner suiteRunner = new SuiteRunner(concurrency);
+        suiteRunner.setBrowserType(browser);
+        suiteRunner.setBrowserProfile(profile);
+        suiteRunner.setHeadless(headless);
+        suiteRunner.setSharePrefixes(sharePrefixes);
+        suiteRunner.setStreaming(streaming);
+        suiteRunner.setRecordHistory(recordHistory);
+        suiteRunner.setQuarantineFlaky(quarantine);
+
+        SuiteResult suiteResult;
+        try {
+            suiteResult = suiteRunner.run(locations.toArray(new String[0]));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (suiteResult.getTotal() == 0) {
+            System.err.println("Error: no YAML tests found");
+            return EXIT_USAGE;
+        }
+
+        writeReports(suiteResult);
+        return suiteResult.isSuccessful() ? EXIT_SUCCESS : EXIT_TEST_FAILURE;
+    }
+
+    private int validate() {
+        LoadedSuite suite;
+        try {
+            suite = new SuiteLoader().load(locations.toArray(new String[0]));
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (suite.getFileCount() == 0) {
+            System.err.println("Error: no YAML tests found");
+            return EXIT_USAGE;
+        }
+
+        List<String> errors = suite.getErrors();
+        for (String error : errors) {
+            System.err.println(error);
+        }
+        System.out.println("Checked " + suite.getFileCount() + " file(s), " + suite.getTestCases().size()
+                + " test case(s) in " + suite.getLoadMillis() + " ms: " + errors.size() + " error(s)");
+        return suite.isValid() ? EXIT_SUCCESS : EXIT_TEST_FAILURE;
+    }
+
+    private void writeReports(SuiteResult suiteResult) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        for (String format : formats) {
+            try {
+                switch (format) {
+                    case "text":
+                        suiteResult.printSummary();
+                        break;
+                    case "junit":
+                        Path junitFile = outputDirectory.resolve("TEST-testify-" + timestamp + ".xml");
+                        SuiteReportWriter.writeJUnitXml(suiteResult, junitFile);
+                        System.out.println("JUnit report: " + junitFile.toAbsolutePath());
+                        break;
+                    case "json":
+                        Path jsonFile = outputDirectory.resolve("testify-results-" + timestamp + ".json");
+                        SuiteReportWriter.writeJson(suiteResult, jsonFile);
+                        System.out.println("JSON report: " + jsonFile.toAbsolutePath());
+                        break;
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to write " + format + " report: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parseConcurrency(String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException("Concurrency must be at least 1");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid concurrency: " + value);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: TestifyFW [options] <yaml file | directory | glob>...");
+        System.out.println("  -c, --concurrency N   number of parallel workers (default 1)");
+        System.out.println("  -b, --browser NAME    chrome, firefox or edge (default chrome)");
+        System.out.println("  -p, --profile NAME    browser profile from browser-profiles.properties (default, headless, fast, ...)");
+        System.out.println("      --headless        run the browser without a display");
+        System.out.println("      --share-prefixes  run steps that several test cases start with only once");
+        System.out.println("      --stream          start tests while the files are still being read (dependsOn must point backwards)");
+        System.out.println("      --validate        only load and check the test files, don't run them");
+        System.out.println("      --no-history      don't add the results to the run history");
+        System.out.println("      --quarantine      run flaky test cases in a lane that doesn't fail the suite or report to Jira");
+        System.out.println("  -f, --format LIST     comma separated: text, junit, json (default text)");
+        System.out.println("  -o, --output DIR      directory for junit/json reports (default test-output)");
+        System.out.println("  history QUERY ...     query the results of earlier runs (history --help for details)");
+        System.out.println("  --gui                 start the graphical editor instead (also the default without arguments)");
+    }
+}
@@ -0,0 +1,209 @@
+package org.TestifyFW.cli;
+
+import org.TestifyFW.history.FlakinessAnalyzer;
+import org.TestifyFW.history.HistoryStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries the results history of earlier runs (see HistoryStore).
+ *
+ * Usage: java -jar TestifyFW.jar history <query> [options]
+ *   last TEST [-n N]                     the last N runs of a test case with their steps (default 10)
+ *   steps TEST [--percentile P] [--days D]  duration percentile of each step (default 95 over 30 days)
+ *   failures [--days D]                  failure rate of every test case (default 7 days)
+ *   flaky                                flakiness of every test case and its flakiest steps (see FlakinessAnalyzer)
+ *   tests                                names of all test cases in the history
+ *   --dir DIR                            history directory (default test-output/history)
+ */
+public class HistoryCommand {
+
+    /**
+     * Runs the query and returns the process exit code
+     */
+    public static int run(String[] args) {
+        List<String> arguments = new ArrayList<>();
+        Path directory = Paths.get(System.getProperty("testify.history.dir", HistoryStore.DEFAULT_LOCATION));
+        int limit = 10;
+        int percentile = 95;
+        Integer days = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "-h":
+                    case "--help":
+                        printUsage();
+                        return CommandLineRunner.EXIT_SUCCESS;
+                    case "-n":
+                        limit = parsePositive(requireValue(args, ++i, arg), arg);
+                        break;
+                    case "--percentile":
+                        percentile = parsePositive(requireValue(args, ++i, arg), arg);
+                        if (percentile > 100) {
+                            throw new IllegalArgumentException("--percentile must be at most 100");
+                        }
+                        break;
+                    case "--days":
+                        days = parsePositive(requireValue(args, ++i, arg), arg);
+                        break;
+                    case "--dir":
+                        directory = Paths.get(requireValue(args, ++i, arg));
+                        break;
+                    default:
+                        if (arg.startsWith("-")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        arguments.add(arg);
+                }
+            }
+            if (arguments.isEmpty()) {
+                throw new IllegalArgumentException("No history query given");
+            }
+            String query = arguments.get(0);
+            if (!Arrays.asList("last", "steps", "failures", "flaky", "tests").contains(query)) {
+                throw new IllegalArgumentException("Unknown history query: " + query);
+            }
+            boolean needsTest = query.equals("last") || query.equals("steps");
+            if (arguments.size() != (needsTest ? 2 : 1)) {
+                throw new IllegalArgumentException(needsTest ? "history " + query + " needs exactly one test name"
+                        : "Unexpected argument: " + arguments.get(arguments.size() - 1));
+            }
+
+            try (HistoryStore store = HistoryStore.open(directory)) {
+                long start = System.nanoTime();
+                switch (query) {
+                    case "last":
+                        printLastRuns(store, arguments.get(1), limit);
+                        break;
+                    case "steps":
+                        printStepDurations(store, arguments.get(1), percentile, since(days != null ? days : 30));
+                        break;
+                    case "failures":
+                        printFailureRates(store, since(days != null ? days : 7));
+                        break;
+                    case "flaky":
+                        printFlakiness(store);
+                        break;
+                    default:
+                        for (String testName : store.getTestNames()) {
+                            System.out.println(testName);
+                        }
+                }
+                System.out.println(String.format("(%d test runs in history, query took %.1f ms)", store.getRunCount(),
+                        (System.nanoTime() - start) / 1e6));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            return CommandLineRunner.EXIT_USAGE;
+        } catch (IOException e) {
+            System.err.println("Error: failed to read history in " + directory + ": " + e.getMessage());
+            return CommandLineRunner.EXIT_USAGE;
+        }
+        return CommandLineRunner.EXIT_SUCCESS;
+    }
+
+    private static void printLastRuns(HistoryStore store, String testName, int limit) throws IOException {
+        List<HistoryStore.TestRun> runs = store.getLastRuns(testName, limit);
+        if (runs.isEmpty()) {
+            System.out.println("No runs of '" + testName + "' in the history");
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        for (HistoryStore.TestRun run : runs) {
+            System.out.println(String.format("%s  %-10s %8d ms  run %s", dateFormat.format(new Date(run.getTime())),
+                    run.getOutcome(), run.getDurationMillis(), run.getRunId()));
+            for (HistoryStore.StepRun step : run.getSteps()) {
+                System.out.println(String.format("    %-10s %10s  %s", step.getOutcome(),
+                        formatNanos(step.getDurationNanos()), step.getStepName()));
+            }
+        }
+    }
+
+    private static void printStepDurations(HistoryStore store, String testName, int percentile, long since)
+            throws IOException {
+        Map<String, Long> durations = store.getStepDurationPercentiles(testName, percentile, since);
+        if (durations.isEmpty()) {
+            System.out.println("No timed steps of '" + testName + "' in the history");
+            return;
+        }
+        System.out.println("p" + percentile + " step durations of " + testName + ":");
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            System.out.println(String.format("  %10s  %s", formatNanos(entry.getValue()), entry.getKey()));
+        }
+    }
+
+    private static void printFailureRates(HistoryStore store, long since) throws IOException {
+        List<HistoryStore.TestStats> stats = store.getTestStats(since);
+        if (stats.isEmpty()) {
+            System.out.println("No runs in that period");
+        }
+        for (HistoryStore.TestStats test : stats) {
+            System.out.println(String.format("  %5.1f %%  %4d/%-4d %s", test.getFailureRate() * 100,
+                    test.getFailures(), test.getRuns(), test.getTestName()));
+        }
+    }
+
+    private static void printFlakiness(HistoryStore store) throws IOException {
+        for (FlakinessAnalyzer.Flakiness test : new FlakinessAnalyzer(store).analyzeAll()) {
+            if (test.getFlips() == 0) {
+                continue;
+            }
+            System.out.println(String.format("  %5.2f  %2d/%-3d %-6s %s", test.getScore(), test.getFlips(),
+                    test.getPairs(), test.isFlaky() ? "FLAKY" : "", test.getTestName()));
+            int shown = 0;
+            for (Map.Entry<String, Double> step : test.getStepScores().entrySet()) {
+                if (shown++ == 3) {
+                    break;
+                }
+                System.out.println(String.format("         %5.2f  %s", step.getValue(), step.getKey()));
+            }
+        }
+    }
+
+    private static long since(int days) {
+        return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+    }
+
+    private static String formatNanos(long nanos) {
+        return nanos < 0 ? "-" : String.format("%.1f ms", nanos / 1e6);
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parsePositive(String value, String option) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException(option + " must be at least 1");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: TestifyFW history <query> [options]");
+        System.out.println("  last TEST [-n N]                        the last N runs of a test case with their steps (default 10)");
+        System.out.println("  steps TEST [--percentile P] [--days D]  duration percentile of each step (default 95 over 30 days)");
+        System.out.println("  failures [--days D]                     failure rate of every test case (default 7 days)");
+        System.out.println("  flaky                                   flakiness score (outcome flips per run pair) of every test case");
+        System.out.println("  tests                                   names of all test cases in the history");
+        System.out.println("  --dir DIR                               history directory (default test-output/history)");
+    }
+}
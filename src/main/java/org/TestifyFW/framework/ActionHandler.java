@@ -1,119 +1,325 @@
 package org.TestifyFW.framework;
 
-import org.TestifyFW.GUI.TestifyGUI;
-import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.TimeoutException;
+import org.TestifyFW.framework.action.ActionContext;
+import org.TestifyFW.framework.event.ConsoleExecutionListener;
+import org.TestifyFW.framework.event.ExecutionListener;
+import org.TestifyFW.framework.network.ResourceBlocker;
+import org.TestifyFW.framework.session.SessionSnapshot;
+import org.TestifyFW.framework.session.SessionSnapshotStore;
+import org.TestifyFW.framework.plan.CompiledFixture;
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.framework.plan.PlanCompiler;
+import org.TestifyFW.framework.wait.PollingSettings;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.TestifyFW.model.TestCase;
-import org.TestifyFW.model.TestStep;
+import org.TestifyFW.reporter.ArtifactStore;
+import org.TestifyFW.reporter.RunContext;
 import org.TestifyFW.reporter.TestReporter;
-import org.testng.Assert;
 
 import java.text.SimpleDateFormat;
-import java.time.Duration;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import org.TestifyFW.jira.JiraIssueReporter;
-
-import javax.swing.*;
+import org.TestifyFW.jira.FailureFingerprint;
+import org.TestifyFW.jira.FailureReport;
+import org.TestifyFW.jira.JiraReportingService;
 
 public class ActionHandler {
     private WebDriver driver;
-    private WebDriverWait wait;
+    private WebDriverPool driverPool;
+    private PollingSettings pollingSettings = PollingSettings.defaults();
+    private ExecutionListener executionListener = new ConsoleExecutionListener();
+    private ArtifactStore artifactStore;
+    private boolean jiraReporting = true;
+    private RunContext runContext;
 
     public ActionHandler(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        TestReporter.setCurrentDriver(driver);
+    }
+
+    /**
+     * Creates a handler that borrows a session from the pool for each test case
+     * and hands it back, reset, once the test case has finished
+     */
+    public ActionHandler(WebDriverPool driverPool) {
+        this.driverPool = driverPool;
+    }
+
+    /**
+     * Run-wide timeout and polling defaults; test cases and steps can override them
+     */
+    public void setPollingSettings(PollingSettings pollingSettings) {
+        this.pollingSettings = pollingSettings;
+    }
+
+    /**
+     * Listener notified about step failures and test outcomes; defaults to console output
+     */
+    public void setExecutionListener(ExecutionListener executionListener) {
+        this.executionListener = executionListener;
+    }
+
+    /**
+     * Store the reports of this handler's test cases go to; defaults to the store shared by tests run outside a suite
+     */
+    public void setArtifactStore(ArtifactStore artifactStore) {
+        this.artifactStore = artifactStore;
+    }
+
+    /**
+     * Whether failures are reported to Jira (on by default); off for quarantined test cases
+     */
+    public void setJiraReporting(boolean jiraReporting) {
+        this.jiraReporting = jiraReporting;
+    }
+
+    /**
+     * Reporting context of the last test case run; it is closed once the test
+     * case finishes, but still has the test name and report path
+     */
+    public RunContext getRunContext() {
+        return runContext;
     }
 
     public void executeTestCase(TestCase testCase) {
-        TestReporter.initializeReporter();
-        TestReporter.setCurrentTestName(testCase.getName());
-        System.out.println("Executing: " + testCase.getName());
+        // Compile first so an invalid test case fails before a browser is borrowed
+        executePlan(PlanCompiler.compile(testCase));
+    }
+
+    public void executePlan(ExecutionPlan plan) {
+        if (driverPool == null) {
+            runPlan(plan);
+            return;
+        }
+
+        driver = driverPool.borrow();
+        try {
+            runPlan(plan);
+        } finally {
+            driverPool.release(driver);
+            driver = null;
+        }
+    }
+
+    private void runPlan(ExecutionPlan plan) {
+        RunContext run = artifactStore != null
+                ? RunContext.start(plan.getTestName(), artifactStore)
+                : RunContext.start(plan.getTestName());
+        run.setDriver(driver);
+        runContext = run;
+        // Bound as well, for code that still reports through the static TestReporter
+        RunContext previous = TestReporter.bind(run);
+        System.out.println("Executing: " + plan.getTestName());
+        executionListener.testStarted(plan.getTestName());
         boolean testFailed = false;
         Exception failureException = null;
         AssertionError failureAException = null;
+        CompiledStep failedStep = null;
+        ActionContext context = new ActionContext(driver, driverPool != null, pollingSettings, run);
+        ResourceBlocker resourceBlocker = ResourceBlocker.forDriver(driver);
+        if (resourceBlocker != null) {
+            resourceBlocker.resetStats();
+        }
 
         try {
-            for (int i = 0; i < testCase.getSteps().size(); i++) {
-                TestStep step = testCase.getSteps().get(i);
-                String stepName = "Step " + (i + 1) + ": " + step.getAction();
+            if (plan.getSetup() != null) {
+                try {
+                    prepareSession(plan, context);
+                } catch (SetupFailedException e) {
+                    testFailed = true;
+                    failedStep = e.step;
+                    if (e.getCause() instanceof AssertionError) {
+                        failureAException = (AssertionError) e.getCause();
+                    } else {
+                        failureException = (Exception) e.getCause();
+                    }
+                }
+            }
+
+            List<CompiledStep> steps = plan.getSteps();
+            boolean[] passed = new boolean[steps.size()];
+            for (CompiledStep step : testFailed ? Collections.<CompiledStep>emptyList() : steps) {
+                String stepName = step.getDisplayName();
+
+                // A step runs only if every step it depends on passed (critical steps are implicit dependencies)
+                String skipReason = findUnmetDependency(step, steps, passed);
+                if (skipReason != null) {
+                    run.logSkipped(stepName, step.getAction(), skipReason);
+                    executionListener.stepSkipped(plan.getTestName(), step, skipReason);
+                    continue;
+                }
 
                 try {
-                    TestReporter.logInfo(stepName, "Starting execution");
-                    executeStep(step);
-                    TestReporter.logStep(stepName, step.getAction(), true);
+                    run.startStep(stepName, step.getAction(), step.getLocatorDescription());
+                    step.getHandler().execute(context, step);
+                    run.logStep(stepName, step.getAction(), true);
+                    executionListener.stepPassed(plan.getTestName(), step);
+                    passed[step.getIndex()] = true;
                 }
                 catch (Exception e) {
                     testFailed = true;
                     failureException = e;
-                    TestReporter.logStep(stepName, step.getAction(), false);
-                    TestReporter.fail("Step failed: " + e.getMessage());
-                    JOptionPane.showMessageDialog(new TestifyGUI(),
-                            "A step has failed. Check the console for results.",
-                            "Step Failed", JOptionPane.INFORMATION_MESSAGE);
-
-                    // If this step is critical, break execution
-                    if (step.isCritical()) {
-                        TestReporter.logInfo("Critical Step Failed", "Stopping test execution");
-                        break;
+                    if (failedStep == null) {
+                        failedStep = step;
                     }
-
+                    run.logStep(stepName, step.getAction(), false);
+                    run.fail("Step failed: " + e.getMessage());
+                    executionListener.stepFailed(plan.getTestName(), step, e);
                 }
                 catch (AssertionError ae) {
                     testFailed = true;
                     failureAException = ae;
-                    TestReporter.logStep(stepName, step.getAction(), false);
-                    TestReporter.fail("Assertion failed: " + ae.getMessage());
-                    JOptionPane.showMessageDialog(new TestifyGUI(),
-                            "An assertion has failed. Check the console for results.",
-                            "Assertion Failed", JOptionPane.INFORMATION_MESSAGE);
-
-                    // If this step is critical, break execution
-                    if (step.isCritical()) {
-                        TestReporter.logInfo("Critical Step Failed", "Stopping test execution");
-                        break;
+                    if (failedStep == null) {
+                        failedStep = step;
                     }
+                    run.logStep(stepName, step.getAction(), false);
+                    run.fail("Assertion failed: " + ae.getMessage());
+                    executionListener.stepFailed(plan.getTestName(), step, ae);
                 }
             }
         } finally {
-            // Generate the report regardless of success or failure
-            TestReporter.generateReport();
+            try {
+                if (resourceBlocker != null) {
+                    run.logInfo("Resource Blocking", resourceBlocker.getSummary());
+                }
+
+                // Generate the report regardless of success or failure
+                run.generateReport();
+                executionListener.testFinished(plan.getTestName(), !testFailed);
+
+                // Report to JIRA if test failed
+                if (testFailed) {
+                    Throwable cause = failureException != null ? failureException : failureAException;
+                    String fingerprint = failedStep != null
+                            ? FailureFingerprint.compute(plan.getTestName(), failedStep.getIndex(), failedStep.getAction(), cause)
+                            : FailureFingerprint.compute(plan.getTestName(), -1, null, cause);
+                    if (jiraReporting) {
+                        reportToJira(run, plan.getTestName(), failureException, fingerprint);
+                    }
+
+                    // The assertAll will throw an AssertionError if any steps failed
+                    run.assertAll(); // This will throw an exception
+                }
+            } finally {
+                // An outer context (e.g. TestListener's around a TestNG test) still gets the step log
+                if (previous != null && !previous.isClosed()) {
+                    previous.addStepLog(run.getStepLog());
+                }
+                // Release the test's reporting state right away, whichever thread runs the next test
+                run.close();
+                TestReporter.bind(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns why the step can't run, or null if all of its dependencies passed
+     */
+    private static String findUnmetDependency(CompiledStep step, List<CompiledStep> steps, boolean[] passed) {
+        for (int dependency : step.getDependencies()) {
+            if (!passed[dependency]) {
+                CompiledStep required = steps.get(dependency);
+                return (required.isCritical() ? "critical step " : "")
+                        + required.getDisplayName() + " did not pass";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Brings the browser into the state left behind by the plan's setup: restores
+     * the captured snapshot if there is a live one, otherwise runs the setup
+     * steps and captures a new snapshot for the test cases that follow
+     */
+    private void prepareSession(ExecutionPlan plan, ActionContext context) {
+        CompiledFixture setup = plan.getSetup();
+        SessionSnapshotStore store = SessionSnapshotStore.getDefault();
+        if (restoreSnapshot(setup, store, context.getRunContext())) {
+            return;
+        }
+
+        synchronized (store.lockFor(setup.getName())) {
+            // Another worker may have captured the session while this one waited
+            if (restoreSnapshot(setup, store, context.getRunContext())) {
+                return;
+            }
 
-            // Report to JIRA if test failed
-            if (testFailed) {
-                reportToJira(testCase, failureException);
+            for (CompiledStep step : setup.getSteps()) {
+                String stepName = "Setup " + setup.getName() + " - " + step.getDisplayName();
+                try {
+                    context.getRunContext().startStep(stepName, step.getAction(), step.getLocatorDescription());
+                    step.getHandler().execute(context, step);
+                    context.getRunContext().logStep(stepName, step.getAction(), true);
+                } catch (Exception | AssertionError e) {
+                    context.getRunContext().logStep(stepName, step.getAction(), false);
+                    context.getRunContext().fail("Setup step failed: " + e.getMessage());
+                    executionListener.stepFailed(plan.getTestName(), step, e);
+                    throw new SetupFailedException(step, e);
+                }
+            }
 
-                // The assertAll will throw an AssertionError if any steps failed
-                TestReporter.assertAll(); // This will throw an exception
+            long ttlMillis = setup.getTtl() != null ? setup.getTtl().toMillis() : SessionSnapshotStore.getDefaultTtlMillis();
+            try {
+                store.put(setup.getName(), SessionSnapshot.capture(driver, ttlMillis));
+                context.getRunContext().logInfo("Setup " + setup.getName(), "Captured session snapshot (valid for "
+                        + (ttlMillis / 1000) + " s)");
+            } catch (Exception e) {
+                System.err.println("Failed to capture session snapshot '" + setup.getName() + "': " + e.getMessage());
             }
         }
     }
 
-    private void reportToJira(TestCase testCase, Exception failureException) {
+    private boolean restoreSnapshot(CompiledFixture setup, SessionSnapshotStore store, RunContext run) {
+        SessionSnapshot snapshot = store.get(setup.getName());
+        if (snapshot == null) {
+            return false;
+        }
         try {
-            // Create a JIRA reporter
-            JiraIssueReporter jiraReporter = new JiraIssueReporter();
+            snapshot.restoreInto(driver);
+            long ageSeconds = (System.currentTimeMillis() - snapshot.getCapturedAt()) / 1000;
+            run.logInfo("Setup " + setup.getName(), "Restored session snapshot captured " + ageSeconds + " s ago");
+            return true;
+        } catch (Exception e) {
+            // A snapshot that can't be restored is useless to the next test case as well
+            store.invalidate(setup.getName());
+            System.err.println("Failed to restore session snapshot '" + setup.getName() + "', running setup steps: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static class SetupFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final CompiledStep step;
+
+        SetupFailedException(CompiledStep step, Throwable cause) {
+            super(cause.getMessage(), cause);
+            this.step = step;
+        }
+    }
+
+    /**
+     * Queues a Jira issue for a failed test case, using the step log of its run
+     */
+    public static void reportToJira(RunContext run, String testName, Exception failureException, String fingerprint) {
+        try {
+            JiraReportingService jiraService = JiraReportingService.getInstance();
 
             // Only proceed if JIRA integration is enabled
-            if (jiraReporter.isEnabled()) {
+            if (jiraService.isEnabled()) {
                 // Create a summary for the issue
-                String summary = "Test Failure: " + testCase.getName();
+                String summary = "Test Failure: " + testName;
 
                 // Build a detailed description
                 StringBuilder description = new StringBuilder();
-                description.append("*Test Name:* ").append(testCase.getName()).append("\n\n");
+                description.append("*Test Name:* ").append(testName).append("\n\n");
                 description.append("*Failure Message:* ").append(failureException != null ?
                         failureException.getMessage() : "Test failed").append("\n\n");
 
                 // Add test steps
                 description.append("*Test Steps:*\n");
-                List<String> steps = TestReporter.getStepLog();
+                List<String> steps = run.getStepLog();
                 for (String step : steps) {
                     description.append("# ").append(step).append("\n");
                 }
@@ -131,117 +337,13 @@ public class ActionHandler {
                 SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
                 description.append("\n*Execution Date:* ").append(dateFormat.format(new Date()));
 
-                // Create the issue in Jira
-                String issueKey = jiraReporter.createIssue(summary, description.toString(), testCase.getName());
-
-                if (issueKey != null) {
-                    System.out.println("Jira issue created: " + issueKey);
-                    TestReporter.setJiraIssue(issueKey, jiraReporter.getJiraUrl());
-                }
+                // Queue the issue; it is created in the background so the test thread doesn't wait on Jira
+                jiraService.submit(new FailureReport(testName, summary, description.toString(),
+                        fingerprint, issueKey -> run.recordJiraIssue(issueKey, jiraService.getJiraUrl())));
             }
         } catch (Exception e) {
             System.err.println("Failed to create Jira issue: " + e.getMessage());
             e.printStackTrace();
         }
     }
-
-    private void executeStep(TestStep step) {
-        // Handle the case where element is null or empty for actions like "open url"
-        if (step.getElement() == null && step.getSelectorType() != null && step.getSelector() != null) {
-            step.setElement(step.getSelectorType() + "=" + step.getSelector());
-        }
-        switch (step.getAction()) {
-            case "end_the_test":
-                if (step.isEndOfTest()) {
-                    driver.quit();
-                    return;
-                }
-                break;
-
-            case "open_browser":
-            case "open url":
-                String url = step.getUrl();
-                if (url != null && !url.isEmpty()) {
-                    System.out.println("Opening URL: " + url);
-                    driver.get(url);
-                } else if (step.getValue() != null && !step.getValue().isEmpty()) {
-                    // Fall back to value field if URL is not set
-                    System.out.println("Opening URL from value: " + step.getValue());
-                    driver.get(step.getValue());
-                }
-                break;
-
-            case "input text":
-            case "input_text":
-                WebElement inputElement = findElement(step.getElement());
-                inputElement.clear();
-                inputElement.sendKeys(step.getValue());
-                break;
-
-            case "click":
-                WebElement clickElement = findElement(step.getElement());
-                clickElement.click();
-                break;
-
-            case "wait":
-                try {
-                    long waitTime = 2000;
-                    if (step.getValue() != null && !step.getValue().isEmpty()) {
-                        try {
-                            waitTime = Long.parseLong(step.getValue());
-                        } catch (NumberFormatException e) {
-                            // Use default wait time
-                        }
-                    }
-                    System.out.println("Waiting for " + waitTime + "ms");
-                    Thread.sleep(waitTime);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-                break;
-
-            case "verify_text":
-                WebElement verifyElement = findElement(step.getElement());
-                String actualText = verifyElement.getText();
-                try
-                {
-                   Assert.assertEquals(actualText, step.getExpected(), "Text verification failed!");
-                }
-                catch(AssertionError e)
-                {
-                   TestReporter.fail("Text verification failed! Expected: " + step.getExpected() + ", Actual: " + actualText);
-                   throw e;
-                }
-                break;
-
-            default:
-                throw new IllegalArgumentException("Unknown action: " + step.getAction());
-        }
-    }
-
-    private WebElement findElement(String locator) {
-        if (locator != null && locator.contains("=")) {
-            String[] parts = locator.split("=", 2);
-            String locatorType = parts[0];
-            String locatorValue = parts[1];
-
-            try {
-                switch (locatorType) {
-                    case "id":
-                        return wait.until(ExpectedConditions.visibilityOfElementLocated(By.id(locatorValue)));
-                    case "css":
-                        return wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector(locatorValue)));
-                    case "xpath":
-                        return wait.until(ExpectedConditions.visibilityOfElementLocated(By.xpath(locatorValue)));
-                    case "class":
-                        return wait.until(ExpectedConditions.visibilityOfElementLocated(By.className(locatorValue)));
-                    default:
-                        throw new IllegalArgumentException("Unknown selector type: " + locatorType);
-                }
-            } catch (TimeoutException e) {
-                throw new NoSuchElementException("Element not found: " + locator);
-            }
-        }
-        throw new IllegalArgumentException("Invalid locator format: " + locator);
-    }
 }
\ No newline at end of file
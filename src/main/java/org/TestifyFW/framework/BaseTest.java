@@ -1,20 +1,32 @@
 package org.TestifyFW.framework;
 
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Listeners;
+import org.TestifyFW.framework.network.ResourceBlocker;
 import org.TestifyFW.reporter.TestListener;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Listeners(org.TestifyFW.reporter.TestListener.class)
 public class BaseTest {
+    // Driver binaries only need to be resolved once per browser and JVM
+    private static final Set<String> preparedBrowsers = ConcurrentHashMap.newKeySet();
+
     public WebDriver driver;
     private String browserType = "chrome"; // Default browser
 
@@ -28,33 +40,131 @@ public class BaseTest {
     }
 
     public void initializeDriver(String browser) {
-        switch (browser.toLowerCase()) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--remote-allow-origins=*");
-                chromeOptions.addArguments("--disable-blink-features=AutomationControlled"); // Prevent detection
-                chromeOptions.addArguments("--start-maximized"); // Open in full-screen
-                chromeOptions.addArguments("user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.5735.134 Safari/537.36");
-                driver = new ChromeDriver(chromeOptions);
-                break;
+        driver = createDriver(browser);
+    }
+
+    /**
+     * Starts a browser using the profile selected with testify.browser.profile
+     */
+    public static WebDriver createDriver(String browser) {
+        return createDriver(browser, BrowserProfiles.getSelected());
+    }
+
+    /**
+     * Starts a browser, optionally headless so it can run on agents without a display
+     */
+    public static WebDriver createDriver(String browser, boolean headless) {
+        BrowserProfile profile = BrowserProfiles.getSelected();
+        if (headless && !profile.isHeadless()) {
+            profile.setHeadless(true);
+        }
+        return createDriver(browser, profile);
+    }
 
+    public static WebDriver createDriver(String browser, BrowserProfile profile) {
+        WebDriver driver;
+        switch (browser.toLowerCase()) {
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                driver = new FirefoxDriver(firefoxOptions);
+                prepareDriverBinary("firefox");
+                driver = new FirefoxDriver(firefoxOptions(profile));
                 break;
 
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver();
+                prepareDriverBinary("edge");
+                driver = new EdgeDriver(applyChromiumProfile(new EdgeOptions(), profile));
                 break;
 
+            case "chrome":
             default:
-                WebDriverManager.chromedriver().setup();
-                driver = new ChromeDriver();
+                prepareDriverBinary("chrome");
+                driver = new ChromeDriver(applyChromiumProfile(new ChromeOptions(), profile));
                 break;
         }
+
+        // Drop analytics, fonts etc. before the first page is opened
+        ResourceBlocker.attach(driver, profile.getBlockedUrls(), profile.getBlockedResourceTypes());
+        return driver;
+    }
+
+    private static <T extends ChromiumOptions<?>> T applyChromiumProfile(T options, BrowserProfile profile) {
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("--disable-blink-features=AutomationControlled"); // Prevent detection
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(profile.getPageLoadStrategy()));
+
+        if (profile.isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        int[] window = profile.getWindowDimensions();
+        if (window != null) {
+            options.addArguments("--window-size=" + window[0] + "," + window[1]);
+        } else if (!profile.isHeadless()) {
+            options.addArguments("--start-maximized"); // Open in full-screen
+        }
+        if (profile.isDisableImages()) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+        if (profile.isDisableExtensions()) {
+            options.addArguments("--disable-extensions");
+        }
+        if (profile.isDisableGpu()) {
+            options.addArguments("--disable-gpu");
+        }
+        if (profile.getUserAgent() != null) {
+            options.addArguments("user-agent=" + profile.getUserAgent());
+        }
+        options.addArguments(profile.getExtraArguments());
+        return options;
+    }
+
+    private static FirefoxOptions firefoxOptions(BrowserProfile profile) {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(profile.getPageLoadStrategy()));
+
+        if (profile.isHeadless()) {
+            options.addArguments("-headless");
+        }
+        int[] window = profile.getWindowDimensions();
+        if (window != null) {
+            options.addArguments("--width=" + window[0], "--height=" + window[1]);
+        }
+        if (profile.isDisableImages()) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (profile.isDisableExtensions()) {
+            options.addPreference("extensions.enabledScopes", 0);
+        }
+        if (profile.isDisableGpu()) {
+            options.addPreference("layers.acceleration.disabled", true);
+            options.addPreference("gfx.webrender.software", true);
+        }
+        options.addArguments(profile.getExtraArguments());
+        return options;
+    }
+
+    private static void prepareDriverBinary(String browser) {
+        if (preparedBrowsers.contains(browser)) {
+            return;
+        }
+        synchronized (preparedBrowsers) {
+            if (preparedBrowsers.contains(browser)) {
+                return;
+            }
+            switch (browser) {
+                case "firefox":
+                    WebDriverManager.firefoxdriver().setup();
+                    break;
+                case "edge":
+                    WebDriverManager.edgedriver().setup();
+                    break;
+                default:
+                    WebDriverManager.chromedriver().setup();
+                    break;
+            }
+            preparedBrowsers.add(browser);
+        }
     }
 
     @AfterClass
@@ -63,4 +173,4 @@ public class BaseTest {
             driver.quit(); // Closes browser after tests
         }
     }
-}
\ No newline at end of file
+}
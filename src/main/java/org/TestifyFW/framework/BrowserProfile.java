@@ -0,0 +1,151 @@
+package org.TestifyFW.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Named set of browser launch options, loaded from browser-profiles.properties.
+ * A profile lets a run trade rendering fidelity for speed, e.g. headless with
+ * images disabled and an eager page-load strategy on CI.
+ */
+public class BrowserProfile {
+    private String name;
+    private boolean headless;
+    private String windowSize;          // "1920x1080"; null opens the window maximized
+    private String pageLoadStrategy = "normal";
+    private boolean disableImages;
+    private boolean disableExtensions;
+    private boolean disableGpu;
+    private String userAgent;           // Only applied to Chromium based browsers
+    private List<String> extraArguments = new ArrayList<>();
+    private List<String> blockedUrls = new ArrayList<>();           // Network.setBlockedURLs patterns, '*' wildcards
+    private List<String> blockedResourceTypes = new ArrayList<>();  // CDP resource types: Image, Font, Media, Stylesheet, ...
+
+    public BrowserProfile() {
+    }
+
+    public BrowserProfile(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Reads the "<name>.*" keys of a profile, falling back to the given base profile
+     */
+    static BrowserProfile fromProperties(String name, Properties props, BrowserProfile base) {
+        BrowserProfile profile = base != null ? base.copy() : new BrowserProfile();
+        profile.setName(name);
+        String prefix = name + ".";
+
+        String value = props.getProperty(prefix + "headless");
+        if (value != null) profile.setHeadless(Boolean.parseBoolean(value.trim()));
+        value = props.getProperty(prefix + "windowSize");
+        if (value != null) profile.setWindowSize(value.trim().isEmpty() || "maximized".equalsIgnoreCase(value.trim()) ? null : value.trim());
+        value = props.getProperty(prefix + "pageLoadStrategy");
+        if (value != null) {
+            String strategy = value.trim().toLowerCase();
+            if (!strategy.equals("normal") && !strategy.equals("eager") && !strategy.equals("none")) {
+                throw new IllegalArgumentException("Invalid pageLoadStrategy '" + value + "' in browser profile " + name
+                        + " (expected normal, eager or none)");
+            }
+            profile.setPageLoadStrategy(strategy);
+        }
+        value = props.getProperty(prefix + "disableImages");
+        if (value != null) profile.setDisableImages(Boolean.parseBoolean(value.trim()));
+        value = props.getProperty(prefix + "disableExtensions");
+        if (value != null) profile.setDisableExtensions(Boolean.parseBoolean(value.trim()));
+        value = props.getProperty(prefix + "disableGpu");
+        if (value != null) profile.setDisableGpu(Boolean.parseBoolean(value.trim()));
+        value = props.getProperty(prefix + "userAgent");
+        if (value != null) profile.setUserAgent(value.trim().isEmpty() ? null : value.trim());
+        value = props.getProperty(prefix + "arguments");
+        if (value != null) profile.setExtraArguments(parseList(value));
+        value = props.getProperty(prefix + "blockUrls");
+        if (value != null) profile.setBlockedUrls(parseList(value));
+        value = props.getProperty(prefix + "blockResourceTypes");
+        if (value != null) profile.setBlockedResourceTypes(parseList(value));
+        return profile;
+    }
+
+    private static List<String> parseList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    public BrowserProfile copy() {
+        BrowserProfile copy = new BrowserProfile(name);
+        copy.headless = headless;
+        copy.windowSize = windowSize;
+        copy.pageLoadStrategy = pageLoadStrategy;
+        copy.disableImages = disableImages;
+        copy.disableExtensions = disableExtensions;
+        copy.disableGpu = disableGpu;
+        copy.userAgent = userAgent;
+        copy.extraArguments = new ArrayList<>(extraArguments);
+        copy.blockedUrls = new ArrayList<>(blockedUrls);
+        copy.blockedResourceTypes = new ArrayList<>(blockedResourceTypes);
+        return copy;
+    }
+
+    /**
+     * Window width and height parsed from windowSize, or null when the window should be maximized
+     */
+    public int[] getWindowDimensions() {
+        if (windowSize == null) {
+            return null;
+        }
+        String[] parts = windowSize.toLowerCase().split("[x,]");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid window size '" + windowSize + "' in browser profile " + name);
+        }
+        try {
+            return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid window size '" + windowSize + "' in browser profile " + name);
+        }
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public boolean isHeadless() { return headless; }
+    public void setHeadless(boolean headless) { this.headless = headless; }
+
+    public String getWindowSize() { return windowSize; }
+    public void setWindowSize(String windowSize) { this.windowSize = windowSize; }
+
+    public String getPageLoadStrategy() { return pageLoadStrategy; }
+    public void setPageLoadStrategy(String pageLoadStrategy) { this.pageLoadStrategy = pageLoadStrategy; }
+
+    public boolean isDisableImages() { return disableImages; }
+    public void setDisableImages(boolean disableImages) { this.disableImages = disableImages; }
+
+    public boolean isDisableExtensions() { return disableExtensions; }
+    public void setDisableExtensions(boolean disableExtensions) { this.disableExtensions = disableExtensions; }
+
+    public boolean isDisableGpu() { return disableGpu; }
+    public void setDisableGpu(boolean disableGpu) { this.disableGpu = disableGpu; }
+
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+
+    public List<String> getExtraArguments() { return extraArguments; }
+    public void setExtraArguments(List<String> extraArguments) { this.extraArguments = extraArguments; }
+
+    public List<String> getBlockedUrls() { return blockedUrls; }
+    public void setBlockedUrls(List<String> blockedUrls) { this.blockedUrls = blockedUrls; }
+
+    public List<String> getBlockedResourceTypes() { return blockedResourceTypes; }
+    public void setBlockedResourceTypes(List<String> blockedResourceTypes) { this.blockedResourceTypes = blockedResourceTypes; }
+
+    @Override
+    public String toString() {
+        return name + " (headless=" + headless + ", window=" + (windowSize != null ? windowSize : "maximized")
+                + ", pageLoad=" + pageLoadStrategy + ")";
+    }
+}
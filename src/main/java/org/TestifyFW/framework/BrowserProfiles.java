@@ -0,0 +1,138 @@
+package org.TestifyFW.framework;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Registry of browser profiles.
+ * Built-in profiles ("default", "headless", "fast") can be overridden and new
+ * ones added in browser-profiles.properties, using keys like:
+ *
+ *   ci.extends=fast
+ *   ci.windowSize=1366x768
+ *   ci.pageLoadStrategy=eager
+ *
+ * The profile used when none is chosen explicitly comes from the system
+ * property testify.browser.profile; the file location from testify.browser.profiles.
+ */
+public final class BrowserProfiles {
+    public static final String DEFAULT_PROFILE = "default";
+    private static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/114.0.5735.134 Safari/537.36";
+
+    private static Map<String, BrowserProfile> profiles;
+
+    private BrowserProfiles() {
+    }
+
+    /**
+     * Returns a copy of the named profile, so callers may adjust it for their run
+     */
+    public static synchronized BrowserProfile get(String name) {
+        if (profiles == null) {
+            profiles = load(loadConfigurationFile());
+        }
+        BrowserProfile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown browser profile '" + name + "'. Available: " + profiles.keySet());
+        }
+        return profile.copy();
+    }
+
+    /**
+     * The profile selected through testify.browser.profile, or "default"
+     */
+    public static BrowserProfile getSelected() {
+        return get(System.getProperty("testify.browser.profile", DEFAULT_PROFILE));
+    }
+
+    static Map<String, BrowserProfile> load(Properties props) {
+        Map<String, BrowserProfile> loaded = new TreeMap<>(builtInProfiles());
+
+        // Profile names are the part of each key before the first dot
+        TreeMap<String, String> names = new TreeMap<>();
+        for (String key : props.stringPropertyNames()) {
+            int dot = key.indexOf('.');
+            if (dot > 0) {
+                names.put(key.substring(0, dot), props.getProperty(key.substring(0, dot) + ".extends"));
+            }
+        }
+        for (String name : new ArrayList<>(names.keySet())) {
+            resolve(name, props, loaded, names, 0);
+        }
+        return loaded;
+    }
+
+    private static BrowserProfile resolve(String name, Properties props, Map<String, BrowserProfile> loaded,
+                                          Map<String, String> pending, int depth) {
+        if (!pending.containsKey(name)) {
+            return loaded.get(name);
+        }
+        if (depth > 10) {
+            throw new IllegalArgumentException("Browser profile inheritance is too deep or cyclic at '" + name + "'");
+        }
+        String parentName = pending.get(name);
+        BrowserProfile base = loaded.get(name);
+        if (parentName != null) {
+            base = resolve(parentName.trim(), props, loaded, pending, depth + 1);
+            if (base == null) {
+                throw new IllegalArgumentException("Browser profile '" + name + "' extends unknown profile '" + parentName + "'");
+            }
+        }
+        BrowserProfile profile = BrowserProfile.fromProperties(name, props, base);
+        loaded.put(name, profile);
+        pending.remove(name);
+        return profile;
+    }
+
+    private static Map<String, BrowserProfile> builtInProfiles() {
+        Map<String, BrowserProfile> builtIn = new TreeMap<>();
+
+        // Same behaviour as before profiles existed: a maximized, fully featured browser
+        BrowserProfile standard = new BrowserProfile(DEFAULT_PROFILE);
+        standard.setUserAgent(DEFAULT_USER_AGENT);
+        builtIn.put(standard.getName(), standard);
+
+        BrowserProfile headless = standard.copy();
+        headless.setName("headless");
+        headless.setHeadless(true);
+        headless.setWindowSize("1920x1080");
+        builtIn.put(headless.getName(), headless);
+
+        // Throughput over fidelity: no images, extensions or GPU, and don't wait for subresources
+        BrowserProfile fast = headless.copy();
+        fast.setName("fast");
+        fast.setPageLoadStrategy("eager");
+        fast.setDisableImages(true);
+        fast.setDisableExtensions(true);
+        fast.setDisableGpu(true);
+        fast.setBlockedUrls(new ArrayList<>(Arrays.asList(
+                "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+                "*connect.facebook.net*", "*hotjar.com*", "*segment.io*")));
+        fast.setBlockedResourceTypes(new ArrayList<>(Arrays.asList("Font", "Media")));
+        builtIn.put(fast.getName(), fast);
+
+        return builtIn;
+    }
+
+    private static Properties loadConfigurationFile() {
+        Properties props = new Properties();
+        String location = System.getProperty("testify.browser.profiles", "browser-profiles.properties");
+        if (!Files.exists(Paths.get(location))) {
+            return props;
+        }
+        try (InputStream input = new FileInputStream(location)) {
+            props.load(input);
+        } catch (IOException e) {
+            System.err.println("Failed to load browser profiles: " + e.getMessage());
+        }
+        return props;
+    }
+}
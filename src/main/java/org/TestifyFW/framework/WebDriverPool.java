@@ -0,0 +1,437 @@
+package org.TestifyFW.framework;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable WebDriver sessions.
+ * Sessions are reset between test cases instead of being closed, so the
+ * browser only has to start once per pool slot rather than once per test.
+ *
+ * A reset must leave no cookies or storage of any origin the test visited.
+ * On Chromium the pool follows every navigation through DevTools and clears
+ * all cookies plus the storage of each visited origin. Other browsers can
+ * only clear the origin they are on, so their session is replaced instead
+ * when the test may have left the origin it started on. Sessions that
+ * opened extra windows are always replaced.
+ */
+public class WebDriverPool implements AutoCloseable {
+    // True if the page loaded at most once (a fresh tab has a history of one) and embeds no other origin
+    private static final String STAYED_ON_START_ORIGIN_SCRIPT =
+            "if (window.history.length > 2) { return false; }"
+            + "for (var i = 0; i < window.frames.length; i++) {"
+            + "  try { if (window.frames[i].location.origin !== window.location.origin) { return false; } }"
+            + "  catch (e) { return false; }"
+            + "}"
+            + "return true;";
+
+    private final Supplier<WebDriver> driverFactory;
+    private final int minSize;
+    private final int maxSize;
+    private long idleTimeoutMillis = 5 * 60 * 1000;
+    private long borrowTimeoutMillis = 5 * 60 * 1000;
+
+    private final Deque<IdleSession> idleSessions = new ArrayDeque<>();
+    private final Set<WebDriver> borrowedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Origins each DevTools-capable session navigated to since its last reset
+    private final Map<WebDriver, Set<String>> visitedOrigins = Collections.synchronizedMap(new IdentityHashMap<>());
+    private int pendingCreations = 0;
+    private volatile boolean closed = false;
+
+    private int createdCount = 0;
+    private int reuseCount = 0;
+
+    private final ScheduledExecutorService evictor;
+
+    private static class IdleSession {
+        private final WebDriver driver;
+        private final long idleSince;
+
+        IdleSession(WebDriver driver) {
+            this.driver = driver;
+            this.idleSince = System.currentTimeMillis();
+        }
+    }
+
+    public WebDriverPool(String browserType, int minSize, int maxSize) {
+        this(() -> BaseTest.createDriver(browserType), minSize, maxSize);
+    }
+
+    public WebDriverPool(Supplier<WebDriver> driverFactory, int minSize, int maxSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.driverFactory = driverFactory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "testify-driver-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleSessions, 30, 30, TimeUnit.SECONDS);
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * Starts sessions up front until the pool holds at least minSize of them
+     */
+    public void warmUp() {
+        while (true) {
+            synchronized (this) {
+                if (closed || idleSessions.size() + borrowedSessions.size() + pendingCreations >= minSize) {
+                    return;
+                }
+                pendingCreations++;
+            }
+            WebDriver driver = createSession();
+            boolean poolClosed;
+            synchronized (this) {
+                pendingCreations--;
+                // close() may have run while the browser started; it has nothing to quit this one with
+                poolClosed = closed;
+                if (!poolClosed) {
+                    idleSessions.addLast(new IdleSession(driver));
+                }
+                notifyAll();
+            }
+            if (poolClosed) {
+                quitQuietly(driver);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands out a healthy session, starting a new browser only if none is idle
+     * and the pool is below its maximum size
+     */
+    public WebDriver borrow() {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMillis;
+        while (true) {
+            WebDriver candidate = null;
+            boolean create = false;
+
+            synchronized (this) {
+                while (true) {
+                    if (closed) {
+                        throw new IllegalStateException("WebDriver pool is closed");
+                    }
+                    if (!idleSessions.isEmpty()) {
+                        // Most recently used first, so surplus sessions age out and get evicted
+                        candidate = idleSessions.pollLast().driver;
+                        break;
+                    }
+                    if (borrowedSessions.size() + pendingCreations < maxSize) {
+                        pendingCreations++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Timed out waiting for a WebDriver session");
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for a WebDriver session", e);
+                    }
+                }
+            }
+
+            if (create) {
+                candidate = createSession();
+            } else if (!isHealthy(candidate)) {
+                System.out.println("Discarding unhealthy WebDriver session");
+                quitQuietly(candidate);
+                continue;
+            }
+
+            boolean poolClosed;
+            synchronized (this) {
+                if (create) {
+                    pendingCreations--;
+                }
+                // close() may have run while the session was started or checked, after it drained the pool
+                poolClosed = closed;
+                if (!poolClosed) {
+                    if (!create) {
+                        reuseCount++;
+                    }
+                    borrowedSessions.add(candidate);
+                }
+                notifyAll();
+            }
+            if (poolClosed) {
+                quitQuietly(candidate);
+                throw new IllegalStateException("WebDriver pool is closed");
+            }
+            return candidate;
+        }
+    }
+
+    /**
+     * Resets a borrowed session and makes it available to the next test case
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!borrowedSessions.contains(driver)) {
+                return;
+            }
+        }
+
+        boolean reusable = !closed && isHealthy(driver) && resetSession(driver);
+        synchronized (this) {
+            borrowedSessions.remove(driver);
+            if (reusable && !closed) {
+                idleSessions.addLast(new IdleSession(driver));
+            } else {
+                reusable = false;
+            }
+            notifyAll();
+        }
+        if (!reusable) {
+            quitQuietly(driver);
+        }
+    }
+
+    /**
+     * Removes a borrowed session from the pool and closes its browser
+     */
+    public void invalidate(WebDriver driver) {
+        synchronized (this) {
+            borrowedSessions.remove(driver);
+            notifyAll();
+        }
+        quitQuietly(driver);
+    }
+
+    public synchronized int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    public synchronized int getActiveCount() {
+        return borrowedSessions.size();
+    }
+
+    public synchronized int getCreatedCount() {
+        return createdCount;
+    }
+
+    public synchronized int getReuseCount() {
+        return reuseCount;
+    }
+
+    @Override
+    public void close() {
+        List<WebDriver> toQuit = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (IdleSession session : idleSessions) {
+                toQuit.add(session.driver);
+            }
+            idleSessions.clear();
+            toQuit.addAll(borrowedSessions);
+            borrowedSessions.clear();
+            notifyAll();
+        }
+        evictor.shutdownNow();
+        for (WebDriver driver : toQuit) {
+            quitQuietly(driver);
+        }
+        System.out.println("WebDriver pool closed (" + createdCount + " browser(s) started, "
+                + reuseCount + " session reuse(s))");
+    }
+
+    private WebDriver createSession() {
+        try {
+            WebDriver driver = driverFactory.get();
+            synchronized (this) {
+                createdCount++;
+            }
+            trackOrigins(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingCreations--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private void evictIdleSessions() {
+        List<WebDriver> toQuit = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Iterator<IdleSession> iterator = idleSessions.iterator();
+            while (iterator.hasNext()) {
+                IdleSession session = iterator.next();
+                if (idleSessions.size() + borrowedSessions.size() <= minSize) {
+                    break;
+                }
+                if (now - session.idleSince >= idleTimeoutMillis) {
+                    iterator.remove();
+                    toQuit.add(session.driver);
+                }
+            }
+        }
+        for (WebDriver driver : toQuit) {
+            System.out.println("Evicting idle WebDriver session");
+            quitQuietly(driver);
+        }
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
+                return false;
+            }
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Records the origin of every frame the session navigates, so a reset knows whose storage to clear
+    private void trackOrigins(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Set<String> origins = ConcurrentHashMap.newKeySet();
+            devTools.addListener(new Event<Map<String, Object>>("Page.frameNavigated", input -> input.read(Json.MAP_TYPE)),
+                    params -> {
+                        Object frame = params.get("frame");
+                        Object origin = frame instanceof Map ? ((Map<?, ?>) frame).get("securityOrigin") : null;
+                        if (origin instanceof String && ((String) origin).startsWith("http")) {
+                            origins.add((String) origin);
+                        }
+                    });
+            devTools.send(new Command<Void>("Page.enable", new HashMap<>()));
+            devTools.send(new Command<Void>("DOMStorage.enable", new HashMap<>()));
+            visitedOrigins.put(driver, origins);
+        } catch (Exception e) {
+            // Reset falls back to what WebDriver can clear
+            System.out.println("Session reset without DevTools: " + e.getMessage());
+        }
+    }
+
+    // Clears everything the test stored and parks the browser on a blank page; false if the session must be replaced
+    private boolean resetSession(WebDriver driver) {
+        try {
+            // Navigations in other windows are not tracked
+            int windows = driver.getWindowHandles().size();
+            if (windows > 1) {
+                System.out.println("Replacing WebDriver session: the test opened " + (windows - 1) + " extra window(s)");
+                return false;
+            }
+            Set<String> origins = visitedOrigins.get(driver);
+            return origins != null ? clearVisitedOrigins(driver, origins) : clearCurrentOrigin(driver);
+        } catch (Exception e) {
+            System.err.println("Failed to reset WebDriver session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean clearVisitedOrigins(WebDriver driver, Set<String> origins) {
+        // Leave the test's page first, so it can't write anything back
+        driver.get("about:blank");
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.send(new Command<Void>("Network.clearBrowserCookies", new HashMap<>()));
+        for (String origin : new ArrayList<>(origins)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("origin", origin);
+            params.put("storageTypes", "all");
+            devTools.send(new Command<Void>("Storage.clearDataForOrigin", params));
+
+            // Session storage belongs to the tab and is not part of "all"
+            Map<String, Object> storageId = new HashMap<>();
+            storageId.put("securityOrigin", origin);
+            storageId.put("isLocalStorage", false);
+            Map<String, Object> clear = new HashMap<>();
+            clear.put("storageId", storageId);
+            devTools.send(new Command<Void>("DOMStorage.clear", clear));
+            origins.remove(origin);
+        }
+        return true;
+    }
+
+    private static boolean clearCurrentOrigin(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return false;
+        }
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        if (!Boolean.TRUE.equals(js.executeScript(STAYED_ON_START_ORIGIN_SCRIPT))) {
+            System.out.println("Replacing WebDriver session: the test may have left its start origin");
+            return false;
+        }
+
+        driver.manage().deleteAllCookies();
+        try {
+            js.executeScript("try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception e) {
+            // Pages such as about:blank have no storage to clear
+        }
+
+        // Continue in a new tab, whose history and session storage start out empty
+        String testWindow = driver.getWindowHandle();
+        driver.switchTo().newWindow(WindowType.TAB);
+        String freshWindow = driver.getWindowHandle();
+        driver.switchTo().window(testWindow);
+        driver.close();
+        driver.switchTo().window(freshWindow);
+        return true;
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        visitedOrigins.remove(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Failed to close browser: " + e.getMessage());
+        }
+    }
+}
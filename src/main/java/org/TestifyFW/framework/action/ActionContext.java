@@ -0,0 +1,111 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.framework.wait.AdaptiveWait;
+import org.TestifyFW.framework.wait.PollingSettings;
+import org.TestifyFW.reporter.RunContext;
+import org.TestifyFW.reporter.TestReporter;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
+
+/**
+ * Browser and reporting state shared by the actions of a running test case
+ */
+public class ActionContext {
+    private final WebDriver driver;
+    private final boolean pooledSession;
+    private final PollingSettings pollingSettings;
+    private final RunContext runContext;
+
+    public ActionContext(WebDriver driver, boolean pooledSession) {
+        this(driver, pooledSession, PollingSettings.defaults());
+    }
+
+    public ActionContext(WebDriver driver, boolean pooledSession, PollingSettings pollingSettings) {
+        this(driver, pooledSession, pollingSettings, null);
+    }
+
+    public ActionContext(WebDriver driver, boolean pooledSession, PollingSettings pollingSettings,
+                         RunContext runContext) {
+        this.driver = driver;
+        this.pooledSession = pooledSession;
+        this.pollingSettings = pollingSettings;
+        this.runContext = runContext;
+    }
+
+    /**
+     * Where actions report to: the test's own context, or the one bound to
+     * this thread if the context was created without one
+     */
+    public RunContext getRunContext() {
+        return runContext != null ? runContext : TestReporter.getContext();
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    // Pooled sessions belong to a WebDriverPool and must not be quit by actions
+    public boolean isPooledSession() {
+        return pooledSession;
+    }
+
+    /**
+     * Run-wide polling settings with the step's timeout and poll interval applied
+     */
+    public PollingSettings settingsFor(CompiledStep step) {
+        PollingSettings settings = pollingSettings;
+        if (step.getTimeout() != null) {
+            settings = settings.withTimeout(step.getTimeout());
+        }
+        if (step.getPollInterval() != null) {
+            settings = settings.withInitialInterval(step.getPollInterval());
+        }
+        return settings;
+    }
+
+    public AdaptiveWait newAdaptiveWait(CompiledStep step) {
+        return new AdaptiveWait(driver, settingsFor(step));
+    }
+
+    /**
+     * Returns the step's element once it is visible. An immediate findElements
+     * probe is tried first, so elements that are already on the page don't pay
+     * for a poll cycle.
+     */
+    public WebElement findElement(CompiledStep step) {
+        WebElement visible = findVisibleNow(step);
+        if (visible != null) {
+            return visible;
+        }
+        try {
+            return newAdaptiveWait(step).until(ExpectedConditions.visibilityOfElementLocated(step.getLocator()),
+                    "element " + step.getLocatorDescription());
+        } catch (TimeoutException e) {
+            throw new NoSuchElementException("Element not found: " + step.getLocatorDescription());
+        }
+    }
+
+    /**
+     * Single non-waiting lookup; returns the first displayed match or null
+     */
+    public WebElement findVisibleNow(CompiledStep step) {
+        List<WebElement> candidates = driver.findElements(step.getLocator());
+        for (WebElement candidate : candidates) {
+            try {
+                if (candidate.isDisplayed()) {
+                    return candidate;
+                }
+            } catch (StaleElementReferenceException e) {
+                // Removed between lookup and check; treat as not visible
+            }
+        }
+        return null;
+    }
+}
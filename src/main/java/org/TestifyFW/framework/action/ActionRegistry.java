@@ -0,0 +1,76 @@
+package org.TestifyFW.framework.action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Name-to-handler lookup for every available StepAction.
+ * The default registry is populated once from ServiceLoader; custom actions can
+ * also be registered programmatically and override built-ins of the same name.
+ */
+public final class ActionRegistry {
+    private final Map<String, StepAction> actions = new ConcurrentHashMap<>();
+    private final List<String> displayNames = new CopyOnWriteArrayList<>();
+
+    private static class DefaultHolder {
+        private static final ActionRegistry INSTANCE = loadFromServiceLoader();
+    }
+
+    public static ActionRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static ActionRegistry loadFromServiceLoader() {
+        ActionRegistry registry = new ActionRegistry();
+        ServiceLoader<StepAction> loader = ServiceLoader.load(StepAction.class, ActionRegistry.class.getClassLoader());
+        loader.stream().forEach(provider -> {
+            try {
+                registry.register(provider.get());
+            } catch (ServiceConfigurationError | RuntimeException e) {
+                System.err.println("Failed to load action " + provider.type().getName() + ": " + e.getMessage());
+            }
+        });
+        return registry;
+    }
+
+    public void register(StepAction action) {
+        List<String> names = action.getNames();
+        if (names == null || names.isEmpty()) {
+            throw new IllegalArgumentException("Action " + action.getClass().getName() + " declares no names");
+        }
+        for (String name : names) {
+            StepAction previous = actions.put(name, action);
+            if (previous != null && previous != action) {
+                System.out.println("Action '" + name + "' from " + previous.getClass().getName()
+                        + " overridden by " + action.getClass().getName());
+            }
+        }
+        if (!displayNames.contains(names.get(0))) {
+            displayNames.add(names.get(0));
+        }
+    }
+
+    /**
+     * Returns the handler for an action name, or null if none is registered
+     */
+    public StepAction get(String name) {
+        return name != null ? actions.get(name) : null;
+    }
+
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * Primary names of all registered actions, in registration order
+     */
+    public List<String> getActionNames() {
+        return Collections.unmodifiableList(new ArrayList<>(displayNames));
+    }
+}
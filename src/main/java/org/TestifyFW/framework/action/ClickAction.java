@@ -0,0 +1,21 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.WebElement;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ClickAction extends ElementAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("click");
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        WebElement clickElement = context.findElement(step);
+        clickElement.click();
+    }
+}
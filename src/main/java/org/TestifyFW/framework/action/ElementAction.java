@@ -0,0 +1,34 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.model.TestStep;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Base class for actions that operate on an element and therefore need a selector
+ */
+public abstract class ElementAction implements StepAction {
+
+    @Override
+    public void validate(TestStep step, List<String> errors) {
+        validateLocator(step, errors);
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.SELECTOR);
+    }
+
+    /**
+     * Reports an error unless the step names an element, by selectorType and selector or as "type=value"
+     */
+    static void validateLocator(TestStep step, List<String> errors) {
+        boolean hasSelector = step.getSelectorType() != null && step.getSelector() != null;
+        boolean hasElement = step.getElement() != null && step.getElement().contains("=");
+        if (!hasSelector && !hasElement) {
+            errors.add("a selectorType and selector are required");
+        }
+    }
+}
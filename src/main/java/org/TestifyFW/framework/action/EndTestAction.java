@@ -0,0 +1,29 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class EndTestAction implements StepAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("end_the_test");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.noneOf(StepField.class);
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        // Pooled sessions are handed back to the pool instead of being closed
+        if (step.isEndOfTest() && !context.isPooledSession()) {
+            context.getDriver().quit();
+        }
+    }
+}
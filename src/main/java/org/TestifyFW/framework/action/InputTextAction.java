@@ -0,0 +1,29 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.WebElement;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class InputTextAction extends ElementAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("input text", "input_text");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.SELECTOR, StepField.VALUE);
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        WebElement inputElement = context.findElement(step);
+        inputElement.clear();
+        inputElement.sendKeys(step.getValue());
+    }
+}
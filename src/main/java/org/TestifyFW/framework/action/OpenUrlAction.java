@@ -0,0 +1,46 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.model.TestStep;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class OpenUrlAction implements StepAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("open url", "open_browser");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.URL);
+    }
+
+    @Override
+    public void validate(TestStep step, List<String> errors) {
+        if (isBlank(step.getUrl()) && isBlank(step.getValue())) {
+            errors.add("a url (or value) is required");
+        }
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        String url = step.getUrl();
+        if (url != null && !url.isEmpty()) {
+            System.out.println("Opening URL: " + url);
+            context.getDriver().get(url);
+        } else if (step.getValue() != null && !step.getValue().isEmpty()) {
+            // Fall back to value field if URL is not set
+            System.out.println("Opening URL from value: " + step.getValue());
+            context.getDriver().get(step.getValue());
+        }
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.framework.wait.WaitSavings;
+import org.TestifyFW.model.TestStep;
+import org.openqa.selenium.WebDriver;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Base class for waits that return as soon as a condition holds instead of sleeping.
+ * When a step declares the fixed sleep it replaced (replacesSleep), the time saved
+ * is logged to the report and recorded in WaitSavings.
+ */
+public abstract class SmartWaitAction implements StepAction {
+
+    protected abstract Function<WebDriver, ?> condition(CompiledStep step);
+
+    protected abstract String describe(CompiledStep step);
+
+    protected boolean requiresElement() {
+        return false;
+    }
+
+    @Override
+    public void validate(TestStep step, List<String> errors) {
+        if (requiresElement()) {
+            ElementAction.validateLocator(step, errors);
+        }
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return requiresElement() ? EnumSet.of(StepField.SELECTOR) : EnumSet.noneOf(StepField.class);
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        long start = System.nanoTime();
+        context.newAdaptiveWait(step).until(condition(step), describe(step));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (step.getReplacedSleep() != null) {
+            WaitSavings.Entry entry = WaitSavings.record(context.getRunContext().getTestName(), step.getDisplayName(),
+                    step.getReplacedSleep().toMillis(), elapsedMillis);
+            context.getRunContext().logInfo(step.getDisplayName(), "Condition met after " + elapsedMillis
+                    + " ms (replaced a fixed " + entry.getReplacedSleepMillis() + " ms sleep, saved "
+                    + entry.getSavedMillis() + " ms)");
+        } else {
+            System.out.println("Condition met after " + elapsedMillis + " ms: " + describe(step));
+        }
+    }
+}
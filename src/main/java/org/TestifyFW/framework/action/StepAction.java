@@ -0,0 +1,38 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.model.TestStep;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Executes one kind of test step, e.g. "click" or "open url".
+ * Implementations are discovered through ServiceLoader: list the class name in
+ * META-INF/services/org.TestifyFW.framework.action.StepAction and it becomes
+ * available to YAML tests and the GUI. Implementations need a public no-arg constructor.
+ */
+public interface StepAction {
+
+    /**
+     * Action names as written in test cases; the first one is shown in the GUI,
+     * the rest are accepted as aliases
+     */
+    List<String> getNames();
+
+    /**
+     * Checks a step before any browser is started; problems are added to errors
+     */
+    default void validate(TestStep step, List<String> errors) {
+    }
+
+    /**
+     * Fields of a step the action reads; actions that don't say get a selector and a value
+     */
+    default Set<StepField> getFields() {
+        return EnumSet.of(StepField.SELECTOR, StepField.VALUE);
+    }
+
+    void execute(ActionContext context, CompiledStep step);
+}
@@ -0,0 +1,8 @@
+package org.TestifyFW.framework.action;
+
+/**
+ * Step fields an action reads, so editors such as the GUI only offer the ones that apply
+ */
+public enum StepField {
+    SELECTOR, VALUE, EXPECTED, URL
+}
@@ -0,0 +1,30 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Negative assertion: passes when no visible element matches the selector.
+ * It checks once and fails immediately, rather than waiting out a timeout
+ * for an element that is never supposed to appear.
+ */
+public class VerifyAbsentAction extends ElementAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("verify_absent");
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        WebElement visible = context.findVisibleNow(step);
+        if (visible != null) {
+            context.getRunContext().fail("Element should be absent but is visible: " + step.getLocatorDescription());
+            Assert.fail("Element should be absent but is visible: " + step.getLocatorDescription());
+        }
+    }
+}
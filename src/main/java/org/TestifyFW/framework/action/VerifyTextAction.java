@@ -0,0 +1,35 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class VerifyTextAction extends ElementAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("verify_text");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.SELECTOR, StepField.EXPECTED);
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        WebElement verifyElement = context.findElement(step);
+        String actualText = verifyElement.getText();
+        try {
+            Assert.assertEquals(actualText, step.getExpected(), "Text verification failed!");
+        } catch (AssertionError e) {
+            context.getRunContext().fail("Text verification failed! Expected: " + step.getExpected() + ", Actual: " + actualText);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class WaitAction implements StepAction {
+    private static final long DEFAULT_WAIT_MILLIS = 2000;
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("wait");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.VALUE);
+    }
+
+    @Override
+    public void execute(ActionContext context, CompiledStep step) {
+        long waitTime = step.getDuration() != null ? step.getDuration().toMillis() : DEFAULT_WAIT_MILLIS;
+        try {
+            System.out.println("Waiting for " + waitTime + "ms");
+            Thread.sleep(waitTime);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
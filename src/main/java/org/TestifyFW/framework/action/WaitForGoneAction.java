@@ -0,0 +1,32 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+public class WaitForGoneAction extends SmartWaitAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("wait_for_gone");
+    }
+
+    @Override
+    protected boolean requiresElement() {
+        return true;
+    }
+
+    @Override
+    protected Function<WebDriver, ?> condition(CompiledStep step) {
+        return ExpectedConditions.invisibilityOfElementLocated(step.getLocator());
+    }
+
+    @Override
+    protected String describe(CompiledStep step) {
+        return "element " + step.getLocatorDescription() + " to disappear";
+    }
+}
@@ -0,0 +1,87 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Waits until the page has loaded, no fetch or XHR request is in flight and no
+ * new resources have finished loading for a quiet period (value, in ms,
+ * default 500). Finished resources are counted with a PerformanceObserver,
+ * which unlike the resource timing buffer (250 entries by default) never
+ * stops counting. Everything runs in the page, so it works in every browser
+ * without DevTools access.
+ */
+public class WaitForNetworkIdleAction extends SmartWaitAction {
+    private static final long DEFAULT_QUIET_MILLIS = 500;
+
+    // Installs the counters once per document and returns "readyState|finished|in flight"
+    private static final String NETWORK_STATE_SCRIPT =
+            "var n = window.__testifyNetwork;"
+            + "if (!n) {"
+            + "  n = window.__testifyNetwork = {finished: performance.getEntriesByType('resource').length, pending: 0};"
+            + "  new PerformanceObserver(function (list) { n.finished += list.getEntries().length; })"
+            + "      .observe({entryTypes: ['resource']});"
+            + "  var done = function () { n.pending--; };"
+            + "  if (window.fetch) {"
+            + "    var fetch = window.fetch;"
+            + "    window.fetch = function () {"
+            + "      n.pending++;"
+            + "      try { var result = fetch.apply(this, arguments); } catch (e) { n.pending--; throw e; }"
+            + "      result.then(done, done);"
+            + "      return result;"
+            + "    };"
+            + "  }"
+            + "  var send = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function () {"
+            + "    n.pending++;"
+            + "    this.addEventListener('loadend', done);"
+            + "    try { return send.apply(this, arguments); } catch (e) { this.removeEventListener('loadend', done); n.pending--; throw e; }"
+            + "  };"
+            + "}"
+            + "return document.readyState + '|' + n.finished + '|' + n.pending;";
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("wait_for_network_idle");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.VALUE);
+    }
+
+    @Override
+    protected Function<WebDriver, ?> condition(CompiledStep step) {
+        long quietMillis = step.getDuration() != null ? step.getDuration().toMillis() : DEFAULT_QUIET_MILLIS;
+
+        // A fresh, stateful condition per execution: remembers the last network state seen
+        return new Function<WebDriver, Boolean>() {
+            private String lastState;
+            private long stableSince;
+
+            @Override
+            public Boolean apply(WebDriver driver) {
+                String state = String.valueOf(((JavascriptExecutor) driver).executeScript(NETWORK_STATE_SCRIPT));
+                long now = System.currentTimeMillis();
+                if (!state.equals(lastState)) {
+                    lastState = state;
+                    stableSince = now;
+                    return false;
+                }
+                return state.startsWith("complete|") && state.endsWith("|0") && now - stableSince >= quietMillis;
+            }
+        };
+    }
+
+    @Override
+    protected String describe(CompiledStep step) {
+        return "network to be idle";
+    }
+}
@@ -0,0 +1,27 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+public class WaitForPageLoadAction extends SmartWaitAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("wait_for_page_load");
+    }
+
+    @Override
+    protected Function<WebDriver, ?> condition(CompiledStep step) {
+        return driver -> "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+    }
+
+    @Override
+    protected String describe(CompiledStep step) {
+        return "document.readyState to be complete";
+    }
+}
@@ -0,0 +1,48 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.model.TestStep;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+public class WaitForTextAction extends SmartWaitAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("wait_for_text");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.SELECTOR, StepField.EXPECTED);
+    }
+
+    @Override
+    protected boolean requiresElement() {
+        return true;
+    }
+
+    @Override
+    public void validate(TestStep step, List<String> errors) {
+        super.validate(step, errors);
+        if (step.getExpected() == null || step.getExpected().isEmpty()) {
+            errors.add("an expected text is required");
+        }
+    }
+
+    @Override
+    protected Function<WebDriver, ?> condition(CompiledStep step) {
+        return ExpectedConditions.textToBePresentInElementLocated(step.getLocator(), step.getExpected());
+    }
+
+    @Override
+    protected String describe(CompiledStep step) {
+        return "text '" + step.getExpected() + "' in element " + step.getLocatorDescription();
+    }
+}
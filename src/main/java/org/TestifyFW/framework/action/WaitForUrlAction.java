@@ -0,0 +1,57 @@
+package org.TestifyFW.framework.action;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.model.TestStep;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class WaitForUrlAction extends SmartWaitAction {
+
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList("wait_for_url");
+    }
+
+    @Override
+    public Set<StepField> getFields() {
+        return EnumSet.of(StepField.URL);
+    }
+
+    @Override
+    public void validate(TestStep step, List<String> errors) {
+        String pattern = step.getUrl() != null ? step.getUrl() : step.getValue();
+        if (pattern == null || pattern.isEmpty()) {
+            errors.add("a url (or value) pattern is required");
+            return;
+        }
+        try {
+            // ${name} placeholders are only filled in per dataset row, so check the rest of the pattern around them
+            Pattern.compile(pattern.replaceAll("\\$\\{[^}]*}", "x"));
+        } catch (PatternSyntaxException e) {
+            errors.add("invalid URL pattern: " + e.getDescription());
+        }
+    }
+
+    @Override
+    protected Function<WebDriver, ?> condition(CompiledStep step) {
+        return ExpectedConditions.urlMatches(urlPattern(step));
+    }
+
+    @Override
+    protected String describe(CompiledStep step) {
+        return "URL to match " + urlPattern(step);
+    }
+
+    // Regular expression matched against the current URL; url takes precedence over value
+    private static String urlPattern(CompiledStep step) {
+        return step.getUrl() != null ? step.getUrl() : step.getValue();
+    }
+}
@@ -0,0 +1,20 @@
+package org.TestifyFW.framework.event;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+
+/**
+ * Headless listener that writes failures and test outcomes to the console.
+ * This is the default for ActionHandler, so unattended runs never touch AWT.
+ */
+public class ConsoleExecutionListener implements ExecutionListener {
+
+    @Override
+    public void stepFailed(String testName, CompiledStep step, Throwable failure) {
+        System.err.println("[" + testName + "] " + step.getDisplayName() + " failed: " + failure.getMessage());
+    }
+
+    @Override
+    public void testFinished(String testName, boolean passed) {
+        System.out.println("[" + testName + "] " + (passed ? "PASSED" : "FAILED"));
+    }
+}
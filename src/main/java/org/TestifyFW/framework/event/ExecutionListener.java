@@ -0,0 +1,26 @@
+package org.TestifyFW.framework.event;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+
+/**
+ * Receives progress events from ActionHandler while a test case runs.
+ * Events are published on the executing thread, so implementations must
+ * return quickly and never wait for user input.
+ */
+public interface ExecutionListener {
+
+    default void testStarted(String testName) {
+    }
+
+    default void stepPassed(String testName, CompiledStep step) {
+    }
+
+    default void stepFailed(String testName, CompiledStep step, Throwable failure) {
+    }
+
+    default void stepSkipped(String testName, CompiledStep step, String reason) {
+    }
+
+    default void testFinished(String testName, boolean passed) {
+    }
+}
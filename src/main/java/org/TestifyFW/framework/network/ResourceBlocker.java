@@ -0,0 +1,188 @@
+package org.TestifyFW.framework.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blocks requests a test never looks at (analytics, fonts, media, ...) through
+ * the Chrome DevTools Protocol, so pages finish loading sooner.
+ *
+ * URL patterns go to Network.setBlockedURLs and are dropped inside the browser.
+ * Resource types are matched with Fetch request interception and failed with
+ * BlockedByClient. Raw CDP commands are used instead of the versioned
+ * devtools classes so the blocker keeps working across Chrome releases.
+ *
+ * Only requests blocked by these two mechanisms are counted; requests the
+ * browser blocks for other reasons (CSP, mixed content, CORB, ...) are not.
+ * Blocked requests never reach the network, so their size is unknown; the
+ * statistics hold the blocked request count plus the bytes that were
+ * actually transferred, which is the figure blocking brings down.
+ */
+public class ResourceBlocker {
+    private static final Map<WebDriver, ResourceBlocker> blockers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final AtomicLong blockedByUrl = new AtomicLong();
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private final Map<String, AtomicLong> blockedByType = Collections.synchronizedMap(new TreeMap<>());
+    // Network ids of requests failed through Fetch, whose loadingFailed event is already counted
+    private final Set<Object> failedByFetch = ConcurrentHashMap.newKeySet();
+
+    private ResourceBlocker(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * Starts blocking on the given driver. Returns null when there is nothing to
+     * block or the browser has no DevTools support (e.g. Firefox).
+     */
+    public static ResourceBlocker attach(WebDriver driver, List<String> urlPatterns, List<String> resourceTypes) {
+        if (urlPatterns.isEmpty() && resourceTypes.isEmpty()) {
+            return null;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            System.out.println("Resource blocking needs Chrome DevTools; not available for " + driver.getClass().getSimpleName());
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            ResourceBlocker blocker = new ResourceBlocker(devTools);
+            blocker.start(urlPatterns, resourceTypes);
+            blockers.put(driver, blocker);
+            return blocker;
+        } catch (Exception e) {
+            System.err.println("Failed to enable resource blocking: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The blocker attached to a driver, or null if it has none
+     */
+    public static ResourceBlocker forDriver(WebDriver driver) {
+        return driver != null ? blockers.get(driver) : null;
+    }
+
+    private void start(List<String> urlPatterns, List<String> resourceTypes) {
+        devTools.send(new Command<Void>("Network.enable", new HashMap<>()));
+
+        devTools.addListener(new Event<Map<String, Object>>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                params -> {
+                    // "inspector" is the reason given for Network.setBlockedURLs; Fetch failures are counted where they are failed
+                    boolean failedByUs = params.get("requestId") != null && failedByFetch.remove(params.get("requestId"));
+                    if (!failedByUs && "inspector".equals(params.get("blockedReason"))) {
+                        blockedByUrl.incrementAndGet();
+                    }
+                });
+        devTools.addListener(new Event<Map<String, Object>>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                params -> {
+                    Object length = params.get("encodedDataLength");
+                    if (length instanceof Number) {
+                        transferredBytes.addAndGet(((Number) length).longValue());
+                    }
+                });
+
+        if (!urlPatterns.isEmpty()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("urls", new ArrayList<>(urlPatterns));
+            devTools.send(new Command<Void>("Network.setBlockedURLs", params));
+        }
+
+        if (!resourceTypes.isEmpty()) {
+            devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE)),
+                    this::failPausedRequest);
+
+            // Only the blocked types are paused, every other request goes straight through
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String type : resourceTypes) {
+                Map<String, Object> pattern = new HashMap<>();
+                pattern.put("urlPattern", "*");
+                pattern.put("resourceType", type);
+                pattern.put("requestStage", "Request");
+                patterns.add(pattern);
+            }
+            Map<String, Object> params = new HashMap<>();
+            params.put("patterns", patterns);
+            devTools.send(new Command<Void>("Fetch.enable", params));
+        }
+    }
+
+    private void failPausedRequest(Map<String, Object> params) {
+        Map<String, Object> fail = new HashMap<>();
+        fail.put("requestId", params.get("requestId"));
+        fail.put("errorReason", "BlockedByClient");
+        Object networkId = params.get("networkId");
+        try {
+            if (networkId != null) {
+                failedByFetch.add(networkId);
+            }
+            devTools.send(new Command<Void>("Fetch.failRequest", fail));
+            blockedByType.computeIfAbsent(String.valueOf(params.get("resourceType")), type -> new AtomicLong())
+                    .incrementAndGet();
+        } catch (Exception e) {
+            if (networkId != null) {
+                failedByFetch.remove(networkId);
+            }
+            System.err.println("Failed to block request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clears the counters, e.g. when a pooled session starts a new test
+     */
+    public void resetStats() {
+        blockedByUrl.set(0);
+        transferredBytes.set(0);
+        blockedByType.clear();
+        failedByFetch.clear();
+    }
+
+    public long getBlockedRequestCount() {
+        long total = blockedByUrl.get();
+        synchronized (blockedByType) {
+            for (AtomicLong count : blockedByType.values()) {
+                total += count.get();
+            }
+        }
+        return total;
+    }
+
+    public long getTransferredBytes() {
+        return transferredBytes.get();
+    }
+
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(getBlockedRequestCount()).append(" request(s) blocked");
+        List<String> parts = new ArrayList<>();
+        if (blockedByUrl.get() > 0) {
+            parts.add("URL pattern: " + blockedByUrl.get());
+        }
+        synchronized (blockedByType) {
+            for (Map.Entry<String, AtomicLong> entry : blockedByType.entrySet()) {
+                parts.add(entry.getKey() + ": " + entry.getValue().get());
+            }
+        }
+        if (!parts.isEmpty()) {
+            summary.append(" (").append(String.join(", ", parts)).append(")");
+        }
+        summary.append(", ").append(getTransferredBytes() / 1024).append(" KB transferred");
+        return summary.toString();
+    }
+}
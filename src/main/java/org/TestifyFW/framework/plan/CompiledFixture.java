@@ -0,0 +1,49 @@
+package org.TestifyFW.framework.plan;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiled setup sequence of a test case, identified by name so that every
+ * test case using the same setup can share its captured session
+ */
+public final class CompiledFixture {
+    private final String name;
+    private final Duration ttl;
+    private final List<CompiledStep> steps;
+
+    CompiledFixture(String name, Duration ttl, List<CompiledStep> steps) {
+        this.name = name;
+        this.ttl = ttl;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public List<CompiledStep> getSteps() {
+        return steps;
+    }
+
+    // The name keys the shared snapshot, so it includes the values the setup steps were bound to
+    CompiledFixture bind(Map<String, String> parameters) {
+        Map<String, String> used = new TreeMap<>();
+        List<CompiledStep> boundSteps = new ArrayList<>();
+        for (CompiledStep step : steps) {
+            for (String variable : step.getParameterNames()) {
+                used.put(variable, parameters.get(variable));
+            }
+            boundSteps.add(step.bind(parameters));
+        }
+        return used.isEmpty() ? this : new CompiledFixture(name + used, ttl, boundSteps);
+    }
+}
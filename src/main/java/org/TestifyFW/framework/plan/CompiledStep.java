@@ -0,0 +1,158 @@
+package org.TestifyFW.framework.plan;
+
+import org.TestifyFW.framework.action.StepAction;
+import org.openqa.selenium.By;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A single test step with everything resolved ahead of execution:
+ * the action handler, the By locator and any numeric duration.
+ */
+public final class CompiledStep {
+    private final int index;
+    private final String id;
+    private final String action;
+    private final StepAction handler;
+    private final By locator;
+    private final String locatorDescription;
+    private final String value;
+    private final String url;
+    private final String expected;
+    private final Duration duration;
+    private final Duration replacedSleep;
+    private final Duration timeout;
+    private final Duration pollInterval;
+    private final boolean critical;
+    private final boolean endOfTest;
+    private final boolean setupStep;
+    private final List<Integer> dependencies;
+    private final Templates templates;
+
+    // Fields that still contain ${name} placeholders, resolved per dataset row by bind
+    static final class Templates {
+        private final String selectorType;
+        private final ValueTemplate selector;
+        private final ValueTemplate value;
+        private final ValueTemplate url;
+        private final ValueTemplate expected;
+
+        Templates(String selectorType, ValueTemplate selector, ValueTemplate value, ValueTemplate url,
+                  ValueTemplate expected) {
+            this.selectorType = selectorType;
+            this.selector = selector;
+            this.value = value;
+            this.url = url;
+            this.expected = expected;
+        }
+
+        Set<String> getVariables() {
+            Set<String> variables = new LinkedHashSet<>();
+            for (ValueTemplate template : new ValueTemplate[]{selector, value, url, expected}) {
+                if (template != null) {
+                    variables.addAll(template.getVariables());
+                }
+            }
+            return variables;
+        }
+    }
+
+    CompiledStep(int index, String id, String action, StepAction handler, By locator, String locatorDescription,
+                 String value, String url, String expected, Duration duration, Duration replacedSleep,
+                 Duration timeout, Duration pollInterval, boolean critical, boolean endOfTest,
+                 boolean setupStep, List<Integer> dependencies, Templates templates) {
+        this.index = index;
+        this.id = id;
+        this.action = action;
+        this.handler = handler;
+        this.locator = locator;
+        this.locatorDescription = locatorDescription;
+        this.value = value;
+        this.url = url;
+        this.expected = expected;
+        this.duration = duration;
+        this.replacedSleep = replacedSleep;
+        this.timeout = timeout;
+        this.pollInterval = pollInterval;
+        this.critical = critical;
+        this.endOfTest = endOfTest;
+        this.setupStep = setupStep;
+        this.dependencies = Collections.unmodifiableList(dependencies);
+        this.templates = templates;
+    }
+
+    public int getIndex() { return index; }
+    public String getId() { return id; }
+    public String getAction() { return action; }
+    public StepAction getHandler() { return handler; }
+    public By getLocator() { return locator; }
+    public String getLocatorDescription() { return locatorDescription; }
+    public String getValue() { return value; }
+    public String getUrl() { return url; }
+    public String getExpected() { return expected; }
+    public Duration getDuration() { return duration; }
+    public Duration getReplacedSleep() { return replacedSleep; }
+    // Step or test case override, null when the run-wide default applies
+    public Duration getTimeout() { return timeout; }
+    public Duration getPollInterval() { return pollInterval; }
+    public boolean isCritical() { return critical; }
+    public boolean isEndOfTest() { return endOfTest; }
+    public boolean isSetupStep() { return setupStep; }
+    // Indexes of earlier steps (in the same list) that must pass before this one runs
+    public List<Integer> getDependencies() { return dependencies; }
+
+    // Names of the ${...} placeholders in this step, empty for most steps
+    public Set<String> getParameterNames() {
+        return templates != null ? templates.getVariables() : Collections.<String>emptySet();
+    }
+
+    /**
+     * Returns a copy with every placeholder replaced by its value from the
+     * dataset row, or this step itself if it has no placeholders
+     *
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    CompiledStep bind(Map<String, String> parameters) {
+        if (templates == null) {
+            return this;
+        }
+        By boundLocator = locator;
+        String boundDescription = locatorDescription;
+        if (templates.selector != null) {
+            String selector = templates.selector.render(parameters);
+            boundLocator = Locators.toBy(templates.selectorType, selector);
+            boundDescription = templates.selectorType + "=" + selector;
+        }
+        String boundValue = templates.value != null ? templates.value.render(parameters) : value;
+        Duration boundDuration = templates.value != null ? PlanCompiler.parseDuration(boundValue) : duration;
+        return new CompiledStep(index, id, action, handler, boundLocator, boundDescription, boundValue,
+                templates.url != null ? templates.url.render(parameters) : url,
+                templates.expected != null ? templates.expected.render(parameters) : expected,
+                boundDuration, replacedSleep, timeout, pollInterval, critical, endOfTest, setupStep, dependencies, null);
+    }
+
+    // Name used in logs and reports, e.g. "Step 2: click"
+    public String getDisplayName() {
+        return "Step " + (index + 1) + ": " + action;
+    }
+
+    /**
+     * Identity of what the step does, independent of its position;
+     * two steps with the same signature have the same effect on the browser
+     */
+    public String getSignature() {
+        String signature = String.join("\u0000", action, String.valueOf(locatorDescription), String.valueOf(value),
+                String.valueOf(url), String.valueOf(expected), String.valueOf(timeout), String.valueOf(pollInterval),
+                String.valueOf(critical), String.valueOf(endOfTest));
+        if (!dependencies.isEmpty()) {
+            // Dependencies are positional, so only steps at the same position can share them
+            signature += "\u0000" + setupStep + ":" + index + dependencies;
+        }
+        return signature;
+    }
+}
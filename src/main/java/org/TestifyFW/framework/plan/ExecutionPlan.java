@@ -0,0 +1,84 @@
+package org.TestifyFW.framework.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, validated form of a TestCase that ActionHandler executes
+ */
+public final class ExecutionPlan {
+    private final String testId;
+    private final String testName;
+    private final List<CompiledStep> steps;
+    private final CompiledFixture setup;
+    private final List<String> dependsOn;
+
+    ExecutionPlan(String testName, List<CompiledStep> steps) {
+        this(testName, testName, steps, null, Collections.emptyList());
+    }
+
+    ExecutionPlan(String testId, String testName, List<CompiledStep> steps, CompiledFixture setup, List<String> dependsOn) {
+        this.testId = testId;
+        this.testName = testName;
+        this.steps = Collections.unmodifiableList(steps);
+        this.setup = setup;
+        this.dependsOn = Collections.unmodifiableList(dependsOn);
+    }
+
+    // Identifies the test case for test-level dependsOn; the name unless an id is given
+    public String getTestId() {
+        return testId;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public List<CompiledStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Setup whose session is restored from a snapshot when possible, or null
+     */
+    public CompiledFixture getSetup() {
+        return setup;
+    }
+
+    /**
+     * IDs of test cases that must pass before this one may run
+     */
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    /**
+     * Names of the ${...} placeholders used by the steps and the setup
+     */
+    public Set<String> getParameterNames() {
+        Set<String> names = new LinkedHashSet<>();
+        if (setup != null) {
+            for (CompiledStep step : setup.getSteps()) {
+                names.addAll(step.getParameterNames());
+            }
+        }
+        for (CompiledStep step : steps) {
+            names.addAll(step.getParameterNames());
+        }
+        return names;
+    }
+
+    // One instance of a data-driven plan; steps without placeholders are shared with this plan
+    ExecutionPlan bind(String instanceName, Map<String, String> parameters) {
+        List<CompiledStep> boundSteps = new ArrayList<>();
+        for (CompiledStep step : steps) {
+            boundSteps.add(step.bind(parameters));
+        }
+        return new ExecutionPlan(testId, instanceName, boundSteps, setup != null ? setup.bind(parameters) : null,
+                dependsOn);
+    }
+}
@@ -0,0 +1,27 @@
+package org.TestifyFW.framework.plan;
+
+import org.openqa.selenium.By;
+
+/**
+ * Translates the selectorType/selector pairs used in test cases into By locators
+ */
+public final class Locators {
+
+    private Locators() {
+    }
+
+    public static By toBy(String selectorType, String selector) {
+        switch (selectorType) {
+            case "id":
+                return By.id(selector);
+            case "css":
+                return By.cssSelector(selector);
+            case "xpath":
+                return By.xpath(selector);
+            case "class":
+                return By.className(selector);
+            default:
+                throw new IllegalArgumentException("Unknown selector type: " + selectorType);
+        }
+    }
+}
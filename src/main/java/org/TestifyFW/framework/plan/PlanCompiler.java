@@ -0,0 +1,323 @@
+package org.TestifyFW.framework.plan;
+
+import org.TestifyFW.framework.action.ActionRegistry;
+import org.TestifyFW.framework.action.StepAction;
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.model.TestFixture;
+import org.TestifyFW.model.TestStep;
+import org.openqa.selenium.By;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compiles a TestCase into an ExecutionPlan.
+ * All validation happens here, so a broken test case is rejected before a
+ * browser is started.
+ *
+ * Plans are cached by a signature of everything in the test case that goes
+ * into the plan, so a test case that is edited after it was compiled gets a
+ * new plan, and reloading an unchanged test case reuses the old one.
+ *
+ * Configuration (system properties):
+ *   testify.plan.cacheSize - maximum number of cached plans (default 10000, 0 disables the cache)
+ */
+public final class PlanCompiler {
+    private static final int CACHE_SIZE = Integer.getInteger("testify.plan.cacheSize", 10000);
+    private static final Map<String, ExecutionPlan> planCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, ExecutionPlan>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ExecutionPlan> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private PlanCompiler() {
+    }
+
+    public static ExecutionPlan compile(TestCase testCase) {
+        String signature = signature(testCase);
+        ExecutionPlan plan = planCache.get(signature);
+        if (plan == null) {
+            plan = testCase.getInstanceOf() != null ? compileInstance(testCase) : compileUncached(testCase);
+            if (CACHE_SIZE > 0) {
+                planCache.put(signature, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * SHA-256 over every field of the test case the plan depends on; an instance
+     * adds its name and row to the signature of the test case it came from
+     */
+    static String signature(TestCase testCase) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (testCase.getInstanceOf() != null) {
+                update(digest, "instance", signature(testCase.getInstanceOf()), testCase.getName());
+                Map<String, String> parameters = testCase.getParameters() != null
+                        ? new TreeMap<>(testCase.getParameters()) : Collections.<String, String>emptyMap();
+                for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                    update(digest, parameter.getKey(), parameter.getValue());
+                }
+            } else {
+                update(digest, "test", testCase.getId(), testCase.getName(), testCase.getTimeout(),
+                        testCase.getPollInterval(), testCase.getDependsOn());
+                updateSteps(digest, testCase.getSteps());
+                TestFixture setup = testCase.getSetup();
+                if (setup != null) {
+                    update(digest, "setup", setup.getName(), setup.getTtl());
+                    updateSteps(digest, setup.getSteps());
+                }
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void updateSteps(MessageDigest digest, List<TestStep> steps) {
+        if (steps == null) {
+            return;
+        }
+        for (TestStep step : steps) {
+            update(digest, "step", step.getId(), step.getAction(), step.getElement(), step.getValue(), step.getUrl(),
+                    step.getExpected(), step.isEndOfTest(), step.getSelectorType(), step.getSelector(),
+                    step.isCritical(), step.getDependsOn(), step.getReplacesSleep(), step.getTimeout(),
+                    step.getPollInterval(), step.getLine());
+        }
+    }
+
+    // Each value is length-prefixed, so no two different field lists hash the same bytes
+    private static void update(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            if (value == null) {
+                digest.update((byte) 0);
+                continue;
+            }
+            byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) 1);
+            digest.update(new byte[] {(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                    (byte) (bytes.length >>> 8), (byte) bytes.length});
+            digest.update(bytes);
+        }
+    }
+
+    // Instances of a data-driven test case share its plan and only bind their row to it
+    private static ExecutionPlan compileInstance(TestCase instance) {
+        ExecutionPlan shared = compile(instance.getInstanceOf());
+        Map<String, String> parameters = instance.getParameters() != null
+                ? instance.getParameters() : Collections.<String, String>emptyMap();
+
+        List<String> errors = new ArrayList<>();
+        for (String name : shared.getParameterNames()) {
+            if (!parameters.containsKey(name)) {
+                errors.add("dataset has no column for ${" + name + "}");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new PlanValidationException(instance.getName(), errors);
+        }
+        return shared.bind(instance.getName(), parameters);
+    }
+
+    private static ExecutionPlan compileUncached(TestCase testCase) {
+        String testName = testCase.getName() != null ? testCase.getName() : "UnnamedTest";
+        List<String> errors = new ArrayList<>();
+        List<CompiledStep> compiledSteps = new ArrayList<>();
+
+        List<TestStep> steps = testCase.getSteps();
+        if (steps == null || steps.isEmpty()) {
+            errors.add("test case has no steps");
+            steps = Collections.emptyList();
+        }
+
+        compileSteps(steps, testCase, false, compiledSteps, errors);
+        CompiledFixture setup = compileSetup(testCase, errors);
+
+        if (!errors.isEmpty()) {
+            throw new PlanValidationException(testName, errors);
+        }
+        String testId = testCase.getId() != null ? testCase.getId() : testName;
+        List<String> dependsOn = testCase.getDependsOn() != null ? testCase.getDependsOn() : Collections.emptyList();
+        return new ExecutionPlan(testId, testName, compiledSteps, setup, dependsOn);
+    }
+
+    private static void compileSteps(List<TestStep> steps, TestCase testCase, boolean setupSteps,
+                                     List<CompiledStep> compiledSteps, List<String> errors) {
+        String label = setupSteps ? "Setup step " : "Step ";
+        Map<String, Integer> stepIds = new HashMap<>();
+        List<Integer> criticalSteps = new ArrayList<>();
+
+        for (int i = 0; i < steps.size(); i++) {
+            TestStep step = steps.get(i);
+            List<String> stepErrors = new ArrayList<>();
+            List<Integer> dependencies = resolveDependencies(step, stepIds, criticalSteps, stepErrors);
+            CompiledStep compiled = compileStep(i, step, testCase, setupSteps, dependencies, stepErrors);
+
+            if (step.getId() != null && stepIds.putIfAbsent(step.getId(), i) != null) {
+                stepErrors.add("duplicate step id '" + step.getId() + "'");
+            }
+            if (step.isCritical()) {
+                criticalSteps.add(i);
+            }
+            for (String error : stepErrors) {
+                errors.add(label + (i + 1) + " (" + step.getAction() + ")"
+                        + (step.getLine() != null ? " at line " + step.getLine() : "") + ": " + error);
+            }
+            if (compiled != null) {
+                compiledSteps.add(compiled);
+            }
+        }
+    }
+
+    private static CompiledFixture compileSetup(TestCase testCase, List<String> errors) {
+        TestFixture setup = testCase.getSetup();
+        if (setup == null) {
+            return null;
+        }
+        if (setup.getName() == null || setup.getName().trim().isEmpty()) {
+            errors.add("setup: name is missing");
+        }
+        if (setup.getSteps() == null || setup.getSteps().isEmpty()) {
+            errors.add("setup: no steps");
+            return null;
+        }
+        Duration ttl = null;
+        if (setup.getTtl() != null) {
+            if (setup.getTtl() <= 0) {
+                errors.add("setup: ttl must be a positive number of seconds");
+            } else {
+                ttl = Duration.ofSeconds(setup.getTtl());
+            }
+        }
+
+        List<CompiledStep> compiledSteps = new ArrayList<>();
+        compileSteps(setup.getSteps(), testCase, true, compiledSteps, errors);
+        return new CompiledFixture(setup.getName() != null ? setup.getName().trim() : null, ttl, compiledSteps);
+    }
+
+    /**
+     * Steps run in declaration order, so a step may only depend on earlier ones; that
+     * keeps the graph acyclic. Every step after a critical step implicitly depends on it.
+     */
+    private static List<Integer> resolveDependencies(TestStep step, Map<String, Integer> earlierStepIds,
+                                                     List<Integer> criticalSteps, List<String> errors) {
+        Set<Integer> dependencies = new TreeSet<>(criticalSteps);
+        if (step.getDependsOn() != null) {
+            for (String id : step.getDependsOn().split(",")) {
+                String trimmed = id.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                Integer index = earlierStepIds.get(trimmed);
+                if (index == null) {
+                    errors.add("dependsOn '" + trimmed + "' does not name an earlier step");
+                } else {
+                    dependencies.add(index);
+                }
+            }
+        }
+        return new ArrayList<>(dependencies);
+    }
+
+    private static CompiledStep compileStep(int index, TestStep step, TestCase testCase, boolean setupStep,
+                                            List<Integer> dependencies, List<String> errors) {
+        if (step.getAction() == null || step.getAction().isEmpty()) {
+            errors.add("action is missing");
+            return null;
+        }
+        StepAction handler = ActionRegistry.getDefault().get(step.getAction());
+        if (handler == null) {
+            errors.add("unknown action");
+            return null;
+        }
+        handler.validate(step, errors);
+
+        // Resolve the locator from selectorType/selector, or from a pre-built "type=value" element
+        String selectorType = step.getSelectorType();
+        String selector = step.getSelector();
+        if ((selectorType == null || selector == null) && step.getElement() != null && step.getElement().contains("=")) {
+            String[] parts = step.getElement().split("=", 2);
+            selectorType = parts[0];
+            selector = parts[1];
+        }
+
+        By locator = null;
+        String locatorDescription = null;
+        if (selectorType != null && selector != null) {
+            locatorDescription = selectorType + "=" + selector;
+            try {
+                locator = Locators.toBy(selectorType, selector);
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+
+        // Step-level timeout and polling win over the test case defaults
+        Duration timeout = positiveMillis(step.getTimeout() != null ? step.getTimeout() : testCase.getTimeout(),
+                "timeout", errors);
+        Duration pollInterval = positiveMillis(step.getPollInterval() != null ? step.getPollInterval() : testCase.getPollInterval(),
+                "pollInterval", errors);
+
+        return new CompiledStep(index, step.getId(), step.getAction(), handler, locator, locatorDescription,
+                step.getValue(), step.getUrl(), step.getExpected(), parseDuration(step.getValue()),
+                step.getReplacesSleep() != null ? Duration.ofMillis(step.getReplacesSleep()) : null,
+                timeout, pollInterval, step.isCritical(), step.isEndOfTest(), setupStep, dependencies,
+                compileTemplates(selectorType, selector, step, errors));
+    }
+
+    // Placeholders are parsed once here; every dataset row then only renders them
+    private static CompiledStep.Templates compileTemplates(String selectorType, String selector, TestStep step,
+                                                           List<String> errors) {
+        try {
+            ValueTemplate selectorTemplate = selectorType != null ? ValueTemplate.parse(selector) : null;
+            ValueTemplate value = ValueTemplate.parse(step.getValue());
+            ValueTemplate url = ValueTemplate.parse(step.getUrl());
+            ValueTemplate expected = ValueTemplate.parse(step.getExpected());
+            if (selectorTemplate == null && value == null && url == null && expected == null) {
+                return null;
+            }
+            return new CompiledStep.Templates(selectorType, selectorTemplate, value, url, expected);
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
+            return null;
+        }
+    }
+
+    private static Duration positiveMillis(Long millis, String field, List<String> errors) {
+        if (millis == null) {
+            return null;
+        }
+        if (millis <= 0) {
+            errors.add(field + " must be a positive number of milliseconds");
+            return null;
+        }
+        return Duration.ofMillis(millis);
+    }
+
+    // Durations are written in milliseconds; anything non-numeric is left unresolved
+    static Duration parseDuration(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.TestifyFW.framework.plan;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a TestCase cannot be compiled into an ExecutionPlan
+ */
+public class PlanValidationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> errors;
+
+    public PlanValidationException(String testName, List<String> errors) {
+        super("Invalid test case '" + testName + "':\n  - " + String.join("\n  - ", errors));
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,103 @@
+package org.TestifyFW.framework.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie over the compiled steps of many execution plans.
+ * Plans that start with the same steps share the nodes of that prefix, so a
+ * runner walking the tree executes each shared step once and forks where the
+ * plans diverge. A plan's path is its setup steps followed by its own steps.
+ */
+public final class PrefixTree {
+    private final Node root = new Node(null, 0);
+    private int totalStepCount = 0;
+    private int uniqueStepCount = 0;
+
+    public static final class Node {
+        private final CompiledStep step;
+        private final int depth;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private final List<ExecutionPlan> plans = new ArrayList<>();
+        private final List<ExecutionPlan> endingPlans = new ArrayList<>();
+        private final List<Integer> planIndexes = new ArrayList<>();
+        private final List<Integer> endingPlanIndexes = new ArrayList<>();
+
+        private Node(CompiledStep step, int depth) {
+            this.step = step;
+            this.depth = depth;
+        }
+
+        // Null for the root
+        public CompiledStep getStep() { return step; }
+        public int getDepth() { return depth; }
+        public List<Node> getChildren() { return Collections.unmodifiableList(new ArrayList<>(children.values())); }
+        // Every plan whose path runs through this node
+        public List<ExecutionPlan> getPlans() { return Collections.unmodifiableList(plans); }
+        // Plans whose last step is this node's step
+        public List<ExecutionPlan> getEndingPlans() { return Collections.unmodifiableList(endingPlans); }
+        // Positions of getPlans() in the list the tree was built from; a plan listed twice has two
+        public List<Integer> getPlanIndexes() { return Collections.unmodifiableList(planIndexes); }
+        public List<Integer> getEndingPlanIndexes() { return Collections.unmodifiableList(endingPlanIndexes); }
+    }
+
+    private PrefixTree() {
+    }
+
+    public static PrefixTree build(List<ExecutionPlan> plans) {
+        PrefixTree tree = new PrefixTree();
+        for (int i = 0; i < plans.size(); i++) {
+            tree.add(plans.get(i), i);
+        }
+        return tree;
+    }
+
+    private void add(ExecutionPlan plan, int index) {
+        Node node = root;
+        node.plans.add(plan);
+        node.planIndexes.add(index);
+        for (CompiledStep step : pathOf(plan)) {
+            totalStepCount++;
+            Node child = node.children.get(step.getSignature());
+            if (child == null) {
+                child = new Node(step, node.depth + 1);
+                node.children.put(step.getSignature(), child);
+                uniqueStepCount++;
+            }
+            child.plans.add(plan);
+            child.planIndexes.add(index);
+            node = child;
+        }
+        node.endingPlans.add(plan);
+        node.endingPlanIndexes.add(index);
+    }
+
+    /**
+     * The steps a plan executes, setup first
+     */
+    public static List<CompiledStep> pathOf(ExecutionPlan plan) {
+        List<CompiledStep> path = new ArrayList<>();
+        if (plan.getSetup() != null) {
+            path.addAll(plan.getSetup().getSteps());
+        }
+        path.addAll(plan.getSteps());
+        return path;
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    // Steps the plans would execute when run one by one
+    public int getTotalStepCount() {
+        return totalStepCount;
+    }
+
+    // Steps executed when shared prefixes run once
+    public int getUniqueStepCount() {
+        return uniqueStepCount;
+    }
+}
@@ -0,0 +1,86 @@
+package org.TestifyFW.framework.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A step field containing ${name} placeholders, split into literal text and
+ * variable names once at compile time. Rendering a dataset row then only
+ * concatenates the parts instead of searching and replacing in the string.
+ */
+public final class ValueTemplate {
+    private final String text;
+    private final List<String> literals;
+    private final List<String> variables;
+
+    private ValueTemplate(String text, List<String> literals, List<String> variables) {
+        this.text = text;
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    /**
+     * Parses the text, or returns null if it contains no placeholders
+     *
+     * @throws IllegalArgumentException if a placeholder is not closed or has no name
+     */
+    public static ValueTemplate parse(String text) {
+        if (text == null || !text.contains("${")) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = text.indexOf("${", position);
+            if (start < 0) {
+                literals.add(text.substring(position));
+                break;
+            }
+            int end = text.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("unclosed placeholder in '" + text + "'");
+            }
+            String name = text.substring(start + 2, end).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("empty placeholder in '" + text + "'");
+            }
+            literals.add(text.substring(position, start));
+            variables.add(name);
+            position = end + 1;
+        }
+        return new ValueTemplate(text, literals, variables);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Set<String> getVariables() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(variables));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a variable has no value
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder rendered = new StringBuilder(text.length());
+        for (int i = 0; i < variables.size(); i++) {
+            String value = values.get(variables.get(i));
+            if (value == null) {
+                throw new IllegalArgumentException("no value for ${" + variables.get(i) + "}");
+            }
+            rendered.append(literals.get(i)).append(value);
+        }
+        return rendered.append(literals.get(variables.size())).toString();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,109 @@
+package org.TestifyFW.framework.session;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser state captured at the end of a setup sequence: the current URL,
+ * the cookies of that page and its localStorage/sessionStorage.
+ * WebDriver only exposes cookies of the current domain, so a setup should
+ * finish on the site the test case continues on.
+ */
+public final class SessionSnapshot {
+    private static final String READ_STORAGE_SCRIPT =
+            "function dump(storage) { var o = {};"
+                    + " for (var i = 0; i < storage.length; i++) { var k = storage.key(i); o[k] = storage.getItem(k); }"
+                    + " return o; }"
+                    + "return [dump(window.localStorage), dump(window.sessionStorage)];";
+    private static final String WRITE_STORAGE_SCRIPT =
+            "function load(storage, values) { storage.clear();"
+                    + " for (var k in values) { storage.setItem(k, values[k]); } }"
+                    + "load(window.localStorage, arguments[0]); load(window.sessionStorage, arguments[1]);";
+
+    private final String url;
+    private final List<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final long capturedAt;
+    private final long expiresAt;
+
+    SessionSnapshot(String url, List<Cookie> cookies, Map<String, String> localStorage,
+                    Map<String, String> sessionStorage, long capturedAt, long expiresAt) {
+        this.url = url;
+        this.cookies = Collections.unmodifiableList(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+        this.sessionStorage = Collections.unmodifiableMap(sessionStorage);
+        this.capturedAt = capturedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Captures the session of the page the driver is on, valid for ttlMillis
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot capture(WebDriver driver, long ttlMillis) {
+        Map<String, String> local = new LinkedHashMap<>();
+        Map<String, String> session = new LinkedHashMap<>();
+        if (driver instanceof JavascriptExecutor) {
+            Object result = ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+            if (result instanceof List && ((List<?>) result).size() == 2) {
+                copyStrings((Map<String, Object>) ((List<?>) result).get(0), local);
+                copyStrings((Map<String, Object>) ((List<?>) result).get(1), session);
+            }
+        }
+        long now = System.currentTimeMillis();
+        return new SessionSnapshot(driver.getCurrentUrl(), new ArrayList<>(driver.manage().getCookies()),
+                local, session, now, now + ttlMillis);
+    }
+
+    private static void copyStrings(Map<String, Object> source, Map<String, String> target) {
+        if (source != null) {
+            for (Map.Entry<String, Object> entry : source.entrySet()) {
+                target.put(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Loads this state into a (reset) browser and navigates to where the setup ended.
+     * Cookies and storage can only be written for the page's own origin, so the
+     * origin is opened first.
+     */
+    public void restoreInto(WebDriver driver) {
+        driver.get(getOrigin());
+
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        if (driver instanceof JavascriptExecutor && (!localStorage.isEmpty() || !sessionStorage.isEmpty())) {
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, localStorage, sessionStorage);
+        }
+
+        driver.get(url);
+    }
+
+    public String getOrigin() {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority() + "/";
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    public String getUrl() { return url; }
+    public List<Cookie> getCookies() { return cookies; }
+    public Map<String, String> getLocalStorage() { return localStorage; }
+    public Map<String, String> getSessionStorage() { return sessionStorage; }
+    public long getCapturedAt() { return capturedAt; }
+    public long getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,63 @@
+package org.TestifyFW.framework.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of session snapshots keyed by setup name.
+ * Snapshots expire after their TTL and are then dropped, so the next test
+ * case runs the setup steps again and captures a fresh session.
+ *
+ * The default TTL for setups without one is read from the system property
+ * testify.session.ttlSeconds (default 1800).
+ */
+public class SessionSnapshotStore {
+    private static final long DEFAULT_TTL_MILLIS = Long.getLong("testify.session.ttlSeconds", 1800) * 1000;
+
+    private final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private static class Holder {
+        private static final SessionSnapshotStore INSTANCE = new SessionSnapshotStore();
+    }
+
+    public static SessionSnapshotStore getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    public static long getDefaultTtlMillis() {
+        return DEFAULT_TTL_MILLIS;
+    }
+
+    /**
+     * Returns the live snapshot for a setup, or null if there is none or it expired
+     */
+    public SessionSnapshot get(String name) {
+        SessionSnapshot snapshot = snapshots.get(name);
+        if (snapshot != null && snapshot.isExpired()) {
+            snapshots.remove(name, snapshot);
+            return null;
+        }
+        return snapshot;
+    }
+
+    public void put(String name, SessionSnapshot snapshot) {
+        snapshots.put(name, snapshot);
+    }
+
+    public void invalidate(String name) {
+        snapshots.remove(name);
+    }
+
+    public void clear() {
+        snapshots.clear();
+    }
+
+    /**
+     * Lock held while a setup runs, so parallel test cases sharing the setup
+     * wait for one capture instead of all logging in at once
+     */
+    public Object lockFor(String name) {
+        return locks.computeIfAbsent(name, key -> new Object());
+    }
+}
@@ -0,0 +1,57 @@
+package org.TestifyFW.framework.wait;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.function.Function;
+
+/**
+ * Condition wait with geometric back-off between polls.
+ * Like WebDriverWait, a condition is satisfied once it returns a non-null
+ * value other than Boolean.FALSE.
+ */
+public class AdaptiveWait {
+    private final WebDriver driver;
+    private final PollingSettings settings;
+
+    public AdaptiveWait(WebDriver driver, PollingSettings settings) {
+        this.driver = driver;
+        this.settings = settings;
+    }
+
+    public <T> T until(Function<? super WebDriver, T> condition, String description) {
+        long start = System.nanoTime();
+        long deadline = start + settings.getTimeout().toNanos();
+        long interval = settings.getInitialInterval().toMillis();
+        long maxInterval = settings.getMaxInterval().toMillis();
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T result = condition.apply(driver);
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    return result;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                // The page is still changing; keep polling
+                lastError = e;
+            }
+
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                long waited = (System.nanoTime() - start) / 1_000_000;
+                throw new TimeoutException("Timed out after " + waited + " ms waiting for " + description, lastError);
+            }
+
+            try {
+                Thread.sleep(Math.min(interval, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + description, e);
+            }
+            interval = Math.min(maxInterval, Math.max(interval + 1, (long) (interval * settings.getBackoffFactor())));
+        }
+    }
+}
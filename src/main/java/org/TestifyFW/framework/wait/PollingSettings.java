@@ -0,0 +1,47 @@
+package org.TestifyFW.framework.wait;
+
+import java.time.Duration;
+
+/**
+ * Timeout and adaptive polling parameters for condition waits.
+ * Polling starts fast and backs off geometrically up to a ceiling, so conditions
+ * that are already true cost almost nothing and slow ones don't hammer the browser.
+ * Defaults can be changed with the testify.wait.* system properties.
+ */
+public final class PollingSettings {
+    private final Duration timeout;
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final double backoffFactor;
+
+    public PollingSettings(Duration timeout, Duration initialInterval, Duration maxInterval, double backoffFactor) {
+        if (backoffFactor < 1.0) {
+            throw new IllegalArgumentException("Backoff factor must be at least 1.0: " + backoffFactor);
+        }
+        this.timeout = timeout;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval.compareTo(initialInterval) < 0 ? initialInterval : maxInterval;
+        this.backoffFactor = backoffFactor;
+    }
+
+    public static PollingSettings defaults() {
+        return new PollingSettings(
+                Duration.ofMillis(Long.getLong("testify.wait.timeoutMs", 10000)),
+                Duration.ofMillis(Long.getLong("testify.wait.initialPollMs", 50)),
+                Duration.ofMillis(Long.getLong("testify.wait.maxPollMs", 500)),
+                Double.parseDouble(System.getProperty("testify.wait.backoffFactor", "1.5")));
+    }
+
+    public Duration getTimeout() { return timeout; }
+    public Duration getInitialInterval() { return initialInterval; }
+    public Duration getMaxInterval() { return maxInterval; }
+    public double getBackoffFactor() { return backoffFactor; }
+
+    public PollingSettings withTimeout(Duration newTimeout) {
+        return new PollingSettings(newTimeout, initialInterval, maxInterval, backoffFactor);
+    }
+
+    public PollingSettings withInitialInterval(Duration newInitialInterval) {
+        return new PollingSettings(timeout, newInitialInterval, maxInterval, backoffFactor);
+    }
+}
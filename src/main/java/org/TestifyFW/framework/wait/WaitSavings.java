@@ -0,0 +1,89 @@
+package org.TestifyFW.framework.wait;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records how long condition waits took compared to the fixed sleeps they replaced
+ */
+public final class WaitSavings {
+    private static final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    public static class Entry {
+        private final String testName;
+        private final String stepName;
+        private final long replacedSleepMillis;
+        private final long actualMillis;
+
+        Entry(String testName, String stepName, long replacedSleepMillis, long actualMillis) {
+            this.testName = testName;
+            this.stepName = stepName;
+            this.replacedSleepMillis = replacedSleepMillis;
+            this.actualMillis = actualMillis;
+        }
+
+        public String getTestName() { return testName; }
+        public String getStepName() { return stepName; }
+        public long getReplacedSleepMillis() { return replacedSleepMillis; }
+        public long getActualMillis() { return actualMillis; }
+
+        // Negative when the condition took longer than the old sleep
+        public long getSavedMillis() {
+            return replacedSleepMillis - actualMillis;
+        }
+    }
+
+    private WaitSavings() {
+    }
+
+    public static Entry record(String testName, String stepName, long replacedSleepMillis, long actualMillis) {
+        Entry entry = new Entry(testName, stepName, replacedSleepMillis, actualMillis);
+        entries.add(entry);
+        return entry;
+    }
+
+    public static boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Returns and clears everything recorded so far
+     */
+    public static List<Entry> drain() {
+        List<Entry> drained = new ArrayList<>();
+        Entry entry;
+        while ((entry = entries.poll()) != null) {
+            drained.add(entry);
+        }
+        return drained;
+    }
+
+    /**
+     * Writes the recorded waits as CSV and clears them; returns the total time saved
+     */
+    public static long writeReport(Path csvFile) throws IOException {
+        List<Entry> drained = drain();
+        long totalSaved = 0;
+        Files.createDirectories(csvFile.toAbsolutePath().getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8))) {
+            writer.println("test,step,replaced_sleep_ms,actual_ms,saved_ms");
+            for (Entry e : drained) {
+                writer.println(csv(e.getTestName()) + "," + csv(e.getStepName()) + "," + e.getReplacedSleepMillis()
+                        + "," + e.getActualMillis() + "," + e.getSavedMillis());
+                totalSaved += e.getSavedMillis();
+            }
+        }
+        return totalSaved;
+    }
+
+    private static String csv(String text) {
+        String value = text != null ? text : "";
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
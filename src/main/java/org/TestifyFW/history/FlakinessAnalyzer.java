@@ -0,0 +1,173 @@
+package org.TestifyFW.history;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scores test cases and their steps by how often their outcome flipped
+ * between passing and failing from one run to the next, over their most
+ * recent runs in the HistoryStore. Only consecutive runs of the same
+ * definition are compared, so a test that started failing because it was
+ * edited, or that fails every time, is broken rather than flaky and scores 0.
+ *
+ * Configuration (system properties):
+ *   testify.flaky.window    - recent runs looked at per test case (default 20)
+ *   testify.flaky.threshold - score from which a test case is flaky (default 0.2)
+ *   testify.flaky.minPairs  - compared run pairs needed before a test case can be flaky (default 4)
+ */
+public class FlakinessAnalyzer {
+    private final HistoryStore store;
+    private final int window;
+    private final double threshold;
+    private final int minPairs;
+
+    /**
+     * Flip counts of a test case and of each of its steps
+     */
+    public static class Flakiness {
+        private final String testName;
+        private final int pairs;
+        private final int flips;
+        private final boolean flaky;
+        private final Map<String, Double> stepScores;
+
+        Flakiness(String testName, int pairs, int flips, boolean flaky, Map<String, Double> stepScores) {
+            this.testName = testName;
+            this.pairs = pairs;
+            this.flips = flips;
+            this.flaky = flaky;
+            this.stepScores = stepScores;
+        }
+
+        public String getTestName() { return testName; }
+        // Consecutive runs of the same definition that were compared
+        public int getPairs() { return pairs; }
+        public int getFlips() { return flips; }
+        public boolean isFlaky() { return flaky; }
+
+        /**
+         * Share of compared run pairs whose outcome differed, from 0 to 1
+         */
+        public double getScore() {
+            return pairs == 0 ? 0 : (double) flips / pairs;
+        }
+
+        /**
+         * Score of each step that ever flipped, highest first
+         */
+        public Map<String, Double> getStepScores() { return stepScores; }
+    }
+
+    public FlakinessAnalyzer(HistoryStore store) {
+        this(store, Integer.getInteger("testify.flaky.window", 20),
+                Double.parseDouble(System.getProperty("testify.flaky.threshold", "0.2")),
+                Integer.getInteger("testify.flaky.minPairs", 4));
+    }
+
+    public FlakinessAnalyzer(HistoryStore store, int window, double threshold, int minPairs) {
+        this.store = store;
+        this.window = window;
+        this.threshold = threshold;
+        this.minPairs = minPairs;
+    }
+
+    public Flakiness analyze(String testName) throws IOException {
+        List<HistoryStore.TestRun> runs = new ArrayList<>(store.getLastRuns(testName, window));
+        Collections.reverse(runs);
+
+        int pairs = 0;
+        int flips = 0;
+        // Compared pairs and flips per step
+        Map<String, int[]> stepCounts = new LinkedHashMap<>();
+        HistoryStore.TestRun previous = null;
+        for (HistoryStore.TestRun run : runs) {
+            if (!isDecided(run.getOutcome())) {
+                continue;
+            }
+            if (previous != null && previous.getDefinition() == run.getDefinition()) {
+                pairs++;
+                if (previous.getOutcome().isFailure() != run.getOutcome().isFailure()) {
+                    flips++;
+                }
+                compareSteps(previous, run, stepCounts);
+            }
+            previous = run;
+        }
+
+        List<String> flipped = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : stepCounts.entrySet()) {
+            if (entry.getValue()[1] > 0) {
+                flipped.add(entry.getKey());
+            }
+        }
+        flipped.sort((a, b) -> Double.compare(score(stepCounts.get(b)), score(stepCounts.get(a))));
+        Map<String, Double> stepScores = new LinkedHashMap<>();
+        for (String step : flipped) {
+            stepScores.put(step, score(stepCounts.get(step)));
+        }
+
+        boolean flaky = pairs >= minPairs && pairs > 0 && (double) flips / pairs >= threshold;
+        return new Flakiness(testName, pairs, flips, flaky, stepScores);
+    }
+
+    /**
+     * Every test case in the history, flakiest first
+     */
+    public List<Flakiness> analyzeAll() throws IOException {
+        List<Flakiness> results = new ArrayList<>();
+        for (String testName : store.getTestNames()) {
+            results.add(analyze(testName));
+        }
+        results.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return results;
+    }
+
+    /**
+     * The given test cases that are flaky
+     */
+    public Set<String> findFlaky(Collection<String> testNames) throws IOException {
+        Set<String> flaky = new LinkedHashSet<>();
+        for (String testName : testNames) {
+            if (analyze(testName).isFlaky()) {
+                flaky.add(testName);
+            }
+        }
+        return flaky;
+    }
+
+    private static void compareSteps(HistoryStore.TestRun previous, HistoryStore.TestRun run,
+                                     Map<String, int[]> stepCounts) {
+        Map<String, HistoryStore.Outcome> before = new HashMap<>();
+        for (HistoryStore.StepRun step : previous.getSteps()) {
+            before.put(step.getStepName(), step.getOutcome());
+        }
+        for (HistoryStore.StepRun step : run.getSteps()) {
+            HistoryStore.Outcome earlier = before.get(step.getStepName());
+            if (earlier == null || !isDecided(earlier) || !isDecided(step.getOutcome())) {
+                continue;
+            }
+            int[] counts = stepCounts.computeIfAbsent(step.getStepName(), name -> new int[2]);
+            counts[0]++;
+            if (earlier.isFailure() != step.getOutcome().isFailure()) {
+                counts[1]++;
+            }
+        }
+    }
+
+    private static double score(int[] pairsAndFlips) {
+        return (double) pairsAndFlips[1] / pairsAndFlips[0];
+    }
+
+    // Skipped and unfinished runs say nothing about whether the test passes
+    private static boolean isDecided(HistoryStore.Outcome outcome) {
+        return outcome == HistoryStore.Outcome.PASSED || outcome.isFailure();
+    }
+}
@@ -0,0 +1,93 @@
+package org.TestifyFW.history;
+
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.reporter.ResultEvent;
+import org.TestifyFW.reporter.ResultEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the outcomes of one suite run for the HistoryStore. Step outcomes
+ * come from the run's result events, test outcomes from the suite runner once
+ * a test has finished; everything is appended in one go by save().
+ */
+public class HistoryRecorder implements ResultEventListener {
+    private final String runId;
+    private final long startTime;
+    private final Map<String, List<HistoryStore.StepRun>> stepsByTest = new ConcurrentHashMap<>();
+    private final Map<String, Long> definitions = new ConcurrentHashMap<>();
+    private final List<HistoryStore.TestRun> testRuns = new ArrayList<>();
+
+    public HistoryRecorder(String runId, long startTime) {
+        this.runId = runId;
+        this.startTime = startTime;
+    }
+
+    @Override
+    public void onEvent(ResultEvent event) {
+        if (event.getType() != ResultEvent.Type.STEP_END || event.getTestName() == null) {
+            return;
+        }
+        long duration = event.getDurationNanos() != null ? event.getDurationNanos() : -1;
+        stepsByTest.computeIfAbsent(event.getTestName(), name -> new ArrayList<>())
+                .add(new HistoryStore.StepRun(event.getStepName(), HistoryStore.Outcome.of(event.getStatus()), duration));
+    }
+
+    /**
+     * Remembers what the test case does, so later runs can tell whether it changed
+     */
+    public void setDefinition(String testName, ExecutionPlan plan) {
+        if (plan != null) {
+            definitions.put(testName, definitionHash(plan));
+        }
+    }
+
+    /**
+     * Adds the outcome of a finished test case, with the steps reported for it
+     */
+    public synchronized void finishTest(String testName, String status, long durationMillis) {
+        List<HistoryStore.StepRun> steps = stepsByTest.remove(testName);
+        testRuns.add(new HistoryStore.TestRun(startTime, runId, testName, HistoryStore.Outcome.of(status),
+                durationMillis, definitions.getOrDefault(testName, 0L),
+                steps != null ? steps : new ArrayList<>()));
+    }
+
+    /**
+     * Appends the finished test cases to the store
+     */
+    public synchronized void save(HistoryStore store) throws IOException {
+        store.append(testRuns);
+        testRuns.clear();
+    }
+
+    // First 8 bytes of a SHA-256 over the compiled steps, which cover everything that affects execution
+    static long definitionHash(ExecutionPlan plan) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (plan.getSetup() != null) {
+                digest.update(plan.getSetup().getName().getBytes(StandardCharsets.UTF_8));
+                for (CompiledStep step : plan.getSetup().getSteps()) {
+                    digest.update(step.getSignature().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 1);
+                }
+            }
+            digest.update((byte) 2);
+            for (CompiledStep step : plan.getSteps()) {
+                digest.update(step.getSignature().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 1);
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
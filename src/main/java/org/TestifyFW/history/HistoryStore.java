@@ -0,0 +1,532 @@
+package org.TestifyFW.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only history of test and step outcomes across runs, kept in a
+ * directory of binary files:
+ *
+ *   names.dat  every test, step and run name once, numbered in order of appearance
+ *   tests.dat  one fixed size record per test run, in time order
+ *   steps.dat  one fixed size record per step; a test record points at its steps
+ *
+ * The test records are loaded into memory column by column when the store is
+ * opened, with an index from test name to its records. Queries by test name
+ * and time range never scan the files; only the steps of the matching tests
+ * are read. A year of nightly runs of a thousand tests is a few megabytes.
+ *
+ * Several processes may append to the same store; appends take a file lock,
+ * and every query first picks up what other processes appended. A record
+ * half written by a crashed process is ignored and overwritten by the next
+ * append.
+ *
+ * Configuration (system properties):
+ *   testify.history.dir - directory of the default store (default test-output/history)
+ */
+public final class HistoryStore implements Closeable {
+    public static final String DEFAULT_LOCATION = "test-output/history";
+
+    private static final int MAGIC = 0x54464831; // "TFH1"
+    private static final int HEADER_SIZE = 4;
+    // time, run, test, outcome, duration, definition, first step, step count
+    private static final int TEST_RECORD_SIZE = 8 + 4 + 4 + 1 + 8 + 8 + 8 + 4;
+    // step name, outcome, duration
+    private static final int STEP_RECORD_SIZE = 4 + 1 + 8;
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    public enum Outcome {
+        PASSED, FAILED, ERROR, SKIPPED, INCOMPLETE;
+
+        public boolean isFailure() {
+            return this == FAILED || this == ERROR;
+        }
+
+        /**
+         * The outcome with the given name, INCOMPLETE for anything unknown
+         */
+        public static Outcome of(String name) {
+            for (Outcome outcome : values()) {
+                if (outcome.name().equals(name)) {
+                    return outcome;
+                }
+            }
+            return INCOMPLETE;
+        }
+    }
+
+    /**
+     * One run of a test case
+     */
+    public static class TestRun {
+        private final long time;
+        private final String runId;
+        private final String testName;
+        private final Outcome outcome;
+        private final long durationMillis;
+        private final long definition;
+        private final List<StepRun> steps;
+
+        /**
+         * @param definition hash of what the test case does, so runs of different versions can be told apart
+         */
+        public TestRun(long time, String runId, String testName, Outcome outcome, long durationMillis,
+                       long definition, List<StepRun> steps) {
+            this.time = time;
+            this.runId = runId;
+            this.testName = testName;
+            this.outcome = outcome;
+            this.durationMillis = durationMillis;
+            this.definition = definition;
+            this.steps = steps;
+        }
+
+        public long getTime() { return time; }
+        public String getRunId() { return runId; }
+        public String getTestName() { return testName; }
+        public Outcome getOutcome() { return outcome; }
+        public long getDurationMillis() { return durationMillis; }
+        public long getDefinition() { return definition; }
+        public List<StepRun> getSteps() { return steps; }
+    }
+
+    public static class StepRun {
+        private final String stepName;
+        private final Outcome outcome;
+        private final long durationNanos;
+
+        /**
+         * @param durationNanos how long the step ran, or -1 if it didn't run or wasn't timed
+         */
+        public StepRun(String stepName, Outcome outcome, long durationNanos) {
+            this.stepName = stepName;
+            this.outcome = outcome;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getStepName() { return stepName; }
+        public Outcome getOutcome() { return outcome; }
+        public long getDurationNanos() { return durationNanos; }
+    }
+
+    /**
+     * How often a test case ran and failed in a time range
+     */
+    public static class TestStats {
+        private final String testName;
+        private final int runs;
+        private final int failures;
+
+        TestStats(String testName, int runs, int failures) {
+            this.testName = testName;
+            this.runs = runs;
+            this.failures = failures;
+        }
+
+        public String getTestName() { return testName; }
+        public int getRuns() { return runs; }
+        public int getFailures() { return failures; }
+
+        public double getFailureRate() {
+            return runs == 0 ? 0 : (double) failures / runs;
+        }
+    }
+
+    private final Path directory;
+    private final FileChannel names;
+    private final FileChannel tests;
+    private final FileChannel steps;
+    private final FileChannel lock;
+
+    private final List<String> nameList = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private long namesLength = HEADER_SIZE;
+
+    // tests.dat, one array per column
+    private int count;
+    private long[] times = new long[256];
+    private int[] runIds = new int[256];
+    private int[] testIds = new int[256];
+    private byte[] outcomes = new byte[256];
+    private long[] durations = new long[256];
+    private long[] definitions = new long[256];
+    private long[] firstSteps = new long[256];
+    private int[] stepCounts = new int[256];
+    // Record numbers of each test name, in time order
+    private final Map<Integer, IntList> byTest = new HashMap<>();
+
+    private HistoryStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.names = openFile(directory.resolve("names.dat"));
+        this.tests = openFile(directory.resolve("tests.dat"));
+        this.steps = openFile(directory.resolve("steps.dat"));
+        this.lock = FileChannel.open(directory.resolve("history.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock fileLock = lock.lock();
+        try {
+            for (FileChannel file : new FileChannel[]{names, tests, steps}) {
+                if (file.size() == 0) {
+                    writeFully(file, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).flip(), 0);
+                }
+            }
+        } finally {
+            fileLock.release();
+        }
+        for (FileChannel file : new FileChannel[]{names, tests, steps}) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(file, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                close();
+                throw new IOException(directory + " does not contain a test history");
+            }
+        }
+        sync();
+    }
+
+    public static HistoryStore open() throws IOException {
+        return open(Paths.get(System.getProperty("testify.history.dir", DEFAULT_LOCATION)));
+    }
+
+    public static HistoryStore open(Path directory) throws IOException {
+        return new HistoryStore(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Appends the test runs of one suite run. Times are raised where needed
+     * so the file stays in time order, e.g. when runs finish out of order.
+     */
+    public synchronized void append(List<TestRun> runs) throws IOException {
+        if (runs.isEmpty()) {
+            return;
+        }
+        FileLock fileLock = lock.lock();
+        try {
+            sync();
+            // Drop whatever a crashed writer left behind
+            long stepCount = (steps.size() - HEADER_SIZE) / STEP_RECORD_SIZE;
+            steps.truncate(HEADER_SIZE + stepCount * STEP_RECORD_SIZE);
+            tests.truncate(HEADER_SIZE + (long) count * TEST_RECORD_SIZE);
+            names.truncate(namesLength);
+
+            // Ids of names not in the file yet; they are added to the maps when read back
+            Map<String, Integer> newNames = new LinkedHashMap<>();
+            int totalSteps = 0;
+            for (TestRun run : runs) {
+                totalSteps += run.getSteps().size();
+            }
+            ByteBuffer stepBuffer = ByteBuffer.allocate(totalSteps * STEP_RECORD_SIZE);
+            ByteBuffer testBuffer = ByteBuffer.allocate(runs.size() * TEST_RECORD_SIZE);
+            long lastTime = count > 0 ? times[count - 1] : Long.MIN_VALUE;
+            long firstStep = stepCount;
+            for (TestRun run : runs) {
+                for (StepRun step : run.getSteps()) {
+                    stepBuffer.putInt(nameId(step.getStepName(), newNames));
+                    stepBuffer.put((byte) step.getOutcome().ordinal());
+                    stepBuffer.putLong(step.getDurationNanos());
+                }
+                lastTime = Math.max(lastTime, run.getTime());
+                testBuffer.putLong(lastTime);
+                testBuffer.putInt(nameId(run.getRunId(), newNames));
+                testBuffer.putInt(nameId(run.getTestName(), newNames));
+                testBuffer.put((byte) run.getOutcome().ordinal());
+                testBuffer.putLong(run.getDurationMillis());
+                testBuffer.putLong(run.getDefinition());
+                testBuffer.putLong(firstStep);
+                testBuffer.putInt(run.getSteps().size());
+                firstStep += run.getSteps().size();
+            }
+
+            // Names and steps first, so a test record never points at data that isn't there
+            int namesSize = 0;
+            List<byte[]> encoded = new ArrayList<>();
+            for (String name : newNames.keySet()) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                namesSize += 4 + bytes.length;
+            }
+            ByteBuffer nameBuffer = ByteBuffer.allocate(namesSize);
+            for (byte[] bytes : encoded) {
+                nameBuffer.putInt(bytes.length).put(bytes);
+            }
+            writeFully(names, nameBuffer.flip(), namesLength);
+            writeFully(steps, stepBuffer.flip(), HEADER_SIZE + stepCount * STEP_RECORD_SIZE);
+            writeFully(tests, testBuffer.flip(), HEADER_SIZE + (long) count * TEST_RECORD_SIZE);
+            sync();
+        } finally {
+            fileLock.release();
+        }
+    }
+
+    /**
+     * The most recent runs of a test case with their steps, newest first
+     */
+    public synchronized List<TestRun> getLastRuns(String testName, int limit) throws IOException {
+        sync();
+        IntList records = records(testName);
+        List<TestRun> runs = new ArrayList<>();
+        for (int i = records.size - 1; i >= 0 && runs.size() < limit; i--) {
+            runs.add(read(records.values[i], true));
+        }
+        return runs;
+    }
+
+    /**
+     * The runs of a test case since the given time, oldest first
+     */
+    public synchronized List<TestRun> getRuns(String testName, long sinceMillis, boolean withSteps) throws IOException {
+        sync();
+        IntList records = records(testName);
+        List<TestRun> runs = new ArrayList<>();
+        for (int i = firstSince(records, sinceMillis); i < records.size; i++) {
+            runs.add(read(records.values[i], withSteps));
+        }
+        return runs;
+    }
+
+    /**
+     * Duration percentile of each step of a test case since the given time,
+     * in nanoseconds, in step order; steps that didn't run are left out
+     *
+     * @param percentile between 0 and 100, e.g. 95
+     */
+    public synchronized Map<String, Long> getStepDurationPercentiles(String testName, double percentile,
+                                                                     long sinceMillis) throws IOException {
+        Map<String, List<Long>> durationsByStep = new LinkedHashMap<>();
+        for (TestRun run : getRuns(testName, sinceMillis, true)) {
+            for (StepRun step : run.getSteps()) {
+                if (step.getDurationNanos() >= 0) {
+                    durationsByStep.computeIfAbsent(step.getStepName(), name -> new ArrayList<>())
+                            .add(step.getDurationNanos());
+                }
+            }
+        }
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Long>> entry : durationsByStep.entrySet()) {
+            List<Long> values = entry.getValue();
+            Collections.sort(values);
+            // Nearest rank
+            int rank = (int) Math.ceil(percentile / 100 * values.size());
+            percentiles.put(entry.getKey(), values.get(Math.max(0, Math.min(values.size() - 1, rank - 1))));
+        }
+        return percentiles;
+    }
+
+    /**
+     * Runs and failures of every test case since the given time, highest failure rate first
+     */
+    public synchronized List<TestStats> getTestStats(long sinceMillis) throws IOException {
+        sync();
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (int record = firstSince(sinceMillis); record < count; record++) {
+            int[] runsAndFailures = counts.computeIfAbsent(testIds[record], id -> new int[2]);
+            runsAndFailures[0]++;
+            if (OUTCOMES[outcomes[record]].isFailure()) {
+                runsAndFailures[1]++;
+            }
+        }
+        List<TestStats> stats = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+            stats.add(new TestStats(nameList.get(entry.getKey()), entry.getValue()[0], entry.getValue()[1]));
+        }
+        stats.sort((a, b) -> a.getFailureRate() != b.getFailureRate()
+                ? Double.compare(b.getFailureRate(), a.getFailureRate())
+                : a.getTestName().compareTo(b.getTestName()));
+        return stats;
+    }
+
+    /**
+     * Names of all test cases in the history, in order of first appearance
+     */
+    public synchronized List<String> getTestNames() throws IOException {
+        sync();
+        List<Integer> ids = new ArrayList<>(byTest.keySet());
+        Collections.sort(ids);
+        List<String> testNames = new ArrayList<>();
+        for (int id : ids) {
+            testNames.add(nameList.get(id));
+        }
+        return testNames;
+    }
+
+    public synchronized int getRunCount() throws IOException {
+        sync();
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (FileChannel file : new FileChannel[]{names, tests, steps, lock}) {
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+
+    // Reads what was appended since the last call, by this or another process
+    private void sync() throws IOException {
+        long namesSize = names.size();
+        if (namesSize > namesLength) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (namesSize - namesLength));
+            readFully(names, buffer, namesLength);
+            buffer.flip();
+            while (buffer.remaining() >= 4) {
+                int length = buffer.getInt(buffer.position());
+                if (buffer.remaining() < 4 + length) {
+                    break;
+                }
+                buffer.getInt();
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                String name = new String(bytes, StandardCharsets.UTF_8);
+                nameIds.put(name, nameList.size());
+                nameList.add(name);
+                namesLength += 4 + length;
+            }
+        }
+
+        long records = (tests.size() - HEADER_SIZE) / TEST_RECORD_SIZE;
+        if (records > count) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) ((records - count) * TEST_RECORD_SIZE));
+            readFully(tests, buffer, HEADER_SIZE + (long) count * TEST_RECORD_SIZE);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                ensureCapacity(count + 1);
+                times[count] = buffer.getLong();
+                runIds[count] = buffer.getInt();
+                testIds[count] = buffer.getInt();
+                outcomes[count] = buffer.get();
+                durations[count] = buffer.getLong();
+                definitions[count] = buffer.getLong();
+                firstSteps[count] = buffer.getLong();
+                stepCounts[count] = buffer.getInt();
+                byTest.computeIfAbsent(testIds[count], id -> new IntList()).add(count);
+                count++;
+            }
+        }
+    }
+
+    private TestRun read(int record, boolean withSteps) throws IOException {
+        List<StepRun> stepRuns = Collections.emptyList();
+        if (withSteps && stepCounts[record] > 0) {
+            ByteBuffer buffer = ByteBuffer.allocate(stepCounts[record] * STEP_RECORD_SIZE);
+            readFully(steps, buffer, HEADER_SIZE + firstSteps[record] * STEP_RECORD_SIZE);
+            buffer.flip();
+            stepRuns = new ArrayList<>(stepCounts[record]);
+            while (buffer.hasRemaining()) {
+                stepRuns.add(new StepRun(nameList.get(buffer.getInt()), OUTCOMES[buffer.get()],
+                        buffer.getLong()));
+            }
+        }
+        return new TestRun(times[record], nameList.get(runIds[record]), nameList.get(testIds[record]),
+                OUTCOMES[outcomes[record]], durations[record], definitions[record], stepRuns);
+    }
+
+    private IntList records(String testName) {
+        Integer id = nameIds.get(testName);
+        IntList records = id != null ? byTest.get(id) : null;
+        return records != null ? records : new IntList();
+    }
+
+    // First of the test's records at or after the time; records are in time order
+    private int firstSince(IntList records, long sinceMillis) {
+        int low = 0;
+        int high = records.size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[records.values[middle]] < sinceMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstSince(long sinceMillis) {
+        int index = Arrays.binarySearch(times, 0, count, sinceMillis);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Several records can share a time; start at the first of them
+        while (index > 0 && times[index - 1] == sinceMillis) {
+            index--;
+        }
+        return index;
+    }
+
+    private int nameId(String name, Map<String, Integer> newNames) {
+        String value = name != null ? name : "";
+        Integer id = nameIds.get(value);
+        if (id == null) {
+            id = newNames.computeIfAbsent(value, key -> nameList.size() + newNames.size());
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= times.length) {
+            return;
+        }
+        int size = Math.max(capacity, times.length * 2);
+        times = Arrays.copyOf(times, size);
+        runIds = Arrays.copyOf(runIds, size);
+        testIds = Arrays.copyOf(testIds, size);
+        outcomes = Arrays.copyOf(outcomes, size);
+        durations = Arrays.copyOf(durations, size);
+        definitions = Arrays.copyOf(definitions, size);
+        firstSteps = Arrays.copyOf(firstSteps, size);
+        stepCounts = Arrays.copyOf(stepCounts, size);
+    }
+
+    private static FileChannel openFile(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void writeFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += file.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = file.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of history file");
+            }
+            position += read;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
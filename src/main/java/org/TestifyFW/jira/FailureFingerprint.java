@@ -0,0 +1,76 @@
+package org.TestifyFW.jira;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Stable identity of a failure across runs.
+ * Built from the test name, the failing step and the exception, with the
+ * run-specific parts (numbers, ids, session hashes, line numbers) removed, so
+ * the same broken selector produces the same fingerprint every night.
+ */
+public final class FailureFingerprint {
+    private static final int STACK_FRAMES = 3;
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern HEX_ID = Pattern.compile("\\b(0x)?[0-9a-f]{16,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private FailureFingerprint() {
+    }
+
+    /**
+     * @param stepIndex zero-based index of the failing step, or -1 if unknown
+     * @param action    action of the failing step, or null if unknown
+     */
+    public static String compute(String testName, int stepIndex, String action, Throwable failure) {
+        StringBuilder source = new StringBuilder();
+        source.append(testName).append('\n');
+        source.append(stepIndex).append('\n');
+        source.append(action).append('\n');
+
+        if (failure != null) {
+            source.append(failure.getClass().getName()).append('\n');
+            source.append(normalizeMessage(failure.getMessage())).append('\n');
+            StackTraceElement[] frames = failure.getStackTrace();
+            for (int i = 0; i < Math.min(STACK_FRAMES, frames.length); i++) {
+                // Line numbers move whenever the code changes, so only class and method count
+                source.append(frames[i].getClassName()).append('.').append(frames[i].getMethodName()).append('\n');
+            }
+        }
+        return sha256(source.toString()).substring(0, 16);
+    }
+
+    /**
+     * Keeps the first line of the message (Selenium appends build and session
+     * details after it) and masks values that change from run to run
+     */
+    static String normalizeMessage(String message) {
+        if (message == null) {
+            return "";
+        }
+        String firstLine = message.split("\\R", 2)[0].toLowerCase(Locale.ROOT);
+        String normalized = UUID.matcher(firstLine).replaceAll("<uuid>");
+        normalized = HEX_ID.matcher(normalized).replaceAll("<id>");
+        normalized = NUMBER.matcher(normalized).replaceAll("<n>");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.TestifyFW.jira;
+
+import java.util.function.Consumer;
+
+/**
+ * A test failure waiting to be reported to Jira
+ */
+public class FailureReport {
+    private final String testName;
+    private final String summary;
+    private final String description;
+    private final String fingerprint;
+    private final Consumer<String> onIssueCreated;
+
+    public FailureReport(String testName, String summary, String description) {
+        this(testName, summary, description, null, null);
+    }
+
+    public FailureReport(String testName, String summary, String description, Consumer<String> onIssueCreated) {
+        this(testName, summary, description, null, onIssueCreated);
+    }
+
+    /**
+     * @param fingerprint    FailureFingerprint of the failure; reports with a known fingerprint update the
+     *                       existing issue instead of opening a new one. May be null.
+     * @param onIssueCreated called with the issue key from the reporting thread once the issue exists
+     */
+    public FailureReport(String testName, String summary, String description, String fingerprint,
+                         Consumer<String> onIssueCreated) {
+        this.testName = testName;
+        this.summary = summary;
+        this.description = description;
+        this.fingerprint = fingerprint;
+        this.onIssueCreated = onIssueCreated;
+    }
+
+    public String getTestName() { return testName; }
+    public String getSummary() { return summary; }
+    public String getDescription() { return description; }
+    public String getFingerprint() { return fingerprint; }
+    public Consumer<String> getOnIssueCreated() { return onIssueCreated; }
+}
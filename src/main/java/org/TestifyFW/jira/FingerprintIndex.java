@@ -0,0 +1,110 @@
+package org.TestifyFW.jira;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Local, persisted map from failure fingerprint to the Jira issue tracking it.
+ * Stored as a properties file: fingerprint=ISSUE-KEY|occurrences|lastSeenMillis
+ */
+public class FingerprintIndex {
+    public static final String DEFAULT_LOCATION = "test-output/jira-fingerprints.properties";
+
+    private final Path file;
+    private final Properties entries = new Properties();
+
+    public static class Entry {
+        private final String issueKey;
+        private final int occurrences;
+        private final long lastSeen;
+
+        Entry(String issueKey, int occurrences, long lastSeen) {
+            this.issueKey = issueKey;
+            this.occurrences = occurrences;
+            this.lastSeen = lastSeen;
+        }
+
+        public String getIssueKey() { return issueKey; }
+        public int getOccurrences() { return occurrences; }
+        public long getLastSeen() { return lastSeen; }
+    }
+
+    public FingerprintIndex() {
+        this(Paths.get(System.getProperty("testify.jira.fingerprintIndex", DEFAULT_LOCATION)));
+    }
+
+    public FingerprintIndex(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                entries.load(in);
+            } catch (IOException e) {
+                System.err.println("Failed to load Jira fingerprint index: " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized Entry get(String fingerprint) {
+        String value = entries.getProperty(fingerprint);
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split("\\|");
+        try {
+            return new Entry(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1,
+                    parts.length > 2 ? Long.parseLong(parts[2]) : 0);
+        } catch (NumberFormatException e) {
+            return new Entry(parts[0], 1, 0);
+        }
+    }
+
+    /**
+     * Records a new issue for a fingerprint (first occurrence)
+     */
+    public synchronized Entry recordIssue(String fingerprint, String issueKey) {
+        return put(fingerprint, new Entry(issueKey, 1, System.currentTimeMillis()));
+    }
+
+    /**
+     * Counts one more occurrence of an already tracked failure
+     */
+    public synchronized Entry recordOccurrence(String fingerprint) {
+        Entry current = get(fingerprint);
+        if (current == null) {
+            return null;
+        }
+        return put(fingerprint, new Entry(current.getIssueKey(), current.getOccurrences() + 1, System.currentTimeMillis()));
+    }
+
+    public synchronized void remove(String fingerprint) {
+        entries.remove(fingerprint);
+        save();
+    }
+
+    private Entry put(String fingerprint, Entry entry) {
+        entries.setProperty(fingerprint, entry.getIssueKey() + "|" + entry.getOccurrences() + "|" + entry.getLastSeen());
+        save();
+        return entry;
+    }
+
+    // Written to a temporary file first so a crash never leaves a truncated index behind
+    private void save() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "jira-fingerprints", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                entries.store(out, "Failure fingerprint -> Jira issue|occurrences|last seen");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to save Jira fingerprint index: " + e.getMessage());
+        }
+    }
+}
@@ -19,43 +19,50 @@ public class JiraIssueReporter {
     private String username;
     private String apiToken;
     private String projectKey;
-    private JiraClient jiraClient;
+    // JiraClient's HTTP connection manager is single-threaded, so each reporting thread gets its own client
+    private final ThreadLocal<JiraClient> jiraClient = ThreadLocal.withInitial(this::newJiraClient);
     private boolean enabled = false;
 
     public JiraIssueReporter() {
-        loadConfiguration();
-        if (enabled) {
-            initJiraClient();
-        }
+        this(loadConfigurationFile());
+    }
+
+    /**
+     * Creates a reporter from already loaded jira.* properties, e.g. to point it at a test server
+     */
+    public JiraIssueReporter(Properties props) {
+        applyConfiguration(props);
     }
     public String getJiraUrl() {
         return jiraUrl;
     }
 
-    private void loadConfiguration() {
+    private static Properties loadConfigurationFile() {
         Properties props = new Properties();
         try (InputStream input = new FileInputStream("jira-config.properties")) {
             props.load(input);
-
-            jiraUrl = props.getProperty("jira.url");
-            username = props.getProperty("jira.username");
-            apiToken = props.getProperty("jira.api_token");
-            projectKey = props.getProperty("jira.project_key");
-            enabled = Boolean.parseBoolean(props.getProperty("jira.enabled", "false"));
-
-            if (enabled && (jiraUrl == null || username == null || apiToken == null || projectKey == null)) {
-                System.err.println("Jira integration is enabled but configuration is incomplete. Disabling integration.");
-                enabled = false;
-            }
         } catch (IOException e) {
             System.err.println("Failed to load Jira configuration: " + e.getMessage());
+        }
+        return props;
+    }
+
+    private void applyConfiguration(Properties props) {
+        jiraUrl = props.getProperty("jira.url");
+        username = props.getProperty("jira.username");
+        apiToken = props.getProperty("jira.api_token");
+        projectKey = props.getProperty("jira.project_key");
+        enabled = Boolean.parseBoolean(props.getProperty("jira.enabled", "false"));
+
+        if (enabled && (jiraUrl == null || username == null || apiToken == null || projectKey == null)) {
+            System.err.println("Jira integration is enabled but configuration is incomplete. Disabling integration.");
             enabled = false;
         }
     }
 
-    private void initJiraClient() {
+    private JiraClient newJiraClient() {
         BasicCredentials creds = new BasicCredentials(username, apiToken);
-        jiraClient = new JiraClient(jiraUrl, creds);
+        return new JiraClient(jiraUrl, creds);
     }
 
     public String createIssue(String summary, String description, String testName) {
@@ -67,27 +74,48 @@ public class JiraIssueReporter {
         }
 
         try {
-            // Create issue
-            Issue.FluentCreate issueCreate = jiraClient.createIssue(projectKey, "Bug");
+            return createIssueOrThrow(summary, description);
+        } catch (JiraException e) {
+            System.err.println("Failed to create Jira issue: " + e.getMessage());
+            return null;
+        }
+    }
 
-            // Set fields
-            issueCreate.field(Field.SUMMARY, "[Automation Failure] " + summary);
-            issueCreate.field(Field.DESCRIPTION, description);
+    /**
+     * Creates the issue and returns its key, letting failures propagate so callers can retry
+     */
+    public String createIssueOrThrow(String summary, String description) throws JiraException {
+        if (!enabled) {
+            throw new JiraException("Jira integration is disabled");
+        }
 
-            // Add custom fields if needed
-            // issueCreate.field("customfield_10001", "Test Automation");
+        // Create issue
+        Issue.FluentCreate issueCreate = jiraClient.get().createIssue(projectKey, "Bug");
 
-            // Create the issue
-            Issue issue = issueCreate.execute();
-            String issueKey = issue.getKey();
+        // Set fields
+        issueCreate.field(Field.SUMMARY, "[Automation Failure] " + summary);
+        issueCreate.field(Field.DESCRIPTION, description);
 
-            System.out.println("Creating JIRA issue: " + issueKey);
-            return issueKey;
+        // Add custom fields if needed
+        // issueCreate.field("customfield_10001", "Test Automation");
 
-        } catch (JiraException e) {
-            System.err.println("Failed to create Jira issue: " + e.getMessage());
-            return null;
+        // Create the issue
+        Issue issue = issueCreate.execute();
+        String issueKey = issue.getKey();
+
+        System.out.println("Creating JIRA issue: " + issueKey);
+        return issueKey;
+    }
+
+    /**
+     * Adds a comment to an existing issue, letting failures propagate so callers can retry
+     */
+    public void addComment(String issueKey, String comment) throws JiraException {
+        if (!enabled) {
+            throw new JiraException("Jira integration is disabled");
         }
+        jiraClient.get().getIssue(issueKey).addComment(comment);
+        System.out.println("Commented on JIRA issue: " + issueKey);
     }
 
     public boolean isEnabled() {
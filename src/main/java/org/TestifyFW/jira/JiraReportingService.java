@@ -0,0 +1,286 @@
+package org.TestifyFW.jira;
+
+import net.rcarz.jiraclient.JiraException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports test failures to Jira in the background.
+ * The configuration is read and the Jira client built once, on first use.
+ * Failures are put on a bounded queue and sent by worker threads, with
+ * exponential back-off between retries, so test threads never wait on Jira.
+ * Call flush() at the end of a suite to make sure everything was sent.
+ *
+ * Reports carrying a fingerprint are de-duplicated through a FingerprintIndex:
+ * a failure that already has an issue gets a comment on that issue instead
+ * of a new "[Automation Failure]" ticket.
+ */
+public class JiraReportingService {
+    private static final int DEFAULT_WORKERS = 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 4;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+    private static final long SUBMIT_TIMEOUT_MILLIS = 5000;
+
+    private final JiraIssueReporter reporter;
+    private final FingerprintIndex fingerprintIndex;
+    private final Map<String, Object> fingerprintLocks = new ConcurrentHashMap<>();
+    private final BlockingQueue<FailureReport> queue;
+    private final int workerCount;
+    private final long initialBackoffMillis;
+    private final int maxAttempts;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final Object lock = new Object();
+    private int inFlight = 0;
+    private volatile boolean shutdown = false;
+
+    private int createdCount = 0;
+    private int commentedCount = 0;
+    private int failedCount = 0;
+    private int droppedCount = 0;
+
+    private static class Holder {
+        private static final JiraReportingService INSTANCE = createDefault();
+    }
+
+    private static JiraReportingService createDefault() {
+        JiraReportingService service = new JiraReportingService(new JiraIssueReporter(), new FingerprintIndex(),
+                DEFAULT_WORKERS, DEFAULT_QUEUE_CAPACITY, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_ATTEMPTS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> service.shutdown(30000), "testify-jira-shutdown"));
+        return service;
+    }
+
+    public static JiraReportingService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Creates a standalone service; most callers should use getInstance()
+     *
+     * @param fingerprintIndex index used to de-duplicate failures, or null to always create new issues
+     */
+    public JiraReportingService(JiraIssueReporter reporter, FingerprintIndex fingerprintIndex, int workerCount,
+                                int queueCapacity, long initialBackoffMillis, int maxAttempts) {
+        this.reporter = reporter;
+        this.fingerprintIndex = fingerprintIndex;
+        this.workerCount = workerCount;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public boolean isEnabled() {
+        return reporter.isEnabled();
+    }
+
+    public String getJiraUrl() {
+        return reporter.getJiraUrl();
+    }
+
+    /**
+     * Queues a failure for reporting. Returns false if Jira is disabled or the
+     * queue stayed full for too long and the report had to be dropped.
+     */
+    public boolean submit(FailureReport report) {
+        if (!reporter.isEnabled() || shutdown) {
+            return false;
+        }
+        startWorkers();
+
+        synchronized (lock) {
+            inFlight++;
+        }
+        boolean queued = false;
+        try {
+            queued = queue.offer(report, SUBMIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queued) {
+            System.err.println("Jira reporting queue is full, dropping failure report for " + report.getTestName());
+            finished(() -> droppedCount++);
+        }
+        return queued;
+    }
+
+    /**
+     * Waits until every queued report has been sent (or has given up).
+     * Returns false if the timeout passed first.
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (inFlight > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    System.err.println("Timed out flushing Jira reports, " + inFlight + " still pending");
+                    return false;
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Flushes pending reports and stops the workers
+     */
+    public void shutdown(long timeoutMillis) {
+        flush(timeoutMillis);
+        shutdown = true;
+        synchronized (workers) {
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+            workers.clear();
+        }
+    }
+
+    public int getCreatedCount() {
+        synchronized (lock) {
+            return createdCount;
+        }
+    }
+
+    public int getCommentedCount() {
+        synchronized (lock) {
+            return commentedCount;
+        }
+    }
+
+    public int getFailedCount() {
+        synchronized (lock) {
+            return failedCount;
+        }
+    }
+
+    public int getDroppedCount() {
+        synchronized (lock) {
+            return droppedCount;
+        }
+    }
+
+    private void startWorkers() {
+        synchronized (workers) {
+            if (!workers.isEmpty() || shutdown) {
+                return;
+            }
+            for (int i = 1; i <= workerCount; i++) {
+                Thread worker = new Thread(this::workerLoop, "testify-jira-worker-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    private void workerLoop() {
+        while (!shutdown) {
+            FailureReport report;
+            try {
+                report = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (report != null) {
+                send(report);
+            }
+        }
+    }
+
+    private void send(FailureReport report) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                deliver(report);
+                return;
+            } catch (JiraException | RuntimeException e) {
+                System.err.println("Failed to create Jira issue for " + report.getTestName()
+                        + " (attempt " + attempt + "/" + maxAttempts + "): " + e.getMessage());
+            }
+
+            if (attempt < maxAttempts) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+            }
+        }
+        finished(() -> failedCount++);
+    }
+
+    private void deliver(FailureReport report) throws JiraException {
+        String fingerprint = report.getFingerprint();
+        if (fingerprint == null || fingerprintIndex == null) {
+            createIssue(report, null);
+            return;
+        }
+
+        // One report per fingerprint at a time, so concurrent duplicates can't both open an issue
+        synchronized (fingerprintLocks.computeIfAbsent(fingerprint, key -> new Object())) {
+            FingerprintIndex.Entry existing = fingerprintIndex.get(fingerprint);
+            if (existing == null) {
+                createIssue(report, fingerprint);
+                return;
+            }
+
+            int occurrence = existing.getOccurrences() + 1;
+            String comment = "Failure seen again (occurrence #" + occurrence + ", fingerprint " + fingerprint
+                    + ").\n\n" + report.getDescription();
+            reporter.addComment(existing.getIssueKey(), comment);
+            fingerprintIndex.recordOccurrence(fingerprint);
+            System.out.println("Jira issue updated: " + existing.getIssueKey() + " (" + report.getTestName()
+                    + ", occurrence #" + occurrence + ")");
+            notifyCreated(report, existing.getIssueKey());
+            finished(() -> commentedCount++);
+        }
+    }
+
+    private void createIssue(FailureReport report, String fingerprint) throws JiraException {
+        String description = report.getDescription();
+        if (fingerprint != null) {
+            description += "\n\n*Failure Fingerprint:* " + fingerprint;
+        }
+        String issueKey = reporter.createIssueOrThrow(report.getSummary(), description);
+        if (fingerprint != null) {
+            fingerprintIndex.recordIssue(fingerprint, issueKey);
+        }
+        System.out.println("Jira issue created: " + issueKey + " (" + report.getTestName() + ")");
+        notifyCreated(report, issueKey);
+        finished(() -> createdCount++);
+    }
+
+    private static void notifyCreated(FailureReport report, String issueKey) {
+        if (report.getOnIssueCreated() == null) {
+            return;
+        }
+        try {
+            report.getOnIssueCreated().accept(issueKey);
+        } catch (RuntimeException e) {
+            System.err.println("Jira issue callback failed: " + e.getMessage());
+        }
+    }
+
+    private void finished(Runnable countUpdate) {
+        synchronized (lock) {
+            countUpdate.run();
+            inFlight--;
+            lock.notifyAll();
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package org.TestifyFW.model;
 //import org.TestifyFW.model.TestStep;
 
+import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
-public class TestCase {
+public class TestCase implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String id;           // identifies the test case for dependsOn, defaults to the name
     private String name;
     private List<TestStep> steps;
+    private Long timeout;        // default step timeout (ms) for this test case
+    private Long pollInterval;   // default initial polling interval (ms) for this test case
+    private TestFixture setup;   // optional setup whose session state is shared between test cases
+    private List<String> dependsOn; // IDs of test cases that must pass before this one runs
+    private String dataset;      // CSV or JSON file with one row of ${...} values per instance
+    private TestCase instanceOf; // for an instance expanded from a dataset, the test case it came from
+    private Map<String, String> parameters; // the dataset row of such an instance
 
     // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -23,4 +43,60 @@ public class TestCase {
     public void setSteps(List<TestStep> steps) {
         this.steps = steps;
     }
+
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    public Long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public TestFixture getSetup() {
+        return setup;
+    }
+
+    public void setSetup(TestFixture setup) {
+        this.setup = setup;
+    }
+
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<String> dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    public String getDataset() {
+        return dataset;
+    }
+
+    public void setDataset(String dataset) {
+        this.dataset = dataset;
+    }
+
+    public TestCase getInstanceOf() {
+        return instanceOf;
+    }
+
+    public void setInstanceOf(TestCase instanceOf) {
+        this.instanceOf = instanceOf;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, String> parameters) {
+        this.parameters = parameters;
+    }
 }
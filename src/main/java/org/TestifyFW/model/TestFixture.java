@@ -0,0 +1,41 @@
+package org.TestifyFW.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Named setup sequence (e.g. a login) whose resulting browser state is captured
+ * once and restored into later test cases instead of replaying the steps.
+ */
+public class TestFixture implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    private Long ttl;              // seconds the captured session stays valid
+    private List<TestStep> steps;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Long ttl) {
+        this.ttl = ttl;
+    }
+
+    public List<TestStep> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<TestStep> steps) {
+        this.steps = steps;
+    }
+}
@@ -1,7 +1,11 @@
 package org.TestifyFW.model;
 
+import java.io.Serializable;
 
-public class TestStep {
+public class TestStep implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String id;                   // optional name other steps can depend on
     private String action;
     private String element;
     private String value;
@@ -11,9 +15,21 @@ public class TestStep {
     private String selectorType;
     private String selector;
     private Boolean critical = false;     // subsequent steps won't execute if this step fails
-    private String dependsOn;            // ID of step this step depends on
+    private String dependsOn;            // comma separated IDs of earlier steps that must pass before this one runs
+    private Long replacesSleep;          // fixed sleep (ms) a condition wait replaced, used to report time saved
+    private Long timeout;                // ms to wait for this step's element/condition, overrides the test case
+    private Long pollInterval;           // initial polling interval (ms) for this step, overrides the test case
+    private Integer line;                // line in the YAML file the step was loaded from, for error messages
 
     // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getAction() {
         return action;
     }
@@ -88,6 +104,30 @@ public class TestStep {
         this.critical = critical;
     }
 
+    public Long getReplacesSleep() {
+        return replacesSleep;
+    }
+
+    public void setReplacesSleep(Long replacesSleep) {
+        this.replacesSleep = replacesSleep;
+    }
+
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    public Long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
     public String getDependsOn() {
         return dependsOn;
     }
@@ -95,4 +135,12 @@ public class TestStep {
     public void setDependsOn(String dependsOn) {
         this.dependsOn = dependsOn;
     }
-}
\ No newline at end of file
+
+    public Integer getLine() {
+        return line;
+    }
+
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+}
@@ -0,0 +1,266 @@
+package org.TestifyFW.reporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Output of one run, in a directory no other run can claim:
+ *
+ *   run-<runId>/manifest.jsonl       one JSON line per finished test case
+ *   run-<runId>/events.jsonl         every test and step event of the run (see ResultEvent)
+ *   run-<runId>/tests/<testId>/      each test case's HTML report
+ *   run-<runId>/screenshots/<sha256> screenshots, stored once per distinct image
+ *
+ * Run ids combine the start time with a random part, and test ids are numbered
+ * within the run, so tests that start in the same second never share files.
+ * Steps are addressed as "<testId>/s<step number>".
+ *
+ * SuiteRunner creates a store per suite; tests started on their own (GUI,
+ * TestNG) share one store per JVM.
+ *
+ * Configuration (system properties):
+ *   testify.artifacts.dir - directory run directories are created in (default test-output/html-reports)
+ */
+public final class ArtifactStore implements AutoCloseable {
+    private static final String BASE_DIRECTORY = System.getProperty("testify.artifacts.dir", "test-output/html-reports");
+    private static volatile ArtifactStore defaultStore;
+
+    private final String runId;
+    private final Path directory;
+    private final AtomicInteger testCounter = new AtomicInteger();
+    private final Map<String, CompletableFuture<Void>> screenshots = new ConcurrentHashMap<>();
+    private final Writer manifest;
+    private final EventLog events;
+    private final List<ResultEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    private ArtifactStore(String runId, Path directory) throws IOException {
+        this.runId = runId;
+        this.directory = directory;
+        Files.createDirectories(directory.resolve("tests"));
+        Files.createDirectories(directory.resolve("screenshots"));
+        this.manifest = Files.newBufferedWriter(directory.resolve("manifest.jsonl"), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        manifest.write("{\"runId\": " + Json.quote(runId) + ", \"started\": "
+                + Json.quote(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(new Date())) + "}\n");
+        manifest.flush();
+        this.events = new EventLog(directory.resolve("events.jsonl"));
+    }
+
+    /**
+     * Store shared by tests that run outside a suite, created on first use
+     */
+    public static ArtifactStore getDefault() {
+        if (defaultStore == null) {
+            synchronized (ArtifactStore.class) {
+                if (defaultStore == null) {
+                    defaultStore = createRun();
+                }
+            }
+        }
+        return defaultStore;
+    }
+
+    public static ArtifactStore createRun() {
+        return createRun(Paths.get(BASE_DIRECTORY));
+    }
+
+    /**
+     * Claims a new run directory under the base directory
+     *
+     * @throws IllegalStateException if no directory can be created there
+     */
+    public static ArtifactStore createRun(Path baseDirectory) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        try {
+            Files.createDirectories(baseDirectory);
+            while (true) {
+                String runId = timestamp + "-" + UUID.randomUUID().toString().substring(0, 8);
+                Path directory = baseDirectory.resolve("run-" + runId);
+                try {
+                    // Fails if the directory exists, so two runs can't both claim it
+                    Files.createDirectory(directory);
+                } catch (FileAlreadyExistsException e) {
+                    continue;
+                }
+                return new ArtifactStore(runId, directory);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create run directory in " + baseDirectory + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The run's result event stream
+     */
+    public EventLog getEvents() {
+        return events;
+    }
+
+    /**
+     * Adds a listener that receives every event of the run after the event log
+     */
+    public void addListener(ResultEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Writes the event to the event log and passes it on to the listeners
+     */
+    public void publish(ResultEvent event) {
+        try {
+            events.onEvent(event);
+        } catch (IOException e) {
+            System.err.println("Failed to write result event: " + e.getMessage());
+        }
+        for (ResultEventListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Result event listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reserves an id and a directory for a test case, e.g. "0007-login-test"
+     */
+    public String createTest(String testName) throws IOException {
+        String testId = newTestId(testName);
+        Files.createDirectories(getTestDirectory(testId));
+        return testId;
+    }
+
+    /**
+     * Reserves an id for a test that has events but no directory of its own, e.g. a TestNG test method
+     */
+    public String newTestId(String testName) {
+        return String.format("%04d-%s", testCounter.incrementAndGet(), slug(testName));
+    }
+
+    /**
+     * Removes the directory of a test case that produced no output; its id is not reused
+     */
+    public void removeTest(String testId) {
+        try {
+            Files.deleteIfExists(getTestDirectory(testId));
+        } catch (IOException e) {
+            // Not empty after all, keep it
+        }
+    }
+
+    public Path getTestDirectory(String testId) {
+        return directory.resolve("tests").resolve(testId);
+    }
+
+    /**
+     * Queues a screenshot for writing unless an identical image is already
+     * stored, and returns its path relative to the run directory
+     */
+    public String saveScreenshot(byte[] pngBytes, List<Future<?>> pendingWrites) {
+        String name = sha256(pngBytes) + "." + ScreenshotWriter.getExtension();
+        // Claim the name first and write outside the map: with a full queue the write runs on this thread
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        CompletableFuture<Void> existing = screenshots.putIfAbsent(name, written);
+        if (existing != null) {
+            pendingWrites.add(existing);
+            return "screenshots/" + name;
+        }
+        pendingWrites.add(written);
+        try {
+            ScreenshotWriter.submit(pngBytes, directory.resolve("screenshots").resolve(name))
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            written.completeExceptionally(error);
+                        } else {
+                            written.complete(null);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            written.completeExceptionally(e);
+            throw e;
+        }
+        return "screenshots/" + name;
+    }
+
+    /**
+     * Appends a finished test case to the manifest
+     *
+     * @param screenshots JSON objects describing the test's screenshots
+     */
+    public synchronized void recordTest(String testId, String testName, String status, String reportPath,
+                                        List<String> screenshots) {
+        try {
+            manifest.write("{\"testId\": " + Json.quote(testId)
+                    + ", \"name\": " + Json.quote(testName)
+                    + ", \"status\": " + Json.quote(status)
+                    + ", \"report\": " + Json.quote(reportPath)
+                    + ", \"screenshots\": [" + String.join(", ", screenshots) + "]}\n");
+            manifest.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to update manifest of run " + runId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            manifest.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close manifest of run " + runId + ": " + e.getMessage());
+        }
+        try {
+            events.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close event log of run " + runId + ": " + e.getMessage());
+        }
+    }
+
+    // Lower case letters, digits and dashes, so any test name makes a safe directory name
+    static String slug(String name) {
+        String slug = (name != null ? name : "unnamed").toLowerCase().replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("^-+|-+$", "");
+        if (slug.length() > 60) {
+            slug = slug.substring(0, 60);
+        }
+        return slug.isEmpty() ? "test" : slug;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
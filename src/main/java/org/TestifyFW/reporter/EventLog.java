@@ -0,0 +1,60 @@
+package org.TestifyFW.reporter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Result events of a run as JSON Lines, one event per line, in the order they
+ * happened. The file is only ever appended to. Events are buffered and
+ * flushed when a test ends or a Jira issue is filed, so a reader tailing the
+ * file sees whole tests without a disk write for every step.
+ *
+ * Shared by all tests of a run; safe to use from several threads.
+ */
+public final class EventLog implements ResultEventListener, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Writer writer;
+    private boolean closed;
+
+    public EventLog(Path file) throws IOException {
+        this.file = file;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void onEvent(ResultEvent event) throws IOException {
+        if (closed) {
+            throw new IOException("Event log " + file + " is already closed");
+        }
+        writer.write(event.toJson());
+        writer.write('\n');
+        if (event.getType() == ResultEvent.Type.TEST_END || event.getType() == ResultEvent.Type.JIRA_ISSUE) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.close();
+        }
+    }
+}
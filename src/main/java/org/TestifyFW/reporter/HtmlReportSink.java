@@ -0,0 +1,315 @@
+package org.TestifyFW.reporter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Renders a test's HTML report from its result events while the test runs.
+ * Every step is appended and flushed as soon as its event arrives, so if the
+ * run dies the report still shows everything up to the last step. Only
+ * counters and the first failure are kept in memory, however many steps the
+ * test has.
+ *
+ * The test.end event (or finish()) writes the final file: the summary header,
+ * then the steps copied from the in-progress file, and replaces the
+ * in-progress file with it. Jira issues are created in the background after
+ * the test ended, so a jira.issue event adds its link to the finished
+ * summary.
+ */
+public final class HtmlReportSink implements ResultEventListener, Closeable {
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final Path file;
+    // Directory the screenshot paths of the events are relative to
+    private final Path artifactsDirectory;
+    private final String testName;
+    private final long startMillis;
+    private final Writer writer;
+    // Where the steps start in the in-progress file, in bytes
+    private final long stepsOffset;
+    private final Map<TestReporter.Status, Integer> counts = new EnumMap<>(TestReporter.Status.class);
+    private int stepCount;
+    private String firstFailure;
+    private boolean closed;
+    private boolean finished;
+    // Where the summary of the finished file ends, in bytes; a late Jira link goes there
+    private long summaryEnd;
+    private boolean jiraLinked;
+    // An issue reported before the test ended, linked by finish()
+    private String pendingJiraKey;
+    private String pendingJiraUrl;
+
+    public HtmlReportSink(Path file, String testName, long startMillis) throws IOException {
+        this(file, file.toAbsolutePath().getParent(), testName, startMillis);
+    }
+
+    /**
+     * @param artifactsDirectory directory the screenshot paths in the events are relative to
+     */
+    public HtmlReportSink(Path file, Path artifactsDirectory, String testName, long startMillis) throws IOException {
+        this.file = file;
+        this.artifactsDirectory = artifactsDirectory.toAbsolutePath();
+        this.testName = testName;
+        this.startMillis = startMillis;
+
+        byte[] header = (head() + "  <div class='summary'>\n"
+                + "    <p><strong>Date:</strong> " + DATE_FORMAT.format(Instant.ofEpochMilli(startMillis)) + "</p>\n"
+                + "    <p><strong>Result:</strong> <span class='running'>INCOMPLETE</span>"
+                + " (the test is still running, or stopped before its report was finished)</p>\n"
+                + "  </div>\n"
+                + "  <h2>Test Procedure</h2>\n").getBytes(StandardCharsets.UTF_8);
+        OutputStream out = Files.newOutputStream(file);
+        out.write(header);
+        this.stepsOffset = header.length;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized int getStepCount() {
+        return stepCount;
+    }
+
+    public synchronized int getCount(TestReporter.Status status) {
+        return counts.getOrDefault(status, 0);
+    }
+
+    public synchronized boolean hasFailures() {
+        return getCount(TestReporter.Status.FAILED) > 0;
+    }
+
+    /**
+     * Renders step and info events as report entries and finishes the report on
+     * test.end; a test that ended without a result only has its file closed.
+     * A jira.issue event links the issue in the summary.
+     */
+    @Override
+    public synchronized void onEvent(ResultEvent event) throws IOException {
+        switch (event.getType()) {
+            case STEP_START:
+                append(event, "INFO", TestReporter.Status.INFO, "Starting execution");
+                break;
+            case INFO:
+                append(event, "INFO", TestReporter.Status.INFO, event.getDetails());
+                break;
+            case STEP_END:
+                append(event, event.getAction(), TestReporter.Status.valueOf(event.getStatus()), event.getDetails());
+                break;
+            case TEST_END:
+                if (TestReporter.Status.PASSED.name().equals(event.getStatus())
+                        || TestReporter.Status.FAILED.name().equals(event.getStatus())) {
+                    finish(event.getJiraKey(), event.getJiraUrl());
+                } else {
+                    close();
+                }
+                break;
+            case JIRA_ISSUE:
+                linkJiraIssue(event.getJiraKey(), event.getJiraUrl());
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Appends the entry and flushes it to the file
+    private void append(ResultEvent event, String action, TestReporter.Status stepStatus, String details)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Report " + file + " is already closed");
+        }
+        stepCount++;
+        counts.merge(stepStatus, 1, Integer::sum);
+        if (stepStatus == TestReporter.Status.FAILED && firstFailure == null) {
+            firstFailure = event.getStepName() + " (" + action + ")";
+        }
+
+        String status = stepStatus.toString();
+        String id = "details-" + stepCount;
+        writer.write("  <div class='step step-" + status.toLowerCase() + "'>\n");
+        writer.write("    <p><strong>" + stepCount + ":</strong> " + escape(event.getStepName()) + "</p>\n");
+        writer.write("    <p><strong>Action:</strong> " + escape(action) + "</p>\n");
+        writer.write("    <p><strong>Status:</strong> <span class='" + status.toLowerCase() + "'>" + status + "</span></p>\n");
+        writer.write("    <p><strong>Time:</strong> " + TIME_FORMAT.format(Instant.ofEpochMilli(event.getTimestamp())) + "</p>\n");
+        if (event.getDurationNanos() != null) {
+            writer.write("    <p><strong>Duration:</strong> " + (event.getDurationNanos() / 1_000_000) + " ms</p>\n");
+        }
+
+        // Toggle for details
+        writer.write("    <p class='details-toggle' onclick=\"toggleDetails('" + id + "')\">Show/Hide Details</p>\n");
+        writer.write("    <div id='" + id + "' class='step-details'>\n");
+        writer.write("      <p><strong>Details:</strong> " + escape(details) + "</p>\n");
+        if (event.getLocator() != null) {
+            writer.write("      <p><strong>Locator:</strong> " + escape(event.getLocator()) + "</p>\n");
+        }
+        if (event.getScreenshot() != null) {
+            String src = file.toAbsolutePath().getParent().relativize(artifactsDirectory.resolve(event.getScreenshot()))
+                    .toString().replace('\\', '/');
+            writer.write("      <p><strong>Screenshot:</strong></p>\n");
+            writer.write("      <img src='" + escape(src) + "' class='screenshot' alt='Screenshot'>\n");
+        }
+        writer.write("    </div>\n");
+        writer.write("  </div>\n");
+        writer.flush();
+    }
+
+    /**
+     * Completes the report with its summary. The Jira issue is linked if known.
+     */
+    public synchronized void finish(String jiraIssueKey, String jiraUrl) throws IOException {
+        close();
+        if (jiraIssueKey == null) {
+            jiraIssueKey = pendingJiraKey;
+            jiraUrl = pendingJiraUrl;
+        }
+        boolean passed = !hasFailures();
+        StringBuilder header = new StringBuilder(head());
+        header.append("  <div class='summary'>\n");
+        header.append("    <p><strong>Date:</strong> ").append(DATE_FORMAT.format(Instant.ofEpochMilli(startMillis))).append("</p>\n");
+        header.append("    <p><strong>Duration:</strong> ").append(formatDuration(System.currentTimeMillis() - startMillis)).append("</p>\n");
+        header.append("    <p><strong>Result:</strong> <span class='").append(passed ? "passed" : "failed").append("'>")
+                .append(passed ? "PASSED" : "FAILED").append("</span></p>\n");
+        header.append("    <p><strong>Steps:</strong> ").append(stepCount).append(" (")
+                .append(getCount(TestReporter.Status.PASSED)).append(" passed, ")
+                .append(getCount(TestReporter.Status.FAILED)).append(" failed, ")
+                .append(getCount(TestReporter.Status.SKIPPED)).append(" skipped, ")
+                .append(getCount(TestReporter.Status.INFO)).append(" info)</p>\n");
+        if (firstFailure != null) {
+            header.append("    <p><strong>First failure:</strong> ").append(escape(firstFailure)).append("</p>\n");
+        }
+        if (jiraIssueKey != null && jiraUrl != null) {
+            header.append(jiraLink(jiraIssueKey, jiraUrl));
+            jiraLinked = true;
+        }
+        summaryEnd = header.toString().getBytes(StandardCharsets.UTF_8).length;
+        header.append("  </div>\n");
+        header.append("  <h2>Test Procedure</h2>\n");
+
+        // Stream the steps across, so even a huge report is never read into memory
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp);
+             FileChannel steps = FileChannel.open(file, StandardOpenOption.READ)) {
+            out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            steps.position(stepsOffset);
+            InputStream in = Channels.newInputStream(steps);
+            in.transferTo(out);
+            out.write("</body>\n</html>\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    // Links the issue in the summary, rewriting the report if it is already finished
+    private void linkJiraIssue(String jiraIssueKey, String jiraUrl) throws IOException {
+        if (jiraIssueKey == null || jiraUrl == null || jiraLinked) {
+            return;
+        }
+        if (!finished) {
+            pendingJiraKey = jiraIssueKey;
+            pendingJiraUrl = jiraUrl;
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp);
+             InputStream in = Files.newInputStream(file)) {
+            byte[] summary = new byte[(int) summaryEnd];
+            int read = in.readNBytes(summary, 0, summary.length);
+            out.write(summary, 0, read);
+            out.write(jiraLink(jiraIssueKey, jiraUrl).getBytes(StandardCharsets.UTF_8));
+            in.transferTo(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        summaryEnd += jiraLink(jiraIssueKey, jiraUrl).getBytes(StandardCharsets.UTF_8).length;
+        jiraLinked = true;
+    }
+
+    private static String jiraLink(String jiraIssueKey, String jiraUrl) {
+        return "    <p><strong>Jira Issue:</strong> <a href='" + escape(jiraUrl) + "/browse/" + escape(jiraIssueKey)
+                + "' target='_blank'>" + escape(jiraIssueKey) + "</a></p>\n";
+    }
+
+    /**
+     * Closes the in-progress file without a summary, e.g. when the test is abandoned
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.close();
+        }
+    }
+
+    private String head() {
+        String title = escape(testName);
+        return "<!DOCTYPE html>\n"
+                + "<html lang='en'>\n"
+                + "<head>\n"
+                + "  <meta charset='UTF-8'>\n"
+                + "  <meta name='viewport' content='width=device-width, initial-scale=1.0'>\n"
+                + "  <title>Test Report: " + title + "</title>\n"
+                + "  <style>\n"
+                + "    body { font-family: Arial, sans-serif; margin: 20px; }\n"
+                + "    h1 { color: #2c3e50; }\n"
+                + "    .summary { background-color: #f8f9fa; padding: 15px; border-radius: 5px; margin-bottom: 20px; }\n"
+                + "    .passed { color: green; }\n"
+                + "    .failed { color: red; }\n"
+                + "    .info { color: blue; }\n"
+                + "    .skipped { color: orange; }\n"
+                + "    .running { color: gray; }\n"
+                + "    .step { margin-bottom: 10px; border: 1px solid #ddd; padding: 10px; border-radius: 5px; }\n"
+                + "    .step-passed { border-left: 5px solid green; }\n"
+                + "    .step-failed { border-left: 5px solid red; }\n"
+                + "    .step-info { border-left: 5px solid blue; }\n"
+                + "    .step-skipped { border-left: 5px solid orange; }\n"
+                + "    .screenshot { max-width: 800px; border: 1px solid #ddd; margin-top: 10px; }\n"
+                + "    .details-toggle { cursor: pointer; color: #007bff; }\n"
+                + "    .step-details { display: none; margin-top: 10px; }\n"
+                + "  </style>\n"
+                + "  <script>\n"
+                + "    function toggleDetails(id) {\n"
+                + "      var element = document.getElementById(id);\n"
+                + "      element.style.display = element.style.display === 'block' ? 'none' : 'block';\n"
+                + "    }\n"
+                + "  </script>\n"
+                + "</head>\n"
+                + "<body>\n"
+                + "  <h1>Test Report: " + title + "</h1>\n";
+    }
+
+    static String formatDuration(long millis) {
+        long seconds = millis / 1000;
+        long minutes = seconds / 60;
+        seconds = seconds % 60;
+
+        return String.format("%d min, %d sec", minutes, seconds);
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("'", "&#39;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,120 @@
+package org.TestifyFW.reporter;
+
+/**
+ * One entry of a run's result stream: a test or step starting or ending, an
+ * informational message, or a Jira issue filed for a test. Written as one
+ * JSON line by EventLog; HtmlReportSink renders a test's report from the
+ * same events.
+ *
+ * Fields that don't apply to the event type are null and left out of the JSON.
+ */
+public final class ResultEvent {
+
+    public enum Type {
+        TEST_START("test.start"),
+        STEP_START("step.start"),
+        STEP_END("step.end"),
+        INFO("info"),
+        TEST_END("test.end"),
+        JIRA_ISSUE("jira.issue");
+
+        private final String name;
+
+        Type(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final Type type;
+    private final long timestamp;
+    private String runId;
+    private String testId;
+    private String testName;
+    private String stepId;
+    private String stepName;
+    private String action;
+    private String locator;
+    private String status;
+    private Long durationNanos;
+    private String details;
+    private String screenshot;
+    private String jiraKey;
+    private String jiraUrl;
+    private String reportPath;
+
+    public ResultEvent(Type type) {
+        this(type, System.currentTimeMillis());
+    }
+
+    public ResultEvent(Type type, long timestamp) {
+        this.type = type;
+        this.timestamp = timestamp;
+    }
+
+    public Type getType() { return type; }
+    public long getTimestamp() { return timestamp; }
+    public String getRunId() { return runId; }
+    public String getTestId() { return testId; }
+    public String getTestName() { return testName; }
+    public String getStepId() { return stepId; }
+    public String getStepName() { return stepName; }
+    public String getAction() { return action; }
+    public String getLocator() { return locator; }
+    public String getStatus() { return status; }
+    public Long getDurationNanos() { return durationNanos; }
+    public String getDetails() { return details; }
+    public String getScreenshot() { return screenshot; }
+    public String getJiraKey() { return jiraKey; }
+    public String getJiraUrl() { return jiraUrl; }
+    public String getReportPath() { return reportPath; }
+
+    public void setRunId(String runId) { this.runId = runId; }
+    public void setTestId(String testId) { this.testId = testId; }
+    public void setTestName(String testName) { this.testName = testName; }
+    public void setStepId(String stepId) { this.stepId = stepId; }
+    public void setStepName(String stepName) { this.stepName = stepName; }
+    public void setAction(String action) { this.action = action; }
+    public void setLocator(String locator) { this.locator = locator; }
+    public void setStatus(String status) { this.status = status; }
+    public void setDurationNanos(Long durationNanos) { this.durationNanos = durationNanos; }
+    public void setDetails(String details) { this.details = details; }
+    public void setScreenshot(String screenshot) { this.screenshot = screenshot; }
+    public void setJiraKey(String jiraKey) { this.jiraKey = jiraKey; }
+    public void setJiraUrl(String jiraUrl) { this.jiraUrl = jiraUrl; }
+    public void setReportPath(String reportPath) { this.reportPath = reportPath; }
+
+    /**
+     * The event as a single line of JSON, without the line break
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"type\": ").append(Json.quote(type.getName()))
+                .append(", \"time\": ").append(timestamp);
+        field(json, "runId", runId);
+        field(json, "testId", testId);
+        field(json, "test", testName);
+        field(json, "stepId", stepId);
+        field(json, "step", stepName);
+        field(json, "action", action);
+        field(json, "locator", locator);
+        field(json, "status", status);
+        if (durationNanos != null) {
+            json.append(", \"durationNanos\": ").append(durationNanos);
+        }
+        field(json, "details", details);
+        field(json, "screenshot", screenshot);
+        field(json, "jiraKey", jiraKey);
+        field(json, "jiraUrl", jiraUrl);
+        field(json, "report", reportPath);
+        return json.append('}').toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value != null) {
+            json.append(", \"").append(name).append("\": ").append(Json.quote(value));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.TestifyFW.reporter;
+
+import java.io.IOException;
+
+/**
+ * Consumer of a run's result events, e.g. the JSON Lines log or a test's HTML report
+ */
+public interface ResultEventListener {
+
+    void onEvent(ResultEvent event) throws IOException;
+}
@@ -0,0 +1,527 @@
+package org.TestifyFW.reporter;
+
+import org.TestifyFW.reporter.TestReporter.Status;
+import org.TestifyFW.reporter.TestReporter.StepResult;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.testng.Reporter;
+import org.testng.asserts.SoftAssert;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Reporting state of one test run: soft asserts, step logs, the browser it
+ * runs in, its report directory and Jira issue. ActionHandler creates one per
+ * test case and hands it to the actions through ActionContext, so the state
+ * can move between threads with the test instead of living in ThreadLocals.
+ *
+ * Everything logged becomes a ResultEvent in the store's event log, and the
+ * test's HTML report is rendered from the same events in its own directory of
+ * the ArtifactStore. close() adds the test case to the store's manifest once
+ * it has logged anything; a context that never did leaves no trace.
+ *
+ * A context is used by one test at a time and is not thread safe. close()
+ * releases everything but the test name, report path and finished report
+ * (to link a Jira issue filed later), so the memory of a finished test is
+ * reclaimed even if the context itself is still referenced.
+ */
+public final class RunContext implements AutoCloseable {
+    // Entries kept in the step logs; older ones are only in the HTML report
+    private static final int RETAINED_STEPS = Integer.getInteger("testify.report.retainedSteps", 1000);
+
+    private final ArtifactStore store;
+    private final String testId;
+    private final String reportDirectory;
+    private final Date startTime = new Date();
+    private final long startNanos = System.nanoTime();
+    private String testName;
+    private WebDriver driver;
+    private SoftAssert softAssert = new SoftAssert();
+    private List<String> stepLog = new LinkedList<>();
+    private List<StepResult> detailedStepLog = new LinkedList<>();
+    private List<Future<?>> pendingScreenshots = new ArrayList<>();
+    private HtmlReportSink reportSink;
+    // Kept after the test ended, so a Jira issue created later is linked in the report
+    private volatile HtmlReportSink finishedReport;
+    private int stepNumber;
+    // Step started by startStep (or being logged) that has not ended yet
+    private String openStepId;
+    private String openStepLocator;
+    private Long openStepStart;
+    private boolean started;
+    private boolean ended;
+    private List<String> screenshots = new ArrayList<>();
+    private String status;
+    private String reportPath;
+    private String jiraIssueKey;
+    private String jiraUrl;
+    private boolean closed;
+
+    private RunContext(ArtifactStore store, String testId) {
+        this.store = store;
+        this.testId = testId;
+        this.reportDirectory = store != null ? store.getTestDirectory(testId).toString() : null;
+    }
+
+    /**
+     * Starts a test run in the shared store of tests that run outside a suite
+     */
+    public static RunContext start(String testName) {
+        ArtifactStore store;
+        try {
+            store = ArtifactStore.getDefault();
+        } catch (IllegalStateException e) {
+            System.err.println("Failed to create report directory: " + e.getMessage());
+            return stepLogOnly();
+        }
+        return start(testName, store);
+    }
+
+    /**
+     * Starts a test run with its own directory in the store
+     */
+    public static RunContext start(String testName, ArtifactStore store) {
+        RunContext context;
+        try {
+            context = new RunContext(store, store.createTest(testName));
+        } catch (IOException e) {
+            System.err.println("Failed to create report directory: " + e.getMessage());
+            context = stepLogOnly();
+        }
+        context.setTestName(testName);
+        return context;
+    }
+
+    /**
+     * A context that only collects step logs, for output that is attributed to test cases later
+     */
+    public static RunContext stepLogOnly() {
+        return new RunContext(null, null);
+    }
+
+    /**
+     * Unique id of the test within its run, or null if the context has no report
+     */
+    public String getTestId() {
+        return testId;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public void setTestName(String testName) {
+        this.testName = testName;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public void setDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public String getReportDirectory() {
+        return reportDirectory;
+    }
+
+    /**
+     * Path of the finished HTML report, or null if none was generated; still available after close
+     */
+    public String getReportPath() {
+        return reportPath;
+    }
+
+    public void setJiraIssue(String key, String url) {
+        this.jiraIssueKey = key;
+        this.jiraUrl = url;
+    }
+
+    public String getJiraIssueKey() {
+        return jiraIssueKey;
+    }
+
+    public String getJiraUrl() {
+        return jiraUrl;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public SoftAssert getSoftAssert() {
+        checkOpen();
+        return softAssert;
+    }
+
+    /**
+     * The most recent step log entries (see testify.report.retainedSteps)
+     */
+    public List<String> getStepLog() {
+        return closed ? Collections.<String>emptyList() : stepLog;
+    }
+
+    /**
+     * The most recent steps (see testify.report.retainedSteps); the HTML report has all of them
+     */
+    public List<StepResult> getDetailedStepLog() {
+        return closed ? Collections.<StepResult>emptyList() : detailedStepLog;
+    }
+
+    /**
+     * Adds entries logged by another context, e.g. of a test case run inside this one
+     */
+    public void addStepLog(List<String> entries) {
+        checkOpen();
+        for (String entry : entries) {
+            retain(stepLog, entry);
+        }
+    }
+
+    /**
+     * Marks the start of a step; the next logStep ends it and gets its duration
+     */
+    public void startStep(String stepName, String action, String locator) {
+        checkOpen();
+        String logMessage = String.format("INFO: %s | %s", stepName, "Starting execution");
+        Reporter.log(logMessage, true);
+        retain(stepLog, logMessage);
+
+        openStepId = nextStepId();
+        openStepLocator = locator;
+        openStepStart = System.nanoTime();
+        ResultEvent event = new ResultEvent(ResultEvent.Type.STEP_START);
+        event.setStepId(openStepId);
+        event.setStepName(stepName);
+        event.setAction(action);
+        event.setLocator(locator);
+        record(new StepResult(stepName, "INFO", Status.INFO, "Starting execution"), event);
+    }
+
+    public void logStep(String stepName, String action, boolean status) {
+        Long durationNanos = openStepStart != null ? System.nanoTime() - openStepStart : null;
+        logStep(stepName, action, status, null, durationNanos);
+    }
+
+    public void logStep(String stepName, String action, boolean status, byte[] failureScreenshot) {
+        logStep(stepName, action, status, failureScreenshot, null);
+    }
+
+    /**
+     * Logs a step whose failure screenshot and duration were captured earlier,
+     * e.g. a shared step whose result is attributed to several test cases
+     */
+    public void logStep(String stepName, String action, boolean status, byte[] failureScreenshot,
+                        Long durationNanos) {
+        checkOpen();
+        if (openStepId == null) {
+            openStepId = nextStepId();
+        }
+        Status stepStatus = status ? Status.PASSED : Status.FAILED;
+        String stepResult = status ? "PASSED" : "FAILED";
+        String logMessage = String.format("Step: %s | Action: %s | Status: %s",
+                stepName, action, stepResult);
+
+        // Log to TestNG reporter
+        Reporter.log(logMessage, true);
+
+        // Add to our step log
+        retain(stepLog, logMessage);
+
+        // Add to detailed step log
+        StepResult result = new StepResult(stepName, action, stepStatus,
+                status ? "Step executed successfully" : "Step execution failed");
+
+        ResultEvent event = endStep(stepName, action, stepStatus, durationNanos);
+        event.setDetails(result.getDetails());
+
+        // Take screenshot if step failed and driver is available
+        if (!status && (failureScreenshot != null || driver != null)) {
+            String screenshotPath = failureScreenshot != null
+                    ? saveScreenshot(stepName, failureScreenshot)
+                    : takeScreenshot(stepName);
+            if (screenshotPath != null) {
+                result.setScreenshotPath(screenshotPath);
+                event.setScreenshot(screenshotPath);
+            }
+        }
+
+        record(result, event);
+        openStepId = null;
+
+        // If step failed, collect for soft assert
+        if (!status) {
+            softAssert.fail(logMessage);
+        }
+    }
+
+    public void logInfo(String stepName, String message) {
+        checkOpen();
+        String logMessage = String.format("INFO: %s | %s", stepName, message);
+        Reporter.log(logMessage, true);
+        retain(stepLog, logMessage);
+
+        StepResult result = new StepResult(stepName, "INFO", Status.INFO, message);
+        ResultEvent event = new ResultEvent(ResultEvent.Type.INFO);
+        event.setStepId(openStepId);
+        event.setStepName(stepName);
+        event.setDetails(message);
+        record(result, event);
+    }
+
+    /**
+     * Logs a step that was not run because a step it depends on did not pass
+     */
+    public void logSkipped(String stepName, String action, String reason) {
+        checkOpen();
+        String logMessage = String.format("Step: %s | Action: %s | Status: SKIPPED (%s)", stepName, action, reason);
+        Reporter.log(logMessage, true);
+        retain(stepLog, logMessage);
+
+        StepResult result = new StepResult(stepName, action, Status.SKIPPED, reason);
+        if (openStepId == null) {
+            openStepId = nextStepId();
+        }
+        ResultEvent event = endStep(stepName, action, Status.SKIPPED, null);
+        event.setDetails(reason);
+        record(result, event);
+        openStepId = null;
+    }
+
+    private String nextStepId() {
+        return testId + "/s" + (++stepNumber);
+    }
+
+    // The step.end event of the open step; the caller closes the step once the event is recorded
+    private ResultEvent endStep(String stepName, String action, Status stepStatus, Long durationNanos) {
+        ResultEvent event = new ResultEvent(ResultEvent.Type.STEP_END);
+        event.setStepId(openStepId);
+        event.setStepName(stepName);
+        event.setAction(action);
+        event.setLocator(openStepLocator);
+        event.setStatus(stepStatus.name());
+        event.setDurationNanos(durationNanos);
+        openStepLocator = null;
+        openStepStart = null;
+        return event;
+    }
+
+    // Keeps the step in the bounded log and publishes its event
+    private void record(StepResult result, ResultEvent event) {
+        retain(detailedStepLog, result);
+        emit(event);
+    }
+
+    // Sends the event to the run's event log and the test's report, starting the test with its first event
+    private void emit(ResultEvent event) {
+        if (store == null) {
+            return;
+        }
+        if (!started) {
+            started = true;
+            ResultEvent start = new ResultEvent(ResultEvent.Type.TEST_START, startTime.getTime());
+            writeEvent(start);
+            render(start);
+        }
+        writeEvent(event);
+        render(event);
+    }
+
+    private void writeEvent(ResultEvent event) {
+        event.setRunId(store.getRunId());
+        event.setTestId(testId);
+        event.setTestName(testName);
+        store.publish(event);
+    }
+
+    private void render(ResultEvent event) {
+        HtmlReportSink sink = getReportSink();
+        if (sink != null) {
+            try {
+                sink.onEvent(event);
+            } catch (IOException e) {
+                System.err.println("Failed to write report: " + e.getMessage());
+            }
+        }
+    }
+
+    private static <T> void retain(List<T> log, T entry) {
+        log.add(entry);
+        if (log.size() > RETAINED_STEPS) {
+            log.remove(0);
+        }
+    }
+
+    // Opens the report on the first step, once the test name is known
+    private HtmlReportSink getReportSink() {
+        if (reportSink == null && reportDirectory != null && !ended && !closed) {
+            String name = testName != null ? testName : "UnnamedTest";
+            try {
+                reportSink = new HtmlReportSink(Paths.get(reportDirectory, "report.html"), store.getDirectory(),
+                        name, startTime.getTime());
+            } catch (IOException e) {
+                System.err.println("Failed to create report: " + e.getMessage());
+            }
+        }
+        return reportSink;
+    }
+
+    public String takeScreenshot(String stepName) {
+        if (driver == null) return null;
+
+        if (driver instanceof TakesScreenshot) {
+            try {
+                // Only the capture happens on the browser thread, the write is queued
+                byte[] screenshotBytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                return saveScreenshot(stepName, screenshotBytes);
+            } catch (Exception e) {
+                System.err.println("Failed to take screenshot: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queues captured PNG bytes to be stored with the run's screenshots and
+     * returns the path relative to the run directory, or null without a report
+     */
+    public String saveScreenshot(String stepName, byte[] screenshotBytes) {
+        checkOpen();
+        if (store == null) {
+            return null;
+        }
+        String file = store.saveScreenshot(screenshotBytes, pendingScreenshots);
+        // The screenshot belongs to the open step, or to the step that is logged next
+        String stepId = openStepId != null ? openStepId : testId + "/s" + (stepNumber + 1);
+        screenshots.add("{\"stepId\": " + Json.quote(stepId)
+                + ", \"step\": " + Json.quote(stepName) + ", \"file\": " + Json.quote(file) + "}");
+        return file;
+    }
+
+    public void assertAll() {
+        getSoftAssert().assertAll();
+    }
+
+    public void fail(String message) {
+        getSoftAssert().fail(message);
+        Reporter.log("FAILED: " + message, true);
+    }
+
+    /**
+     * Ends the test with its test.end event, which finishes the report: the
+     * steps were written as they were logged, this adds the summary and closes
+     * the document
+     */
+    public void generateReport() {
+        checkOpen();
+        if (reportDirectory == null) {
+            System.err.println("Report directory not initialized");
+            return;
+        }
+
+        // Make sure every screenshot the report links to is on disk
+        ScreenshotWriter.awaitAll(pendingScreenshots);
+        pendingScreenshots.clear();
+
+        HtmlReportSink sink = getReportSink();
+        if (sink == null) {
+            return;
+        }
+        status = sink.hasFailures() ? "FAILED" : "PASSED";
+        // Set the report path for viewing
+        reportPath = sink.getFile().toString();
+
+        ResultEvent event = new ResultEvent(ResultEvent.Type.TEST_END);
+        event.setStatus(status);
+        event.setDurationNanos(System.nanoTime() - startNanos);
+        event.setJiraKey(jiraIssueKey);
+        event.setJiraUrl(jiraUrl);
+        event.setReportPath(relativeReportPath());
+        emit(event);
+        finishedReport = sink;
+        reportSink = null;
+        ended = true;
+        System.out.println("Test report generated: " + sink.getFile());
+    }
+
+    /**
+     * Records the Jira issue filed for the test in the event log and links it
+     * in the finished report. Called from Jira's reporting thread, usually
+     * after the test was closed.
+     */
+    public void recordJiraIssue(String key, String url) {
+        if (store == null) {
+            return;
+        }
+        ResultEvent event = new ResultEvent(ResultEvent.Type.JIRA_ISSUE);
+        event.setJiraKey(key);
+        event.setJiraUrl(url);
+        writeEvent(event);
+        HtmlReportSink report = finishedReport;
+        if (report != null) {
+            try {
+                report.onEvent(event);
+            } catch (IOException e) {
+                System.err.println("Failed to link Jira issue in report: " + e.getMessage());
+            }
+        }
+    }
+
+    private String relativeReportPath() {
+        return reportPath != null ? store.getDirectory().relativize(Paths.get(reportPath)).toString() : null;
+    }
+
+    /**
+     * Records the test case in the store's manifest, if it started, and
+     * releases its state. A report that was not generated is left as it is,
+     * marked incomplete. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (reportSink != null) {
+            try {
+                reportSink.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close report: " + e.getMessage());
+            }
+        }
+        reportSink = null;
+        if (store != null && started) {
+            if (!ended) {
+                ResultEvent event = new ResultEvent(ResultEvent.Type.TEST_END);
+                event.setStatus("INCOMPLETE");
+                event.setDurationNanos(System.nanoTime() - startNanos);
+                writeEvent(event);
+            }
+            store.recordTest(testId, testName, status != null ? status : "INCOMPLETE", relativeReportPath(),
+                    screenshots);
+        } else if (store != null) {
+            store.removeTest(testId);
+        }
+        driver = null;
+        softAssert = null;
+        stepLog = null;
+        detailedStepLog = null;
+        pendingScreenshots = null;
+        screenshots = null;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Run context of '" + testName + "' is already closed");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.TestifyFW.reporter;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background writer for screenshots.
+ * The browser thread only grabs the PNG bytes; optional downscaling, JPEG
+ * re-encoding and the disk write happen here. The queue is bounded: when it is
+ * full the submitting thread writes the file itself, which keeps memory in check.
+ *
+ * Configuration (system properties):
+ *   testify.screenshot.maxWidth  - downscale wider screenshots to this width (default 0 = keep size)
+ *   testify.screenshot.format    - png (default) or jpg
+ *   testify.screenshot.quality   - JPEG quality between 0 and 1 (default 0.8)
+ */
+public final class ScreenshotWriter {
+    private static final int MAX_WIDTH = Integer.getInteger("testify.screenshot.maxWidth", 0);
+    private static final String FORMAT = "jpg".equalsIgnoreCase(System.getProperty("testify.screenshot.format")) ? "jpg" : "png";
+    private static final float QUALITY = Float.parseFloat(System.getProperty("testify.screenshot.quality", "0.8"));
+    private static final long AWAIT_TIMEOUT_SECONDS = 30;
+
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    private ScreenshotWriter() {
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "testify-screenshot-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * File extension (without dot) screenshots are written with
+     */
+    public static String getExtension() {
+        return FORMAT;
+    }
+
+    /**
+     * Queues raw PNG bytes to be processed and written to the target file
+     */
+    public static CompletableFuture<Void> submit(byte[] pngBytes, Path target) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                write(pngBytes, target);
+            } catch (IOException e) {
+                System.err.println("Failed to write screenshot " + target + ": " + e.getMessage());
+            }
+        }, executor);
+    }
+
+    /**
+     * Blocks until the given writes have finished, or a timeout passes
+     */
+    public static void awaitAll(List<Future<?>> pendingWrites) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(AWAIT_TIMEOUT_SECONDS);
+        for (Future<?> pending : pendingWrites) {
+            try {
+                pending.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                System.err.println("Timed out waiting for screenshots to be written");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("Failed to write screenshot: " + e.getCause());
+            }
+        }
+    }
+
+    private static void write(byte[] pngBytes, Path target) throws IOException {
+        if (MAX_WIDTH <= 0 && "png".equals(FORMAT)) {
+            // Nothing to transform, write the bytes as captured
+            Files.write(target, pngBytes);
+            return;
+        }
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(pngBytes));
+        if (image == null) {
+            Files.write(target, pngBytes);
+            return;
+        }
+        if (MAX_WIDTH > 0 && image.getWidth() > MAX_WIDTH) {
+            image = scale(image, MAX_WIDTH);
+        }
+
+        if ("jpg".equals(FORMAT)) {
+            writeJpeg(image, target);
+        } else {
+            ImageIO.write(image, "png", target.toFile());
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        // JPEG has no alpha channel
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) {
+            ImageIO.write(rgb, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(QUALITY);
+        try (OutputStream out = Files.newOutputStream(target);
+             ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.TestifyFW.reporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds a suite summary from the test.start, test.end and jira.issue events
+ * of its tests, the same events that go to the run's event log. Only the
+ * outcome of each test is kept; write() renders the HTML summary.
+ */
+public final class SummaryReportSink implements ResultEventListener {
+    private final Map<String, TestSummary> tests = new LinkedHashMap<>();
+
+    private static final class TestSummary {
+        private final String testName;
+        private String status;
+        private Long durationNanos;
+        private String jiraKey;
+        private String jiraUrl;
+
+        TestSummary(String testName) {
+            this.testName = testName;
+        }
+    }
+
+    @Override
+    public synchronized void onEvent(ResultEvent event) {
+        if (event.getTestId() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case TEST_START:
+                tests.putIfAbsent(event.getTestId(), new TestSummary(event.getTestName()));
+                break;
+            case TEST_END:
+                TestSummary ended = tests.computeIfAbsent(event.getTestId(), id -> new TestSummary(event.getTestName()));
+                ended.status = event.getStatus();
+                ended.durationNanos = event.getDurationNanos();
+                break;
+            case JIRA_ISSUE:
+                TestSummary reported = tests.get(event.getTestId());
+                if (reported != null) {
+                    reported.jiraKey = event.getJiraKey();
+                    reported.jiraUrl = event.getJiraUrl();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    public synchronized int getCount(String status) {
+        int count = 0;
+        for (TestSummary test : tests.values()) {
+            if (status.equals(test.status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the summary of every test seen so far; tests that have not ended are listed as INCOMPLETE
+     */
+    public synchronized void write(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<html><head><title>Test Execution Summary</title>");
+            writer.write("<style>table {border-collapse: collapse; width: 100%;} ");
+            writer.write("th, td {text-align: left; padding: 8px; border: 1px solid #ddd;} ");
+            writer.write("th {background-color: #4CAF50; color: white;} ");
+            writer.write("tr:nth-child(even) {background-color: #f2f2f2;} ");
+            writer.write(".passed {color: green;} .failed {color: red;} .skipped {color: orange;} .incomplete {color: gray;}</style>");
+            writer.write("</head><body>");
+
+            writer.write("<h1>Test Execution Summary</h1>");
+            writer.write("<p>Execution Date: " + new Date() + "</p>");
+
+            writer.write("<h2>Results Summary</h2>");
+            writer.write("<table>");
+            writer.write("<tr><th>Total Tests</th><th>Passed</th><th>Failed</th><th>Skipped</th></tr>");
+            writer.write("<tr>");
+            writer.write("<td>" + tests.size() + "</td>");
+            writer.write("<td class='passed'>" + getCount("PASSED") + "</td>");
+            writer.write("<td class='failed'>" + getCount("FAILED") + "</td>");
+            writer.write("<td class='skipped'>" + getCount("SKIPPED") + "</td>");
+            writer.write("</tr>");
+            writer.write("</table>");
+
+            writer.write("<h2>Test Details</h2>");
+            writer.write("<table>");
+            writer.write("<tr><th>Test Name</th><th>Status</th><th>Duration (ms)</th><th>Jira Issue</th></tr>");
+            for (TestSummary test : tests.values()) {
+                String status = test.status != null ? test.status : "INCOMPLETE";
+                writer.write("<tr>");
+                writer.write("<td>" + escape(test.testName) + "</td>");
+                writer.write("<td class='" + status.toLowerCase() + "'>" + escape(status) + "</td>");
+                writer.write("<td>" + (test.durationNanos != null && !"SKIPPED".equals(status)
+                        ? String.valueOf(test.durationNanos / 1_000_000) : "N/A") + "</td>");
+                writer.write("<td>" + (test.jiraKey != null && test.jiraUrl != null
+                        ? "<a href='" + escape(test.jiraUrl) + "/browse/" + escape(test.jiraKey) + "' target='_blank'>"
+                        + escape(test.jiraKey) + "</a>" : "") + "</td>");
+                writer.write("</tr>");
+            }
+            writer.write("</table>");
+            writer.write("</body></html>");
+        }
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("'", "&#39;").replace("\"", "&quot;");
+    }
+}
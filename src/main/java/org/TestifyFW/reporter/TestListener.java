@@ -4,19 +4,33 @@ import java.util.List;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import org.TestifyFW.jira.JiraIssueReporter;
+import org.TestifyFW.jira.FailureFingerprint;
+import org.TestifyFW.jira.FailureReport;
+import org.TestifyFW.jira.JiraReportingService;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports TestNG tests: each test method becomes a test in the shared
+ * ArtifactStore with its own test.start and test.end events, and the summary
+ * of each TestNG <test> is built from those events by a SummaryReportSink.
+ * The test cases a method runs through ActionHandler are reported on their own.
+ */
 public class TestListener implements ITestListener {
-    private JiraIssueReporter jiraReporter;
+    // Result attribute holding the test id of a TestNG test in the artifact store
+    private static final String TEST_ID_ATTRIBUTE = "testify.testId";
+
+    private final JiraReportingService jiraService;
+    private final Map<ITestContext, SummaryReportSink> summaries = new ConcurrentHashMap<>();
 
     public TestListener() {
-        jiraReporter = new JiraIssueReporter();
+        jiraService = JiraReportingService.getInstance();
     }
 
     @Override
@@ -24,7 +38,9 @@ public class TestListener implements ITestListener {
         System.out.println("============================================");
         System.out.println("TEST STARTED: " + result.getName());
         System.out.println("============================================");
-        TestReporter.initializeReporter();
+        // Only collects the step logs of the test cases ActionHandler runs, which have their own reports
+        TestReporter.initializeStepLog();
+        emit(result, new ResultEvent(ResultEvent.Type.TEST_START, result.getStartMillis()));
     }
 
     @Override
@@ -38,6 +54,8 @@ public class TestListener implements ITestListener {
         for (String step : steps) {
             System.out.println(step);
         }
+        endTest(result, "PASSED", null);
+        TestReporter.cleanup();
     }
 
     @Override
@@ -53,13 +71,16 @@ public class TestListener implements ITestListener {
             System.out.println(step);
         }
 
+        endTest(result, "FAILED", result.getThrowable() != null ? result.getThrowable().getMessage() : null);
+
         // Create Jira issue for the failed test
-        if (jiraReporter.isEnabled()) {
+        if (jiraService.isEnabled()) {
             createJiraIssue(result);
         }
 
         // Take screenshot on failure
         // takeScreenshot(result.getName());
+        TestReporter.cleanup();
     }
 
     private void createJiraIssue(ITestResult result) {
@@ -94,12 +115,15 @@ public class TestListener implements ITestListener {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
             description.append("\n*Execution Date:* ").append(dateFormat.format(new Date()));
 
-            // Create the issue in Jira
-            String issueKey = jiraReporter.createIssue(summary, description.toString(), testName);
-
-            if (issueKey != null) {
-                System.out.println("Jira issue created: " + issueKey);
-            }
+            // Queue the issue; it is created in the background
+            String fingerprint = FailureFingerprint.compute(result.getTestClass().getName() + "." + testName,
+                    -1, null, result.getThrowable());
+            jiraService.submit(new FailureReport(testName, summary, description.toString(), fingerprint, issueKey -> {
+                ResultEvent event = new ResultEvent(ResultEvent.Type.JIRA_ISSUE);
+                event.setJiraKey(issueKey);
+                event.setJiraUrl(jiraService.getJiraUrl());
+                emit(result, event);
+            }));
         } catch (Exception e) {
             System.err.println("Failed to create Jira issue: " + e.getMessage());
             e.printStackTrace();
@@ -110,12 +134,57 @@ public class TestListener implements ITestListener {
     public void onTestSkipped(ITestResult result) {
         System.out.println("============================================");
         System.out.println("TEST SKIPPED: " + result.getName());
-        System.out.println("Reason: " + (result.getThrowable() != null ? result.getThrowable().getMessage() : "Dependency failed"));
+        String reason = result.getThrowable() != null ? result.getThrowable().getMessage() : "Dependency failed";
+        System.out.println("Reason: " + reason);
         System.out.println("============================================");
+        if (result.getAttribute(TEST_ID_ATTRIBUTE) == null) {
+            // Skipped before it started, e.g. because a test it depends on failed
+            emit(result, new ResultEvent(ResultEvent.Type.TEST_START));
+        }
+        endTest(result, "SKIPPED", reason);
+        TestReporter.cleanup();
+    }
+
+    private void endTest(ITestResult result, String status, String details) {
+        ResultEvent event = new ResultEvent(ResultEvent.Type.TEST_END);
+        event.setStatus(status);
+        event.setDetails(details);
+        long endMillis = result.getEndMillis() > 0 ? result.getEndMillis() : System.currentTimeMillis();
+        event.setDurationNanos(Math.max(0, endMillis - result.getStartMillis()) * 1_000_000);
+        if (emit(result, event)) {
+            ArtifactStore.getDefault().recordTest(event.getTestId(), result.getName(), status, null,
+                    Collections.<String>emptyList());
+        }
+    }
+
+    // Publishes the event to the shared store and adds it to the summary of the test's <test>
+    private boolean emit(ITestResult result, ResultEvent event) {
+        event.setTestName(result.getName());
+        try {
+            ArtifactStore store = ArtifactStore.getDefault();
+            String testId = (String) result.getAttribute(TEST_ID_ATTRIBUTE);
+            if (testId == null) {
+                testId = store.newTestId(result.getName());
+                result.setAttribute(TEST_ID_ATTRIBUTE, testId);
+            }
+            event.setRunId(store.getRunId());
+            event.setTestId(testId);
+            store.publish(event);
+        } catch (IllegalStateException e) {
+            System.err.println("Failed to record test event: " + e.getMessage());
+            return false;
+        }
+        summaries.computeIfAbsent(result.getTestContext(), context -> new SummaryReportSink()).onEvent(event);
+        return true;
     }
 
     @Override
     public void onFinish(ITestContext context) {
+        TestReporter.cleanup();
+
+        // Make sure queued Jira issues are sent before the suite ends
+        jiraService.flush(60000);
+
         // Generate summary report
         try {
             generateSummaryReport(context);
@@ -125,71 +194,14 @@ public class TestListener implements ITestListener {
     }
 
     private void generateSummaryReport(ITestContext context) throws IOException {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        File reportDir = new File("test-output/html-reports");
-        reportDir.mkdirs();
-
-        File reportFile = new File(reportDir, "test-summary-" + timestamp + ".html");
-        FileWriter writer = new FileWriter(reportFile);
-
-        writer.write("<html><head><title>Test Execution Summary</title>");
-        writer.write("<style>table {border-collapse: collapse; width: 100%;} ");
-        writer.write("th, td {text-align: left; padding: 8px; border: 1px solid #ddd;} ");
-        writer.write("th {background-color: #4CAF50; color: white;} ");
-        writer.write("tr:nth-child(even) {background-color: #f2f2f2;} ");
-        writer.write(".passed {color: green;} .failed {color: red;} .skipped {color: orange;}</style>");
-        writer.write("</head><body>");
-
-        writer.write("<h1>Test Execution Summary</h1>");
-        writer.write("<p>Execution Date: " + new Date() + "</p>");
-
-        writer.write("<h2>Results Summary</h2>");
-        writer.write("<table>");
-        writer.write("<tr><th>Total Tests</th><th>Passed</th><th>Failed</th><th>Skipped</th></tr>");
-        writer.write("<tr>");
-        writer.write("<td>" + (context.getPassedTests().size() + context.getFailedTests().size() + context.getSkippedTests().size()) + "</td>");
-        writer.write("<td class='passed'>" + context.getPassedTests().size() + "</td>");
-        writer.write("<td class='failed'>" + context.getFailedTests().size() + "</td>");
-        writer.write("<td class='skipped'>" + context.getSkippedTests().size() + "</td>");
-        writer.write("</tr>");
-        writer.write("</table>");
-
-        // Test details
-        writer.write("<h2>Test Details</h2>");
-        writer.write("<table>");
-        writer.write("<tr><th>Test Name</th><th>Status</th><th>Duration (ms)</th></tr>");
-
-        // Passed tests
-        for (ITestResult result : context.getPassedTests().getAllResults()) {
-            writer.write("<tr>");
-            writer.write("<td>" + result.getName() + "</td>");
-            writer.write("<td class='passed'>PASSED</td>");
-            writer.write("<td>" + (result.getEndMillis() - result.getStartMillis()) + "</td>");
-            writer.write("</tr>");
+        SummaryReportSink summary = summaries.remove(context);
+        if (summary == null) {
+            summary = new SummaryReportSink();
         }
-
-        // Failed tests
-        for (ITestResult result : context.getFailedTests().getAllResults()) {
-            writer.write("<tr>");
-            writer.write("<td>" + result.getName() + "</td>");
-            writer.write("<td class='failed'>FAILED</td>");
-            writer.write("<td>" + (result.getEndMillis() - result.getStartMillis()) + "</td>");
-            writer.write("</tr>");
-        }
-
-        // Skipped tests
-        for (ITestResult result : context.getSkippedTests().getAllResults()) {
-            writer.write("<tr>");
-            writer.write("<td>" + result.getName() + "</td>");
-            writer.write("<td class='skipped'>SKIPPED</td>");
-            writer.write("<td>N/A</td>");
-            writer.write("</tr>");
-        }
-
-        writer.write("</table>");
-        writer.write("</body></html>");
-
-        writer.close();
-        System.out.println("Summary report generated: " + reportFile.getAbsolutePath());
+        // Next to the reports of this JVM's tests; named per TestNG <test> so summaries don't overwrite each other
+        Path reportFile = ArtifactStore.getDefault().getDirectory()
+                .resolve("test-summary-" + ArtifactStore.slug(context.getName()) + ".html");
+        summary.write(reportFile);
+        System.out.println("Summary report generated: " + reportFile.toAbsolutePath());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package org.TestifyFW.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of loading a set of YAML files with SuiteLoader, in file order
+ */
+public final class LoadedSuite {
+    private final int fileCount;
+    private final List<LoadedTestCase> testCases;
+    private final long loadMillis;
+
+    LoadedSuite(int fileCount, List<LoadedTestCase> testCases, long loadMillis) {
+        this.fileCount = fileCount;
+        this.testCases = Collections.unmodifiableList(testCases);
+        this.loadMillis = loadMillis;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public List<LoadedTestCase> getTestCases() {
+        return testCases;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * Every load and validation error, each prefixed with its file (and line where known)
+     */
+    public List<String> getErrors() {
+        List<String> errors = new ArrayList<>();
+        for (LoadedTestCase testCase : testCases) {
+            errors.addAll(testCase.getErrors());
+        }
+        return errors;
+    }
+
+    public boolean isValid() {
+        for (LoadedTestCase testCase : testCases) {
+            if (!testCase.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
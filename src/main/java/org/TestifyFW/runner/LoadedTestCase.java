@@ -0,0 +1,39 @@
+package org.TestifyFW.runner;
+
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.model.TestCase;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One test case (or dataset row) produced by SuiteLoader: its compiled plan,
+ * or the errors that kept it from being compiled
+ */
+public final class LoadedTestCase {
+    private final String sourceFile;
+    private final String name;
+    private final TestCase testCase;
+    private final ExecutionPlan plan;
+    private final List<String> errors;
+
+    LoadedTestCase(String sourceFile, String name, TestCase testCase, ExecutionPlan plan, List<String> errors) {
+        this.sourceFile = sourceFile;
+        this.name = name;
+        this.testCase = testCase;
+        this.plan = plan;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public String getSourceFile() { return sourceFile; }
+    public String getName() { return name; }
+    // Null if the file could not be loaded
+    public TestCase getTestCase() { return testCase; }
+    // Null if the test case is invalid
+    public ExecutionPlan getPlan() { return plan; }
+    public List<String> getErrors() { return errors; }
+
+    public boolean isValid() {
+        return plan != null;
+    }
+}
@@ -0,0 +1,407 @@
+package org.TestifyFW.runner;
+
+import org.TestifyFW.framework.ActionHandler;
+import org.TestifyFW.framework.WebDriverPool;
+import org.TestifyFW.framework.action.ActionContext;
+import org.TestifyFW.framework.action.InputTextAction;
+import org.TestifyFW.framework.event.ExecutionListener;
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.framework.plan.PrefixTree;
+import org.TestifyFW.framework.session.SessionSnapshot;
+import org.TestifyFW.framework.wait.PollingSettings;
+import org.TestifyFW.jira.FailureFingerprint;
+import org.TestifyFW.reporter.ArtifactStore;
+import org.TestifyFW.reporter.RunContext;
+import org.TestifyFW.reporter.TestReporter;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs test cases through a PrefixTree so that steps shared by several test
+ * cases are executed once.
+ *
+ * A worker walks the tree depth first in one browser. Where test cases
+ * diverge it captures a SessionSnapshot; the first branch continues in place
+ * and every other branch is queued for another worker, which restores the
+ * snapshot into its own pooled session. Text typed at the end of the shared
+ * prefix is not part of a snapshot, so those input steps are replayed after
+ * the restore. Other in-page state (e.g. an open client-side dialog) is not
+ * carried over, which is why this mode is opt-in.
+ *
+ * Every test case still gets its own report, started when the first branch
+ * on its path starts: each step's outcome is logged to every test case whose
+ * path runs through it. Test cases are told apart by their position in the
+ * suite, since identical test cases compile to the same plan.
+ */
+class SharedPrefixRunner {
+    private final WebDriverPool driverPool;
+    private final ArtifactStore artifacts;
+    private final ExecutorService executor;
+    private final PollingSettings pollingSettings;
+    private final ExecutionListener executionListener;
+
+    // Keyed by the test case's position in the plans being run
+    private final Map<Integer, TestCaseResult> results = new ConcurrentHashMap<>();
+    private final Map<Integer, RunContext> runs = new ConcurrentHashMap<>();
+    private List<String> sourceFiles;
+    private List<ExecutionPlan> plans;
+    private CountDownLatch remaining;
+    private Set<Integer> quarantined = Collections.emptySet();
+
+    private static final class StepOutcome {
+        private final CompiledStep step;
+        private final int sharedBy;
+        private final Throwable failure;
+        private final String skipReason;
+        private final byte[] screenshot;
+        private final long durationNanos;
+        private final List<TestReporter.StepResult> infos;
+
+        StepOutcome(CompiledStep step, int sharedBy, Throwable failure, String skipReason, byte[] screenshot,
+                    long durationNanos, List<TestReporter.StepResult> infos) {
+            this.step = step;
+            this.sharedBy = sharedBy;
+            this.failure = failure;
+            this.skipReason = skipReason;
+            this.screenshot = screenshot;
+            this.durationNanos = durationNanos;
+            this.infos = infos;
+        }
+
+        boolean isPassed() {
+            return failure == null && skipReason == null;
+        }
+
+        boolean isSkipped() {
+            return skipReason != null;
+        }
+    }
+
+    // A subtree to run on one worker, starting from a restored or replayed browser state
+    private static final class Branch {
+        private final PrefixTree.Node node;
+        private final List<StepOutcome> outcomes;
+        private final SessionSnapshot snapshot;
+        private final List<CompiledStep> replaySteps;
+
+        Branch(PrefixTree.Node node, List<StepOutcome> outcomes, SessionSnapshot snapshot, List<CompiledStep> replaySteps) {
+            this.node = node;
+            this.outcomes = outcomes;
+            this.snapshot = snapshot;
+            this.replaySteps = replaySteps;
+        }
+    }
+
+    SharedPrefixRunner(WebDriverPool driverPool, ArtifactStore artifacts, ExecutorService executor,
+                       PollingSettings pollingSettings,
+                       ExecutionListener executionListener) {
+        this.driverPool = driverPool;
+        this.artifacts = artifacts;
+        this.executor = executor;
+        this.pollingSettings = pollingSettings;
+        this.executionListener = executionListener;
+    }
+
+    /**
+     * Positions of the plans whose failures are not reported to Jira
+     */
+    void setQuarantined(Set<Integer> quarantined) {
+        this.quarantined = quarantined;
+    }
+
+    /**
+     * Runs the plans and returns one result per plan, in the given order
+     */
+    List<TestCaseResult> run(List<String> planSources, List<ExecutionPlan> plans) {
+        this.sourceFiles = planSources;
+        this.plans = plans;
+        PrefixTree tree = PrefixTree.build(plans);
+        System.out.println("Shared prefix execution: " + tree.getUniqueStepCount() + " unique step(s) instead of "
+                + tree.getTotalStepCount());
+
+        remaining = new CountDownLatch(plans.size());
+        for (PrefixTree.Node child : tree.getRoot().getChildren()) {
+            submit(new Branch(child, new ArrayList<>(), null, Collections.emptyList()));
+        }
+        try {
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Suite execution interrupted");
+        }
+
+        List<TestCaseResult> ordered = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            TestCaseResult result = results.get(i);
+            if (result == null) {
+                RunContext run = runs.get(i);
+                if (run != null) {
+                    run.close();
+                }
+                result = new TestCaseResult(planSources.get(i), plans.get(i).getTestName(),
+                        TestCaseResult.Status.ERROR, 0, "Interrupted before the test case finished", null);
+            }
+            ordered.add(result);
+        }
+        return ordered;
+    }
+
+    private void submit(Branch branch) {
+        try {
+            executor.submit(() -> runBranch(branch));
+        } catch (RejectedExecutionException e) {
+            finishAll(branch.node, branch.outcomes, e);
+        }
+    }
+
+    private void runBranch(Branch branch) {
+        for (int index : branch.node.getPlanIndexes()) {
+            startTest(index);
+        }
+        WebDriver driver = null;
+        try {
+            driver = driverPool.borrow();
+            if (branch.snapshot != null) {
+                branch.snapshot.restoreInto(driver);
+            }
+            // Their outcomes are already in the reports, so anything the replay logs is dropped
+            ActionContext replay = new ActionContext(driver, true, pollingSettings,
+                    stepLog(branch.node.getPlanIndexes().get(0)));
+            for (CompiledStep step : branch.replaySteps) {
+                step.getHandler().execute(replay, step);
+            }
+            walk(branch.node, branch.outcomes, driver);
+        } catch (Exception | AssertionError e) {
+            System.err.println("Shared branch failed: " + e.getMessage());
+            finishAll(branch.node, branch.outcomes, e);
+        } finally {
+            if (driver != null) {
+                driverPool.release(driver);
+            }
+        }
+    }
+
+    // Opens the test case's report and tells the listener, the first time a branch on its path starts
+    private synchronized RunContext startTest(int index) {
+        RunContext run = runs.get(index);
+        if (run == null) {
+            String testName = plans.get(index).getTestName();
+            run = RunContext.start(testName, artifacts);
+            runs.put(index, run);
+            executionListener.testStarted(testName);
+        }
+        return run;
+    }
+
+    // Collects what a step logs while it runs for several test cases, named after the first of them
+    private RunContext stepLog(int index) {
+        RunContext log = RunContext.stepLogOnly();
+        log.setTestName(plans.get(index).getTestName());
+        return log;
+    }
+
+    private void walk(PrefixTree.Node start, List<StepOutcome> outcomes, WebDriver driver) {
+        PrefixTree.Node node = start;
+        try {
+            while (true) {
+                StepOutcome outcome = execute(node, outcomes, driver);
+                outcomes.add(outcome);
+                for (int index : node.getPlanIndexes()) {
+                    log(index, outcomes);
+                }
+
+                for (int index : node.getEndingPlanIndexes()) {
+                    finish(index, outcomes, null);
+                }
+
+                List<PrefixTree.Node> children = node.getChildren();
+                if (children.isEmpty()) {
+                    return;
+                }
+                if (children.size() > 1) {
+                    fork(children.subList(1, children.size()), outcomes, driver);
+                }
+                node = children.get(0);
+            }
+        } catch (Exception | AssertionError e) {
+            // Branches forked off earlier run on; only the test cases still on this path end here
+            System.err.println("Shared branch failed: " + e.getMessage());
+            finishAll(node, outcomes, e);
+        }
+    }
+
+    private void fork(List<PrefixTree.Node> branches, List<StepOutcome> outcomes, WebDriver driver) {
+        SessionSnapshot snapshot = null;
+        try {
+            snapshot = SessionSnapshot.capture(driver, Long.MAX_VALUE / 2);
+        } catch (Exception e) {
+            System.err.println("Failed to snapshot shared prefix, branches will replay it: " + e.getMessage());
+        }
+
+        List<CompiledStep> replaySteps = new ArrayList<>();
+        if (snapshot == null) {
+            for (StepOutcome outcome : outcomes) {
+                if (!outcome.isSkipped()) {
+                    replaySteps.add(outcome.step);
+                }
+            }
+        } else {
+            // Typed text lives in the page, not in cookies or storage
+            for (int i = outcomes.size() - 1; i >= 0 && outcomes.get(i).step.getHandler() instanceof InputTextAction; i--) {
+                if (!outcomes.get(i).isSkipped()) {
+                    replaySteps.add(0, outcomes.get(i).step);
+                }
+            }
+        }
+
+        for (PrefixTree.Node branch : branches) {
+            submit(new Branch(branch, new ArrayList<>(outcomes), snapshot, replaySteps));
+        }
+    }
+
+    private StepOutcome execute(PrefixTree.Node node, List<StepOutcome> path, WebDriver driver) {
+        CompiledStep step = node.getStep();
+        String testName = node.getPlans().get(0).getTestName();
+        String skipReason = findUnmetDependency(step, path);
+        if (skipReason != null) {
+            executionListener.stepSkipped(testName, step, skipReason);
+            return new StepOutcome(step, node.getPlans().size(), null, skipReason, null, 0, Collections.emptyList());
+        }
+
+        // What the step logs is copied to every test case sharing it
+        RunContext log = stepLog(node.getPlanIndexes().get(0));
+        ActionContext context = new ActionContext(driver, true, pollingSettings, log);
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        byte[] screenshot = null;
+        try {
+            step.getHandler().execute(context, step);
+            executionListener.stepPassed(testName, step);
+        } catch (Exception | AssertionError e) {
+            failure = e;
+            screenshot = captureScreenshot(driver);
+            executionListener.stepFailed(testName, step, e);
+        }
+        long duration = System.nanoTime() - start;
+
+        List<TestReporter.StepResult> infos = new ArrayList<>(log.getDetailedStepLog());
+        log.close();
+        return new StepOutcome(step, node.getPlans().size(), failure, null, screenshot, duration, infos);
+    }
+
+    // Logs the last outcome on the path to the test case's report
+    private void log(int index, List<StepOutcome> outcomes) {
+        ExecutionPlan plan = plans.get(index);
+        RunContext run = startTest(index);
+        int setupSteps = plan.getSetup() != null ? plan.getSetup().getSteps().size() : 0;
+        int position = outcomes.size() - 1;
+        StepOutcome outcome = outcomes.get(position);
+        String stepName = (position < setupSteps ? "Setup - " : "") + outcome.step.getDisplayName()
+                + (outcome.sharedBy > 1 ? " (shared by " + outcome.sharedBy + " tests)" : "");
+        for (TestReporter.StepResult info : outcome.infos) {
+            run.logInfo(info.getStepName(), info.getDetails());
+        }
+        if (outcome.isSkipped()) {
+            run.logSkipped(stepName, outcome.step.getAction(), outcome.skipReason);
+            return;
+        }
+        run.logStep(stepName, outcome.step.getAction(), outcome.isPassed(), outcome.screenshot,
+                outcome.durationNanos);
+        if (!outcome.isPassed()) {
+            run.fail("Step failed: " + outcome.failure.getMessage());
+        }
+    }
+
+    // Dependencies index into the step's own list; the path holds the setup steps followed by the test's own steps
+    private static String findUnmetDependency(CompiledStep step, List<StepOutcome> path) {
+        int offset = path.size() - step.getIndex();
+        for (int dependency : step.getDependencies()) {
+            StepOutcome required = path.get(offset + dependency);
+            if (!required.isPassed()) {
+                return (required.step.isCritical() ? "critical step " : "")
+                        + required.step.getDisplayName() + " did not pass";
+            }
+        }
+        return null;
+    }
+
+    private static byte[] captureScreenshot(WebDriver driver) {
+        if (driver instanceof TakesScreenshot) {
+            try {
+                return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            } catch (Exception e) {
+                System.err.println("Failed to take screenshot: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void finishAll(PrefixTree.Node node, List<StepOutcome> outcomes, Throwable error) {
+        for (int index : node.getPlanIndexes()) {
+            finish(index, outcomes, error);
+        }
+    }
+
+    // Finishes the test case's report, whose steps were logged as they ran, and records its result
+    private void finish(int index, List<StepOutcome> outcomes, Throwable error) {
+        if (results.containsKey(index)) {
+            return;
+        }
+        String testName = plans.get(index).getTestName();
+        RunContext run = startTest(index);
+        long duration = 0;
+        StepOutcome firstFailure = null;
+        try {
+            for (StepOutcome outcome : outcomes) {
+                if (!outcome.isSkipped() && !outcome.isPassed() && firstFailure == null) {
+                    firstFailure = outcome;
+                }
+                duration += outcome.durationNanos / 1_000_000;
+            }
+            if (error != null) {
+                run.fail("Execution error: " + error.getMessage());
+            }
+            run.generateReport();
+
+            TestCaseResult.Status status;
+            String message = null;
+            if (error != null) {
+                status = TestCaseResult.Status.ERROR;
+                message = String.valueOf(error.getMessage());
+            } else if (firstFailure != null) {
+                status = TestCaseResult.Status.FAILED;
+                message = "Step failed: " + firstFailure.failure.getMessage();
+                if (!quarantined.contains(index)) {
+                    String fingerprint = FailureFingerprint.compute(testName, firstFailure.step.getIndex(),
+                            firstFailure.step.getAction(), firstFailure.failure);
+                    ActionHandler.reportToJira(run, testName, firstFailure.failure instanceof Exception
+                            ? (Exception) firstFailure.failure : null, fingerprint);
+                }
+            } else {
+                status = TestCaseResult.Status.PASSED;
+            }
+            executionListener.testFinished(testName, status == TestCaseResult.Status.PASSED);
+
+            TestCaseResult result = new TestCaseResult(sourceFiles.get(index), testName, status, duration, message,
+                    run.getReportPath());
+            if (results.putIfAbsent(index, result) == null) {
+                remaining.countDown();
+            }
+        } finally {
+            run.close();
+        }
+    }
+}
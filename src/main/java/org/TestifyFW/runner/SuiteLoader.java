@@ -0,0 +1,126 @@
+package org.TestifyFW.runner;
+
+import org.TestifyFW.framework.plan.PlanCompiler;
+import org.TestifyFW.framework.plan.PlanValidationException;
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.yaml.TestLoadException;
+import org.TestifyFW.yaml.YamlTestLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads, expands and compiles many YAML test files in parallel on a fork-join
+ * pool. Files that can't be loaded or compiled don't stop the others; their
+ * errors are collected with file and line positions instead, so a whole
+ * directory can be validated before anything runs.
+ */
+public final class SuiteLoader {
+    // Files per leaf task; small enough to balance, large enough to keep forking cheap
+    private static final int BATCH_SIZE = 8;
+
+    private final ForkJoinPool pool;
+
+    public SuiteLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SuiteLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every YAML file matched by the given directories, files or glob patterns
+     */
+    public LoadedSuite load(String... locations) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String location : locations) {
+            files.addAll(SuiteRunner.resolveYamlFiles(location));
+        }
+        return load(files);
+    }
+
+    public LoadedSuite load(List<Path> files) {
+        long start = System.currentTimeMillis();
+        List<LoadedTestCase> testCases = files.isEmpty()
+                ? Collections.<LoadedTestCase>emptyList()
+                : pool.invoke(new LoadTask(files, 0, files.size()));
+        return new LoadedSuite(files.size(), testCases, System.currentTimeMillis() - start);
+    }
+
+    private static final class LoadTask extends RecursiveTask<List<LoadedTestCase>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+
+        LoadTask(List<Path> files, int from, int to) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<LoadedTestCase> compute() {
+            if (to - from <= BATCH_SIZE) {
+                List<LoadedTestCase> loaded = new ArrayList<>();
+                YamlTestLoader loader = new YamlTestLoader();
+                for (int i = from; i < to; i++) {
+                    loadFile(loader, files.get(i), loaded);
+                }
+                return loaded;
+            }
+            int middle = (from + to) >>> 1;
+            LoadTask left = new LoadTask(files, from, middle);
+            left.fork();
+            List<LoadedTestCase> right = new LoadTask(files, middle, to).compute();
+            List<LoadedTestCase> loaded = left.join();
+            loaded.addAll(right);
+            return loaded;
+        }
+    }
+
+    private static void loadFile(YamlTestLoader loader, Path file, List<LoadedTestCase> loaded) {
+        String sourceFile = file.toString();
+        List<TestCase> instances;
+        try {
+            instances = loader.loadTestCaseInstances(sourceFile);
+        } catch (TestLoadException e) {
+            loaded.add(failed(file, e));
+            return;
+        }
+
+        // A multi-document or data-driven file yields several test cases
+        for (TestCase testCase : instances) {
+            loaded.add(compile(file, testCase));
+        }
+    }
+
+    static LoadedTestCase failed(Path file, TestLoadException e) {
+        return new LoadedTestCase(file.toString(), file.getFileName().toString(), null, null, e.getErrors());
+    }
+
+    static LoadedTestCase compile(Path file, TestCase testCase) {
+        String sourceFile = file.toString();
+        String name = testCase.getName() != null ? testCase.getName() : file.getFileName().toString();
+        try {
+            return new LoadedTestCase(sourceFile, name, testCase, PlanCompiler.compile(testCase),
+                    Collections.<String>emptyList());
+        } catch (PlanValidationException e) {
+            List<String> errors = new ArrayList<>();
+            for (String error : e.getErrors()) {
+                errors.add(sourceFile + ": " + name + ": " + error);
+            }
+            return new LoadedTestCase(sourceFile, name, testCase, null, errors);
+        } catch (RuntimeException e) {
+            return new LoadedTestCase(sourceFile, name, testCase, null,
+                    Collections.singletonList(sourceFile + ": " + name + ": " + e));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.TestifyFW.runner;
+
+import org.TestifyFW.reporter.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes a SuiteResult in machine readable formats for CI servers:
+ * JUnit XML (understood by most CI dashboards) and plain JSON.
+ */
+public final class SuiteReportWriter {
+
+    private SuiteReportWriter() {
+    }
+
+    public static void writeJUnitXml(SuiteResult suiteResult, Path target) throws IOException {
+        createParent(target);
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            // Quarantined test cases that didn't pass are reported as skipped, so they don't fail the build
+            int quarantinedSkipped = 0;
+            for (TestCaseResult result : suiteResult.getResults()) {
+                if (result.isQuarantined() && !result.isPassed()) {
+                    quarantinedSkipped++;
+                }
+            }
+            out.write("<testsuite name=\"TestifyFW\" tests=\"" + suiteResult.getTotal()
+                    + "\" failures=\"" + suiteResult.getFailed()
+                    + "\" errors=\"" + suiteResult.getErrors()
+                    + "\" skipped=\"" + (suiteResult.getSkipped() + quarantinedSkipped)
+                    + "\" time=\"" + seconds(suiteResult.getWallClockMillis()) + "\">\n");
+            for (TestCaseResult result : suiteResult.getResults()) {
+                out.write("  <testcase classname=\"" + escapeXml(result.getSourceFile())
+                        + "\" name=\"" + escapeXml(result.getTestName())
+                        + "\" time=\"" + seconds(result.getDurationMillis()) + "\"");
+                if (result.isPassed()) {
+                    out.write("/>\n");
+                    continue;
+                }
+                out.write(">\n");
+                String element = result.isQuarantined() || result.getStatus() == TestCaseResult.Status.SKIPPED ? "skipped"
+                        : result.getStatus() == TestCaseResult.Status.FAILED ? "failure" : "error";
+                String message = result.isQuarantined()
+                        ? "Quarantined as flaky, " + result.getStatus() + ": " + result.getMessage()
+                        : String.valueOf(result.getMessage());
+                out.write("    <" + element + " message=\"" + escapeXml(message) + "\"/>\n");
+                out.write("  </testcase>\n");
+            }
+            out.write("</testsuite>\n");
+        }
+    }
+
+    public static void writeJson(SuiteResult suiteResult, Path target) throws IOException {
+        createParent(target);
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            out.write("{\n");
+            out.write("  \"total\": " + suiteResult.getTotal() + ",\n");
+            out.write("  \"passed\": " + suiteResult.getPassed() + ",\n");
+            out.write("  \"failed\": " + suiteResult.getFailed() + ",\n");
+            out.write("  \"errors\": " + suiteResult.getErrors() + ",\n");
+            out.write("  \"skipped\": " + suiteResult.getSkipped() + ",\n");
+            out.write("  \"quarantined\": " + suiteResult.getQuarantined() + ",\n");
+            out.write("  \"wallClockMillis\": " + suiteResult.getWallClockMillis() + ",\n");
+            out.write("  \"results\": [");
+            boolean first = true;
+            for (TestCaseResult result : suiteResult.getResults()) {
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("    {\"sourceFile\": " + quoteJson(result.getSourceFile())
+                        + ", \"testName\": " + quoteJson(result.getTestName())
+                        + ", \"status\": " + quoteJson(result.getStatus().name())
+                        + ", \"durationMillis\": " + result.getDurationMillis()
+                        + ", \"message\": " + quoteJson(result.getMessage())
+                        + ", \"reportPath\": " + quoteJson(result.getReportPath())
+                        + ", \"quarantined\": " + result.isQuarantined() + "}");
+            }
+            out.write("\n  ]\n}\n");
+        }
+    }
+
+    private static void createParent(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    static String escapeXml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+
+    static String quoteJson(String text) {
+        return Json.quote(text);
+    }
+}
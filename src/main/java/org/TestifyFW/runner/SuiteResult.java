@@ -0,0 +1,98 @@
+package org.TestifyFW.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Merged result of a suite run, one entry per executed test case. Test cases
+ * from the quarantine lane are only counted as quarantined, whatever their
+ * outcome, and don't make the suite fail.
+ */
+public class SuiteResult {
+    private final List<TestCaseResult> results = new ArrayList<>();
+    private long wallClockMillis;
+
+    synchronized void add(TestCaseResult result) {
+        results.add(result);
+    }
+
+    void setWallClockMillis(long wallClockMillis) {
+        this.wallClockMillis = wallClockMillis;
+    }
+
+    public synchronized List<TestCaseResult> getResults() {
+        return Collections.unmodifiableList(new ArrayList<>(results));
+    }
+
+    public long getWallClockMillis() {
+        return wallClockMillis;
+    }
+
+    public synchronized int getTotal() {
+        return results.size();
+    }
+
+    public int getPassed() {
+        return count(TestCaseResult.Status.PASSED);
+    }
+
+    public int getFailed() {
+        return count(TestCaseResult.Status.FAILED);
+    }
+
+    public int getErrors() {
+        return count(TestCaseResult.Status.ERROR);
+    }
+
+    // Test cases that did not run because a test case they depend on did not pass
+    public int getSkipped() {
+        return count(TestCaseResult.Status.SKIPPED);
+    }
+
+    // Test cases that ran in the quarantine lane because they are flaky
+    public synchronized int getQuarantined() {
+        int count = 0;
+        for (TestCaseResult result : results) {
+            if (result.isQuarantined()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isSuccessful() {
+        return getPassed() == getTotal() - getQuarantined();
+    }
+
+    // Sum of the individual test durations, i.e. what a sequential run would have taken
+    public synchronized long getTotalTestMillis() {
+        long total = 0;
+        for (TestCaseResult result : results) {
+            total += result.getDurationMillis();
+        }
+        return total;
+    }
+
+    private synchronized int count(TestCaseResult.Status status) {
+        int count = 0;
+        for (TestCaseResult result : results) {
+            if (result.getStatus() == status && !result.isQuarantined()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void printSummary() {
+        System.out.println("============================================");
+        System.out.println("SUITE FINISHED: " + getTotal() + " test(s)");
+        System.out.println("Passed: " + getPassed() + " | Failed: " + getFailed() + " | Errors: " + getErrors() + " | Skipped: " + getSkipped()
+                + (getQuarantined() > 0 ? " | Quarantined: " + getQuarantined() : ""));
+        System.out.println("Wall clock: " + wallClockMillis + " ms | Sum of test times: " + getTotalTestMillis() + " ms");
+        System.out.println("============================================");
+        for (TestCaseResult result : getResults()) {
+            System.out.println(result);
+        }
+    }
+}
@@ -0,0 +1,789 @@
+package org.TestifyFW.runner;
+
+import org.TestifyFW.framework.ActionHandler;
+import org.TestifyFW.framework.BaseTest;
+import org.TestifyFW.framework.BrowserProfile;
+import org.TestifyFW.framework.BrowserProfiles;
+import org.TestifyFW.framework.WebDriverPool;
+import org.TestifyFW.framework.event.ConsoleExecutionListener;
+import org.TestifyFW.framework.event.ExecutionListener;
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.framework.wait.PollingSettings;
+import org.TestifyFW.framework.wait.WaitSavings;
+import org.TestifyFW.history.FlakinessAnalyzer;
+import org.TestifyFW.history.HistoryRecorder;
+import org.TestifyFW.history.HistoryStore;
+import org.TestifyFW.jira.JiraReportingService;
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.reporter.ArtifactStore;
+import org.TestifyFW.reporter.TestReporter;
+import org.TestifyFW.yaml.TestCaseStream;
+import org.TestifyFW.yaml.TestLoadException;
+import org.TestifyFW.yaml.YamlTestLoader;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs many YAML test cases concurrently on a fixed number of workers.
+ * Workers borrow browsers from a shared WebDriverPool, and since every test
+ * case reports to its own RunContext, each test gets an isolated report.
+ * A test case with dependsOn waits for those test cases and is skipped if any of them did not pass.
+ *
+ * By default the whole suite is loaded before the first test starts; in
+ * streaming mode test cases are started while the files are still being read.
+ *
+ * With quarantine on, test cases the run history shows to be flaky (see
+ * FlakinessAnalyzer) still run, but in a low priority lane: they only take
+ * workers no other test case is waiting for, their failures are not reported
+ * to Jira and don't fail the suite. With shared prefixes they run in the
+ * prefix tree like every other test case, since their steps are shared.
+ */
+public class SuiteRunner {
+    // Test cases read ahead per worker when streaming
+    private static final int QUEUED_PER_WORKER = 2;
+
+    private int concurrency;
+    private String browserType = "chrome";
+    private String browserProfile;
+    private boolean headless = false;
+    private boolean sharePrefixes = false;
+    private boolean streaming = false;
+    private boolean recordHistory = true;
+    private boolean quarantineFlaky = false;
+    private PollingSettings pollingSettings = PollingSettings.defaults();
+    private ExecutionListener executionListener = new ConsoleExecutionListener();
+
+    public SuiteRunner(int concurrency) {
+        setConcurrency(concurrency);
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setBrowserType(String browserType) {
+        this.browserType = browserType;
+    }
+
+    /**
+     * Name of the browser profile to launch sessions with; defaults to the testify.browser.profile property
+     */
+    public void setBrowserProfile(String browserProfile) {
+        this.browserProfile = browserProfile;
+    }
+
+    /**
+     * Forces headless mode on top of whatever the browser profile says
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * Suite-wide timeout and polling defaults; test cases and steps can override them
+     */
+    public void setPollingSettings(PollingSettings pollingSettings) {
+        this.pollingSettings = pollingSettings;
+    }
+
+    /**
+     * Runs steps that several test cases start with only once, forking the
+     * browser state where they diverge (see SharedPrefixRunner)
+     */
+    public void setSharePrefixes(boolean sharePrefixes) {
+        this.sharePrefixes = sharePrefixes;
+    }
+
+    /**
+     * Starts test cases as they are read instead of loading and compiling the
+     * whole suite first. Multi-document files are read one document at a time
+     * and only a few test cases per worker are queued ahead of execution, so
+     * memory use stays flat however large the suite is. dependsOn may then
+     * only name test cases that come earlier in the suite, and shared prefixes
+     * are not used since they need every test case up front.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Adds each run's test and step outcomes to the HistoryStore (on by default)
+     */
+    public void setRecordHistory(boolean recordHistory) {
+        this.recordHistory = recordHistory;
+    }
+
+    /**
+     * Runs test cases that are flaky according to the run history in the quarantine lane
+     */
+    public void setQuarantineFlaky(boolean quarantineFlaky) {
+        this.quarantineFlaky = quarantineFlaky;
+    }
+
+    /**
+     * Listener shared by all workers; it is called from several threads at once
+     */
+    public void setExecutionListener(ExecutionListener executionListener) {
+        this.executionListener = executionListener;
+    }
+
+    /**
+     * Runs every YAML file matched by the given directories, files or glob patterns
+     */
+    public SuiteResult run(String... locations) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String location : locations) {
+            files.addAll(resolveYamlFiles(location));
+        }
+        return runFiles(files);
+    }
+
+    public SuiteResult runFiles(List<Path> yamlFiles) {
+        SuiteResult suiteResult = new SuiteResult();
+        if (yamlFiles.isEmpty()) {
+            System.out.println("No YAML test files found.");
+            return suiteResult;
+        }
+
+        BrowserProfile profile = browserProfile != null ? BrowserProfiles.get(browserProfile) : BrowserProfiles.getSelected();
+        if (headless) {
+            profile.setHeadless(true);
+        }
+        System.out.println("Browser: " + browserType + ", profile " + profile);
+        if (streaming) {
+            return runStreamed(yamlFiles, profile);
+        }
+
+        // Everything is loaded and compiled up front so test-level dependencies are known before scheduling
+        List<PreparedTest> tests = prepare(yamlFiles);
+        TestDependencyGraph graph = buildGraph(tests);
+        try (HistoryStore store = openFlakyHistory()) {
+            FlakinessAnalyzer flakiness = store != null ? new FlakinessAnalyzer(store) : null;
+            for (PreparedTest test : tests) {
+                quarantine(test, flakiness);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to close test history: " + e.getMessage());
+        }
+        int workers = Math.min(concurrency, tests.size());
+        System.out.println("Running " + tests.size() + " test case(s) from " + yamlFiles.size() + " file(s) on "
+                + workers + " worker(s)");
+
+        ExecutorService executor = newWorkerPool(workers);
+        long suiteStart = System.currentTimeMillis();
+        WebDriverPool driverPool = new WebDriverPool(() -> BaseTest.createDriver(browserType, profile), 0, workers);
+        ArtifactStore artifacts = ArtifactStore.createRun();
+        HistoryRecorder history = startHistory(artifacts, suiteStart);
+        if (history != null) {
+            for (PreparedTest test : tests) {
+                history.setDefinition(test.testName, test.plan);
+            }
+        }
+        try {
+            if (sharePrefixes) {
+                runWithSharedPrefixes(tests, graph, driverPool, artifacts, executor);
+            } else {
+                runByDependencies(tests, graph, workers, driverPool, artifacts, executor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Suite execution interrupted");
+        } finally {
+            executor.shutdownNow();
+            driverPool.close();
+            // Failures are reported to Jira in the background; send them before returning, and
+            // before the event log is closed so it gets their issue keys
+            JiraReportingService.getInstance().flush(60000);
+            artifacts.close();
+        }
+
+        // Keep file order so the merged result is deterministic
+        for (PreparedTest test : tests) {
+            TestCaseResult result = test.result != null ? test.result : new TestCaseResult(test.sourceFile,
+                    test.testName, TestCaseResult.Status.ERROR, 0, "Interrupted before the test case ran", null);
+            suiteResult.add(test.quarantined ? result.quarantine() : result);
+        }
+        suiteResult.setWallClockMillis(System.currentTimeMillis() - suiteStart);
+        saveHistory(history, suiteResult);
+        writeWaitSavingsReport(artifacts);
+        System.out.println("Reports of run " + artifacts.getRunId() + ": " + artifacts.getDirectory().toAbsolutePath());
+        return suiteResult;
+    }
+
+    private static ExecutorService newWorkerPool(int workers) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "testify-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // A test case (or dataset row) on its way through the suite; result is set once it is known
+    private static final class PreparedTest {
+        private final String sourceFile;
+        private final String testName;
+        private final ExecutionPlan plan;
+        private boolean quarantined;
+        private volatile TestCaseResult result;
+
+        PreparedTest(LoadedTestCase loaded) {
+            this.sourceFile = loaded.getSourceFile();
+            this.testName = loaded.getName();
+            this.plan = loaded.getPlan();
+            if (!loaded.isValid()) {
+                result = new TestCaseResult(sourceFile, testName, TestCaseResult.Status.ERROR, 0,
+                        String.join("\n", loaded.getErrors()), null);
+            }
+        }
+    }
+
+    private static List<PreparedTest> prepare(List<Path> yamlFiles) {
+        LoadedSuite suite = new SuiteLoader().load(yamlFiles);
+        System.out.println("Loaded " + suite.getTestCases().size() + " test case(s) in " + suite.getLoadMillis() + " ms");
+        List<PreparedTest> tests = new ArrayList<>();
+        for (LoadedTestCase loaded : suite.getTestCases()) {
+            tests.add(new PreparedTest(loaded));
+        }
+        return tests;
+    }
+
+    // Test cases that failed to load or compile take part without an id, so nothing can depend on them
+    private static TestDependencyGraph buildGraph(List<PreparedTest> tests) {
+        List<String> ids = new ArrayList<>();
+        List<List<String>> dependsOn = new ArrayList<>();
+        for (PreparedTest test : tests) {
+            ids.add(test.plan != null ? test.plan.getTestId() : "\u0000" + test.sourceFile);
+            dependsOn.add(test.plan != null ? test.plan.getDependsOn() : Collections.<String>emptyList());
+        }
+        TestDependencyGraph graph = TestDependencyGraph.build(ids, dependsOn);
+        for (int i = 0; i < tests.size(); i++) {
+            PreparedTest test = tests.get(i);
+            if (test.result == null && graph.getError(i) != null) {
+                test.result = new TestCaseResult(test.sourceFile, test.testName, TestCaseResult.Status.ERROR,
+                        0, graph.getError(i), null);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Starts every test case as soon as all test cases it depends on have passed,
+     * so independent chains run side by side on the workers. Quarantined test
+     * cases wait until a worker would otherwise be idle.
+     */
+    private void runByDependencies(List<PreparedTest> tests, TestDependencyGraph graph, int workers,
+                                   WebDriverPool driverPool, ArtifactStore artifacts,
+                                   ExecutorService executor) throws InterruptedException {
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        int[] waitingOn = new int[tests.size()];
+        Deque<Integer> finished = new ArrayDeque<>();
+        Deque<Integer> quarantineLane = new ArrayDeque<>();
+        int running = 0;
+
+        for (int i = 0; i < tests.size(); i++) {
+            waitingOn[i] = graph.getDependencies(i).size();
+            if (tests.get(i).result != null) {
+                finished.add(i);
+            } else if (waitingOn[i] == 0 && tests.get(i).quarantined) {
+                quarantineLane.add(i);
+            } else if (waitingOn[i] == 0) {
+                submit(completion, tests, i, driverPool, artifacts);
+                running++;
+            }
+        }
+
+        while (true) {
+            while (!finished.isEmpty()) {
+                int index = finished.poll();
+                boolean passed = tests.get(index).result.isPassed();
+                for (int dependent : graph.getDependents(index)) {
+                    PreparedTest test = tests.get(dependent);
+                    if (test.result != null) {
+                        continue;
+                    }
+                    if (!passed) {
+                        test.result = skipped(test, tests.get(index).testName);
+                        finished.add(dependent);
+                    } else if (--waitingOn[dependent] == 0 && test.quarantined) {
+                        quarantineLane.add(dependent);
+                    } else if (waitingOn[dependent] == 0) {
+                        submit(completion, tests, dependent, driverPool, artifacts);
+                        running++;
+                    }
+                }
+            }
+            while (running < workers && !quarantineLane.isEmpty()) {
+                submit(completion, tests, quarantineLane.poll(), driverPool, artifacts);
+                running++;
+            }
+            if (running == 0) {
+                return;
+            }
+            finished.add(takeCompleted(completion));
+            running--;
+        }
+    }
+
+    private SuiteResult runStreamed(List<Path> yamlFiles, BrowserProfile profile) {
+        SuiteResult suiteResult = new SuiteResult();
+        int workers = concurrency;
+        if (sharePrefixes) {
+            System.out.println("Shared prefixes are not used when streaming test cases");
+        }
+        System.out.println("Streaming test cases from " + yamlFiles.size() + " file(s) on " + workers + " worker(s)");
+
+        ExecutorService executor = newWorkerPool(workers);
+        long suiteStart = System.currentTimeMillis();
+        WebDriverPool driverPool = new WebDriverPool(() -> BaseTest.createDriver(browserType, profile), 0, workers);
+        ArtifactStore artifacts = ArtifactStore.createRun();
+        HistoryRecorder history = startHistory(artifacts, suiteStart);
+        HistoryStore flakyHistory = openFlakyHistory();
+        FlakinessAnalyzer flakiness = flakyHistory != null ? new FlakinessAnalyzer(flakyHistory) : null;
+        List<StreamedTest> results = new ArrayList<>();
+        Map<String, List<CompletableFuture<TestCaseResult>>> resultsById = new HashMap<>();
+        // Bounds how far reading runs ahead of execution
+        Semaphore queued = new Semaphore(workers * QUEUED_PER_WORKER);
+        QuarantineLane lane = new QuarantineLane(executor, workers);
+        YamlTestLoader loader = new YamlTestLoader();
+        try {
+            for (Path file : yamlFiles) {
+                try (TestCaseStream stream = loader.openStream(file.toString())) {
+                    while (stream.hasNext()) {
+                        List<LoadedTestCase> loaded = new ArrayList<>();
+                        try {
+                            for (TestCase instance : loader.expandDataset(stream.next(), file.toString())) {
+                                loaded.add(SuiteLoader.compile(file, instance));
+                            }
+                        } catch (TestLoadException e) {
+                            loaded.add(SuiteLoader.failed(file, e));
+                        }
+                        for (LoadedTestCase testCase : loaded) {
+                            PreparedTest test = new PreparedTest(testCase);
+                            if (history != null) {
+                                history.setDefinition(test.testName, test.plan);
+                            }
+                            quarantine(test, flakiness);
+                            results.add(new StreamedTest(test, schedule(test, resultsById, queued, driverPool, artifacts, lane)));
+                        }
+                    }
+                } catch (TestLoadException e) {
+                    PreparedTest test = new PreparedTest(SuiteLoader.failed(file, e));
+                    results.add(new StreamedTest(test, CompletableFuture.completedFuture(test.result)));
+                }
+            }
+            for (StreamedTest test : results) {
+                test.result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Suite execution interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Test worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            driverPool.close();
+            JiraReportingService.getInstance().flush(60000);
+            artifacts.close();
+            if (flakyHistory != null) {
+                try {
+                    flakyHistory.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close test history: " + e.getMessage());
+                }
+            }
+        }
+
+        // Results stay in the order the test cases were read
+        for (StreamedTest test : results) {
+            TestCaseResult result = test.result.isDone() ? test.result.join() : new TestCaseResult(test.sourceFile,
+                    test.testName, TestCaseResult.Status.ERROR, 0, "Interrupted before the test case ran", null);
+            suiteResult.add(test.quarantined ? result.quarantine() : result);
+        }
+        suiteResult.setWallClockMillis(System.currentTimeMillis() - suiteStart);
+        saveHistory(history, suiteResult);
+        writeWaitSavingsReport(artifacts);
+        System.out.println("Reports of run " + artifacts.getRunId() + ": " + artifacts.getDirectory().toAbsolutePath());
+        return suiteResult;
+    }
+
+    // A streamed test case; only its name is kept, its plan is dropped once it has run
+    private static final class StreamedTest {
+        private final String sourceFile;
+        private final String testName;
+        private final boolean quarantined;
+        private final CompletableFuture<TestCaseResult> result;
+
+        StreamedTest(PreparedTest test, CompletableFuture<TestCaseResult> result) {
+            this.sourceFile = test.sourceFile;
+            this.testName = test.testName;
+            this.quarantined = test.quarantined;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Hands streamed test cases to the workers. Quarantined ones wait here
+     * until fewer test cases are queued or running than there are workers,
+     * so they only take workers no other test case is waiting for.
+     */
+    private static final class QuarantineLane {
+        private final ExecutorService executor;
+        private final int workers;
+        private final Deque<Runnable> deferred = new ArrayDeque<>();
+        // Test cases handed to the executor that have not finished yet
+        private int busy;
+
+        QuarantineLane(ExecutorService executor, int workers) {
+            this.executor = executor;
+            this.workers = workers;
+        }
+
+        Executor executorFor(PreparedTest test) {
+            if (test.quarantined) {
+                return task -> {
+                    synchronized (this) {
+                        deferred.add(task);
+                    }
+                    drain();
+                };
+            }
+            return task -> {
+                synchronized (this) {
+                    busy++;
+                }
+                execute(task);
+            };
+        }
+
+        private void execute(Runnable task) {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    synchronized (this) {
+                        busy--;
+                    }
+                    drain();
+                }
+            });
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    if (busy >= workers || deferred.isEmpty()) {
+                        return;
+                    }
+                    task = deferred.poll();
+                    busy++;
+                }
+                try {
+                    execute(task);
+                } catch (RejectedExecutionException e) {
+                    // The suite is shutting down; the test case is reported as not run
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a streamed test case to run once the earlier test cases it
+     * depends on have finished; blocks while the queue is full
+     */
+    private CompletableFuture<TestCaseResult> schedule(PreparedTest test,
+                                                       Map<String, List<CompletableFuture<TestCaseResult>>> resultsById,
+                                                       Semaphore queued, WebDriverPool driverPool,
+                                                       ArtifactStore artifacts,
+                                                       QuarantineLane lane) throws InterruptedException {
+        if (test.plan == null) {
+            return CompletableFuture.completedFuture(test.result);
+        }
+
+        List<CompletableFuture<TestCaseResult>> dependencies = new ArrayList<>();
+        for (String id : test.plan.getDependsOn()) {
+            List<CompletableFuture<TestCaseResult>> matches = resultsById.get(id);
+            String error = id.equals(test.plan.getTestId()) ? "test case depends on itself"
+                    : matches == null ? "dependsOn '" + id + "' does not name an earlier test case in this suite"
+                    : null;
+            if (error != null) {
+                test.result = new TestCaseResult(test.sourceFile, test.testName, TestCaseResult.Status.ERROR, 0,
+                        error, null);
+                break;
+            }
+            dependencies.addAll(matches);
+        }
+
+        // Registered even when invalid, so its dependents are skipped rather than reported as unknown
+        CompletableFuture<TestCaseResult> future;
+        if (test.result != null) {
+            future = CompletableFuture.completedFuture(test.result);
+            resultsById.computeIfAbsent(test.plan.getTestId(), id -> new ArrayList<>()).add(future);
+            return future;
+        }
+
+        queued.acquire();
+        future = CompletableFuture
+                .allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .thenApplyAsync(ignored -> {
+                    for (CompletableFuture<TestCaseResult> dependency : dependencies) {
+                        TestCaseResult dependencyResult = dependency.join();
+                        if (!dependencyResult.isPassed()) {
+                            return skipped(test, dependencyResult.getTestName());
+                        }
+                    }
+                    return runTest(test, driverPool, artifacts);
+                }, lane.executorFor(test));
+        future.whenComplete((result, e) -> queued.release());
+        resultsById.computeIfAbsent(test.plan.getTestId(), id -> new ArrayList<>()).add(future);
+        return future;
+    }
+
+    private void submit(CompletionService<Integer> completion, List<PreparedTest> tests, int index,
+                        WebDriverPool driverPool, ArtifactStore artifacts) {
+        PreparedTest test = tests.get(index);
+        completion.submit(() -> {
+            test.result = runTest(test, driverPool, artifacts);
+            return index;
+        });
+    }
+
+    private static int takeCompleted(CompletionService<Integer> completion) throws InterruptedException {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            // runTest catches everything, so this only happens if the worker itself broke
+            throw new IllegalStateException("Test worker failed", e.getCause());
+        }
+    }
+
+    private static TestCaseResult skipped(PreparedTest test, String dependencyName) {
+        return new TestCaseResult(test.sourceFile, test.testName, TestCaseResult.Status.SKIPPED, 0,
+                "Depends on '" + dependencyName + "', which did not pass", null);
+    }
+
+    // History to look up flaky test cases in, or null when quarantine is off or there is no readable history
+    private HistoryStore openFlakyHistory() {
+        if (!quarantineFlaky) {
+            return null;
+        }
+        try {
+            return HistoryStore.open();
+        } catch (IOException e) {
+            System.err.println("Failed to read test history, no test case is quarantined: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void quarantine(PreparedTest test, FlakinessAnalyzer flakiness) {
+        if (flakiness == null || test.result != null) {
+            return;
+        }
+        try {
+            FlakinessAnalyzer.Flakiness result = flakiness.analyze(test.testName);
+            if (result.isFlaky()) {
+                test.quarantined = true;
+                System.out.println(String.format("Quarantined as flaky: %s (outcome flipped in %d of %d consecutive runs)",
+                        test.testName, result.getFlips(), result.getPairs()));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read history of " + test.testName + ": " + e.getMessage());
+        }
+    }
+
+    private HistoryRecorder startHistory(ArtifactStore artifacts, long suiteStart) {
+        if (!recordHistory) {
+            return null;
+        }
+        HistoryRecorder history = new HistoryRecorder(artifacts.getRunId(), suiteStart);
+        artifacts.addListener(history);
+        return history;
+    }
+
+    // Adds the outcomes of the suite to the history store, for trends across runs
+    private static void saveHistory(HistoryRecorder history, SuiteResult suiteResult) {
+        if (history == null) {
+            return;
+        }
+        for (TestCaseResult result : suiteResult.getResults()) {
+            history.finishTest(result.getTestName(), result.getStatus().name(), result.getDurationMillis());
+        }
+        try (HistoryStore store = HistoryStore.open()) {
+            history.save(store);
+        } catch (IOException e) {
+            System.err.println("Failed to update test history: " + e.getMessage());
+        }
+    }
+
+    private static void writeWaitSavingsReport(ArtifactStore artifacts) {
+        if (WaitSavings.isEmpty()) {
+            return;
+        }
+        Path csvFile = artifacts.getDirectory().resolve("wait-savings.csv");
+        try {
+            long totalSaved = WaitSavings.writeReport(csvFile);
+            System.out.println("Condition waits saved " + totalSaved + " ms compared to fixed sleeps: " + csvFile.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write wait savings report: " + e.getMessage());
+        }
+    }
+
+    // Runs the dependency levels one after another, each through its own prefix tree
+    private void runWithSharedPrefixes(List<PreparedTest> tests, TestDependencyGraph graph, WebDriverPool driverPool,
+                                       ArtifactStore artifacts,
+                                       ExecutorService executor) {
+        for (List<Integer> level : graph.getLevels()) {
+            List<PreparedTest> levelTests = new ArrayList<>();
+            List<String> planSources = new ArrayList<>();
+            List<ExecutionPlan> plans = new ArrayList<>();
+            Set<Integer> quarantined = new HashSet<>();
+
+            for (int index : level) {
+                PreparedTest test = tests.get(index);
+                if (test.result != null) {
+                    continue;
+                }
+                for (int dependency : graph.getDependencies(index)) {
+                    if (!tests.get(dependency).result.isPassed()) {
+                        test.result = skipped(test, tests.get(dependency).testName);
+                        break;
+                    }
+                }
+                if (test.result == null) {
+                    if (test.quarantined) {
+                        quarantined.add(plans.size());
+                    }
+                    levelTests.add(test);
+                    planSources.add(test.sourceFile);
+                    plans.add(test.plan);
+                }
+            }
+            if (plans.isEmpty()) {
+                continue;
+            }
+
+            SharedPrefixRunner runner = new SharedPrefixRunner(driverPool, artifacts, executor, pollingSettings, executionListener);
+            runner.setQuarantined(quarantined);
+            List<TestCaseResult> planResults = runner.run(planSources, plans);
+            for (int i = 0; i < planResults.size(); i++) {
+                levelTests.get(i).result = planResults.get(i);
+            }
+        }
+    }
+
+    private TestCaseResult runTest(PreparedTest test, WebDriverPool driverPool, ArtifactStore artifacts) {
+        long start = System.currentTimeMillis();
+        ActionHandler actionHandler = new ActionHandler(driverPool);
+        actionHandler.setArtifactStore(artifacts);
+        actionHandler.setJiraReporting(!test.quarantined);
+        try {
+            actionHandler.setPollingSettings(pollingSettings);
+            actionHandler.setExecutionListener(executionListener);
+            actionHandler.executePlan(test.plan);
+            return new TestCaseResult(test.sourceFile, test.testName, TestCaseResult.Status.PASSED,
+                    System.currentTimeMillis() - start, null, reportPath(actionHandler));
+        } catch (AssertionError e) {
+            return new TestCaseResult(test.sourceFile, test.testName, TestCaseResult.Status.FAILED,
+                    System.currentTimeMillis() - start, e.getMessage(), reportPath(actionHandler));
+        } catch (Exception e) {
+            return new TestCaseResult(test.sourceFile, test.testName, TestCaseResult.Status.ERROR,
+                    System.currentTimeMillis() - start, e.getMessage(), reportPath(actionHandler));
+        } finally {
+            // Workers are reused, so drop this test's reporter state before the next one
+            TestReporter.cleanup();
+        }
+    }
+
+    private static String reportPath(ActionHandler actionHandler) {
+        return actionHandler.getRunContext() != null ? actionHandler.getRunContext().getReportPath() : null;
+    }
+
+    /**
+     * Resolves a directory (searched recursively), a single file or a glob
+     * pattern such as "tests/**.yaml" into a sorted list of YAML files
+     */
+    public static List<Path> resolveYamlFiles(String location) throws IOException {
+        Path path = Paths.get(location);
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> walk = Files.walk(path)) {
+                return walk.filter(Files::isRegularFile)
+                        .filter(SuiteRunner::isYamlFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+        if (Files.isRegularFile(path)) {
+            List<Path> single = new ArrayList<>();
+            single.add(path);
+            return single;
+        }
+
+        // Treat anything else as a glob, walking from the longest wildcard-free prefix
+        String normalized = location.replace('\\', '/');
+        int firstWildcard = indexOfWildcard(normalized);
+        if (firstWildcard < 0) {
+            throw new IOException("No such file or directory: " + location);
+        }
+        int lastSlash = normalized.lastIndexOf('/', firstWildcard);
+        Path baseDir = lastSlash < 0 ? Paths.get(".") : Paths.get(normalized.substring(0, lastSlash + 1));
+        String pattern = lastSlash < 0 ? normalized : normalized.substring(lastSlash + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+
+        if (!Files.isDirectory(baseDir)) {
+            throw new IOException("No such directory: " + baseDir);
+        }
+        try (Stream<Path> walk = Files.walk(baseDir)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(baseDir.relativize(p)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isYamlFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".yaml") || name.endsWith(".yml");
+    }
+}
@@ -0,0 +1,61 @@
+package org.TestifyFW.runner;
+
+/**
+ * Outcome of a single YAML test case executed as part of a suite
+ */
+public class TestCaseResult {
+
+    public enum Status {
+        PASSED, FAILED, ERROR, SKIPPED
+    }
+
+    private final String sourceFile;
+    private final String testName;
+    private final Status status;
+    private final long durationMillis;
+    private final String message;
+    private final String reportPath;
+    private final boolean quarantined;
+
+    public TestCaseResult(String sourceFile, String testName, Status status,
+                          long durationMillis, String message, String reportPath) {
+        this(sourceFile, testName, status, durationMillis, message, reportPath, false);
+    }
+
+    /**
+     * @param quarantined whether the test case ran in the quarantine lane, so its outcome doesn't fail the suite
+     */
+    public TestCaseResult(String sourceFile, String testName, Status status,
+                          long durationMillis, String message, String reportPath, boolean quarantined) {
+        this.sourceFile = sourceFile;
+        this.testName = testName;
+        this.status = status;
+        this.durationMillis = durationMillis;
+        this.message = message;
+        this.reportPath = reportPath;
+        this.quarantined = quarantined;
+    }
+
+    public String getSourceFile() { return sourceFile; }
+    public String getTestName() { return testName; }
+    public Status getStatus() { return status; }
+    public long getDurationMillis() { return durationMillis; }
+    public String getMessage() { return message; }
+    public String getReportPath() { return reportPath; }
+    public boolean isQuarantined() { return quarantined; }
+
+    // The same result, from the quarantine lane
+    TestCaseResult quarantine() {
+        return new TestCaseResult(sourceFile, testName, status, durationMillis, message, reportPath, true);
+    }
+
+    public boolean isPassed() {
+        return status == Status.PASSED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-7s %s (%d ms)%s%s", status, testName, durationMillis,
+                quarantined ? " [quarantined]" : "", message != null ? " - " + message : "");
+    }
+}
@@ -0,0 +1,130 @@
+package org.TestifyFW.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependencies between the test cases of a suite, taken from their dependsOn lists.
+ * Test cases are addressed by their position in the list the graph was built from.
+ *
+ * Several test cases may share an id (e.g. the dataset rows of a data-driven
+ * test case); depending on that id means depending on all of them.
+ *
+ * A test case whose dependsOn names an unknown id, or which is part of (or
+ * depends on) a cycle, is invalid: it can't be scheduled and is reported
+ * through getError instead.
+ */
+public final class TestDependencyGraph {
+    private final List<List<Integer>> dependencies = new ArrayList<>();
+    private final List<List<Integer>> dependents = new ArrayList<>();
+    private final Map<Integer, String> errors = new HashMap<>();
+    private final List<List<Integer>> levels = new ArrayList<>();
+
+    private TestDependencyGraph(int size) {
+        for (int i = 0; i < size; i++) {
+            dependencies.add(new ArrayList<>());
+            dependents.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @param ids       id of each test case
+     * @param dependsOn ids each test case depends on, in the same order
+     */
+    public static TestDependencyGraph build(List<String> ids, List<List<String>> dependsOn) {
+        TestDependencyGraph graph = new TestDependencyGraph(ids.size());
+
+        Map<String, List<Integer>> indexesById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            indexesById.computeIfAbsent(ids.get(i), id -> new ArrayList<>()).add(i);
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            Set<Integer> resolved = new LinkedHashSet<>();
+            for (String id : dependsOn.get(i)) {
+                List<Integer> matches = indexesById.get(id);
+                if (matches == null) {
+                    graph.errors.putIfAbsent(i, "dependsOn '" + id + "' does not name a test case in this suite");
+                } else if (matches.contains(i)) {
+                    graph.errors.putIfAbsent(i, "test case depends on itself");
+                } else {
+                    resolved.addAll(matches);
+                }
+            }
+            for (int dependency : resolved) {
+                graph.dependencies.get(i).add(dependency);
+                graph.dependents.get(dependency).add(i);
+            }
+        }
+
+        graph.computeLevels(ids);
+        return graph;
+    }
+
+    // Kahn's algorithm; whatever is left over afterwards is on or behind a cycle
+    private void computeLevels(List<String> ids) {
+        int[] unresolved = new int[dependencies.size()];
+        List<Integer> current = new ArrayList<>();
+        for (int i = 0; i < dependencies.size(); i++) {
+            unresolved[i] = dependencies.get(i).size();
+            if (unresolved[i] == 0) {
+                current.add(i);
+            }
+        }
+
+        int placed = 0;
+        while (!current.isEmpty()) {
+            levels.add(Collections.unmodifiableList(current));
+            placed += current.size();
+            List<Integer> next = new ArrayList<>();
+            for (int node : current) {
+                for (int dependent : dependents.get(node)) {
+                    if (--unresolved[dependent] == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            current = next;
+        }
+
+        if (placed < dependencies.size()) {
+            for (int i = 0; i < unresolved.length; i++) {
+                if (unresolved[i] > 0) {
+                    errors.putIfAbsent(i, "dependsOn of '" + ids.get(i) + "' is part of, or leads into, a cycle");
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return dependencies.size();
+    }
+
+    public List<Integer> getDependencies(int index) {
+        return Collections.unmodifiableList(dependencies.get(index));
+    }
+
+    public List<Integer> getDependents(int index) {
+        return Collections.unmodifiableList(dependents.get(index));
+    }
+
+    /**
+     * Why the test case can't be scheduled, or null if it can
+     */
+    public String getError(int index) {
+        return errors.get(index);
+    }
+
+    /**
+     * Test cases grouped so that each only depends on test cases in earlier groups.
+     * Test cases on or behind a cycle are not part of any group.
+     */
+    public List<List<Integer>> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+}
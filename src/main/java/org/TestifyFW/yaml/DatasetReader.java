@@ -0,0 +1,139 @@
+package org.TestifyFW.yaml;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the rows of a test dataset.
+ *
+ * CSV files have a header row naming the columns; fields may be quoted with
+ * double quotes (a doubled quote inside a quoted field is a literal quote).
+ * JSON files hold an array of flat objects. Every value is read as a string.
+ */
+public final class DatasetReader {
+
+    private DatasetReader() {
+    }
+
+    public static List<Map<String, String>> read(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".json")) {
+            return readJson(file);
+        }
+        if (name.endsWith(".csv")) {
+            return readCsv(file);
+        }
+        throw new IOException("Unsupported dataset format (expected .csv or .json): " + file);
+    }
+
+    private static List<Map<String, String>> readJson(Path file) throws IOException {
+        Object data;
+        // JSON is a subset of YAML, so SnakeYAML can parse it
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            data = new Yaml().load(reader);
+        }
+        if (!(data instanceof List)) {
+            throw new IOException("Dataset " + file + " must contain a JSON array of objects");
+        }
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (Object item : (List<?>) data) {
+            if (!(item instanceof Map)) {
+                throw new IOException("Dataset " + file + ", row " + (rows.size() + 1) + " is not an object");
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) item).entrySet()) {
+                row.put(String.valueOf(entry.getKey()), entry.getValue() != null ? entry.getValue().toString() : "");
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Map<String, String>> readCsv(Path file) throws IOException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                return rows;
+            }
+            // Drop a byte order mark left by spreadsheet exports
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+
+            List<String> record;
+            while ((record = readRecord(reader)) != null) {
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue;
+                }
+                if (record.size() > header.size()) {
+                    throw new IOException("Dataset " + file + ", row " + (rows.size() + 1) + " has "
+                            + record.size() + " fields but the header has " + header.size());
+                }
+                Map<String, String> row = new LinkedHashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    row.put(header.get(i).trim(), i < record.size() ? record.get(i) : "");
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    // Reads one record, which may span several lines when a quoted field contains line breaks
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field in dataset");
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
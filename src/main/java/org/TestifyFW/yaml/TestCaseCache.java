@@ -0,0 +1,269 @@
+package org.TestifyFW.yaml;
+
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.model.TestFixture;
+import org.TestifyFW.model.TestStep;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of parsed test files, so running the same YAML file again
+ * skips parsing. Entries are keyed by absolute path and checked against the
+ * file's modification time and size on every lookup.
+ *
+ * With a cache directory configured, parsed models are also stored on disk
+ * under the SHA-256 of the file content, which lets later JVM runs skip
+ * parsing of unchanged files as well.
+ *
+ * An entry holds the test cases of every document in the file. Every lookup
+ * returns its own copy of them, so a caller that edits a test case (e.g. the
+ * GUI) never changes what other callers get. Files in the cache directory are
+ * only deserialized into the model classes and standard collections.
+ *
+ * Configuration (system properties):
+ *   testify.yaml.cacheSize - maximum number of cached files (default 10000, 0 disables the cache)
+ *   testify.yaml.cacheDir  - directory for the on-disk cache (default none)
+ */
+public final class TestCaseCache {
+    // Part of every disk key, bump it when the model classes change incompatibly
+    private static final String FORMAT_VERSION = "3";
+    // Everything the model classes hold; anything else in a cache file is rejected before it is instantiated
+    private static final ObjectInputFilter MODEL_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=20;maxrefs=1000000;maxbytes=67108864;"
+            + TestCase.class.getName() + ";" + TestStep.class.getName() + ";" + TestFixture.class.getName() + ";"
+            + "java.util.ArrayList;java.util.Arrays$ArrayList;java.util.LinkedHashMap;java.util.HashMap;"
+            + "java.util.Collections$*;java.lang.String;java.lang.Long;java.lang.Integer;java.lang.Boolean;"
+            + "java.lang.Number;java.lang.Object;!*");
+
+    private static final TestCaseCache defaultCache = new TestCaseCache(
+            Integer.getInteger("testify.yaml.cacheSize", 10000),
+            System.getProperty("testify.yaml.cacheDir") != null ? Paths.get(System.getProperty("testify.yaml.cacheDir")) : null);
+
+    private final int maxEntries;
+    private final Path diskDirectory;
+    private final Map<Path, CachedFile> entries;
+
+    private int hits;
+    private int diskHits;
+    private int misses;
+
+    @FunctionalInterface
+    public interface Parser {
+        List<TestCase> parse(byte[] content) throws Exception;
+    }
+
+    private static final class CachedFile {
+        private final long modifiedMillis;
+        private final long size;
+        private final List<TestCase> testCases;
+
+        CachedFile(long modifiedMillis, long size, List<TestCase> testCases) {
+            this.modifiedMillis = modifiedMillis;
+            this.size = size;
+            this.testCases = testCases;
+        }
+    }
+
+    public TestCaseCache(int maxEntries, Path diskDirectory) {
+        this.maxEntries = maxEntries;
+        this.diskDirectory = diskDirectory;
+        this.entries = new LinkedHashMap<Path, CachedFile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedFile> eldest) {
+                return size() > TestCaseCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static TestCaseCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Returns a copy of the cached test cases of the file, parsing it only if it changed
+     */
+    public List<TestCase> get(Path file, Parser parser) throws Exception {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long modifiedMillis = attributes.lastModifiedTime().toMillis();
+
+        synchronized (this) {
+            CachedFile entry = entries.get(key);
+            if (entry != null && entry.modifiedMillis == modifiedMillis && entry.size == attributes.size()) {
+                hits++;
+                return copy(entry.testCases);
+            }
+        }
+
+        // Parse outside the lock so different files load in parallel
+        byte[] content = Files.readAllBytes(key);
+        List<TestCase> testCases = null;
+        String hash = null;
+        if (diskDirectory != null) {
+            hash = sha256(content);
+            testCases = readFromDisk(hash);
+        }
+        boolean fromDisk = testCases != null;
+        if (testCases == null) {
+            testCases = parser.parse(content);
+            if (hash != null) {
+                writeToDisk(hash, testCases);
+            }
+        }
+
+        synchronized (this) {
+            misses++;
+            if (fromDisk) {
+                diskHits++;
+            }
+            if (maxEntries > 0) {
+                entries.put(key, new CachedFile(modifiedMillis, attributes.size(), testCases));
+            }
+        }
+        return copy(testCases);
+    }
+
+    // Deep copy of the models; a dataset instance points to the copy of its test case
+    private static List<TestCase> copy(List<TestCase> testCases) {
+        Map<TestCase, TestCase> copies = new IdentityHashMap<>();
+        List<TestCase> result = new ArrayList<>(testCases.size());
+        for (TestCase testCase : testCases) {
+            result.add(copy(testCase, copies));
+        }
+        return result;
+    }
+
+    private static TestCase copy(TestCase testCase, Map<TestCase, TestCase> copies) {
+        if (testCase == null) {
+            return null;
+        }
+        TestCase copy = copies.get(testCase);
+        if (copy != null) {
+            return copy;
+        }
+        copy = new TestCase();
+        copies.put(testCase, copy);
+        copy.setId(testCase.getId());
+        copy.setName(testCase.getName());
+        copy.setSteps(copySteps(testCase.getSteps()));
+        copy.setTimeout(testCase.getTimeout());
+        copy.setPollInterval(testCase.getPollInterval());
+        if (testCase.getSetup() != null) {
+            TestFixture setup = new TestFixture();
+            setup.setName(testCase.getSetup().getName());
+            setup.setTtl(testCase.getSetup().getTtl());
+            setup.setSteps(copySteps(testCase.getSetup().getSteps()));
+            copy.setSetup(setup);
+        }
+        copy.setDependsOn(testCase.getDependsOn() != null ? new ArrayList<>(testCase.getDependsOn()) : null);
+        copy.setDataset(testCase.getDataset());
+        copy.setInstanceOf(copy(testCase.getInstanceOf(), copies));
+        copy.setParameters(testCase.getParameters() != null ? new LinkedHashMap<>(testCase.getParameters()) : null);
+        return copy;
+    }
+
+    private static List<TestStep> copySteps(List<TestStep> steps) {
+        if (steps == null) {
+            return null;
+        }
+        List<TestStep> copies = new ArrayList<>(steps.size());
+        for (TestStep step : steps) {
+            TestStep copy = new TestStep();
+            copy.setId(step.getId());
+            copy.setAction(step.getAction());
+            copy.setElement(step.getElement());
+            copy.setValue(step.getValue());
+            copy.setUrl(step.getUrl());
+            copy.setExpected(step.getExpected());
+            copy.setEndOfTest(step.isEndOfTest());
+            copy.setSelectorType(step.getSelectorType());
+            copy.setSelector(step.getSelector());
+            copy.setCritical(step.isCritical());
+            copy.setDependsOn(step.getDependsOn());
+            copy.setReplacesSleep(step.getReplacesSleep());
+            copy.setTimeout(step.getTimeout());
+            copy.setPollInterval(step.getPollInterval());
+            copy.setLine(step.getLine());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized String getStatistics() {
+        return hits + " hit(s), " + misses + " miss(es)"
+                + (diskDirectory != null ? " of which " + diskHits + " loaded from " + diskDirectory : "");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TestCase> readFromDisk(String hash) {
+        Path file = diskDirectory.resolve(hash + ".ser");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            in.setObjectInputFilter(MODEL_FILTER);
+            return (List<TestCase>) in.readObject();
+        } catch (Exception e) {
+            // Unreadable (e.g. written by an older version), it will be replaced
+            System.err.println("Ignoring cached test case " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String hash, List<TestCase> testCases) {
+        try {
+            Files.createDirectories(diskDirectory);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(testCases);
+            }
+            // Write to a temporary file first so other JVMs never read a half written entry
+            Path temp = Files.createTempFile(diskDirectory, hash, ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, diskDirectory.resolve(hash + ".ser"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to store parsed test case in " + diskDirectory + ": " + e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(FORMAT_VERSION.getBytes());
+            byte[] hash = digest.digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
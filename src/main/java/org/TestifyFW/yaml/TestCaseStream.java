@@ -0,0 +1,96 @@
+package org.TestifyFW.yaml;
+
+import org.TestifyFW.model.TestCase;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The test cases of a YAML file, read one "---" separated document at a time,
+ * so a large generated suite is never held in memory as a whole. Nothing is
+ * read ahead of the document being returned.
+ *
+ * next() throws TestLoadException for a document that isn't a valid test case;
+ * the following documents can still be read. Malformed YAML ends the stream,
+ * since the parser can't tell where the next document would start.
+ */
+public final class TestCaseStream implements Iterator<TestCase>, Closeable {
+    private final String file;
+    private final Reader reader;
+    private final Iterator<Node> documents;
+    private Node pending;
+    private TestLoadException pendingError;
+    private boolean finished;
+    private int documentNumber;
+
+    TestCaseStream(String file, Reader reader) {
+        this.file = file;
+        this.reader = reader;
+        this.documents = YamlTestLoader.yaml().composeAll(reader).iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && pendingError == null && !finished) {
+            advance();
+        }
+        return pending != null || pendingError != null;
+    }
+
+    /**
+     * @throws TestLoadException if the document is not a valid test case
+     */
+    @Override
+    public TestCase next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (pendingError != null) {
+            TestLoadException error = pendingError;
+            pendingError = null;
+            throw error;
+        }
+        Node root = pending;
+        pending = null;
+        return YamlTestLoader.build(file, root);
+    }
+
+    /**
+     * Position of the last returned document among the non-empty documents of the file, starting at 1
+     */
+    public int getDocumentNumber() {
+        return documentNumber;
+    }
+
+    private void advance() {
+        try {
+            while (documents.hasNext()) {
+                Node root = documents.next();
+                // Skip empty documents, e.g. from a leading or trailing "---"
+                if (root != null && !YamlTestLoader.isEmptyDocument(root)) {
+                    documentNumber++;
+                    pending = root;
+                    return;
+                }
+            }
+        } catch (YAMLException e) {
+            pendingError = YamlTestLoader.syntaxError(file, e);
+        }
+        finished = true;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.TestifyFW.yaml;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a YAML test file can't be read or doesn't match the test case
+ * format. Each error is prefixed with its position, e.g. "login.yaml:12:5: ...".
+ */
+public class TestLoadException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String file;
+    private final List<String> errors;
+
+    public TestLoadException(String file, List<String> errors) {
+        super("Invalid test file '" + file + "':\n  - " + String.join("\n  - ", errors));
+        this.file = file;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
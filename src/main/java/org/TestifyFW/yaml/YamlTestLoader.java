@@ -1,65 +1,400 @@
 package org.TestifyFW.yaml;
 
 import org.TestifyFW.model.TestCase;
+import org.TestifyFW.model.TestFixture;
 import org.TestifyFW.model.TestStep;
 import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class YamlTestLoader {
+    private static final Set<String> TEST_CASE_KEYS = new HashSet<>(Arrays.asList(
+            "id", "testCaseName", "timeout", "pollInterval", "dependsOn", "dataset", "setup", "steps"));
+    private static final Set<String> SETUP_KEYS = new HashSet<>(Arrays.asList("name", "ttl", "steps"));
+    private static final Set<String> STEP_KEYS = new HashSet<>(Arrays.asList(
+            "id", "action", "selectorType", "selector", "value", "expected", "url", "critical", "endOfTest",
+            "replacesSleep", "timeout", "pollInterval", "dependsOn"));
 
+    // Yaml instances are not thread safe, and building one per file is wasted work
+    private static final ThreadLocal<Yaml> yaml = ThreadLocal.withInitial(Yaml::new);
+
+    /**
+     * Loads a single-document test file through the shared TestCaseCache, so
+     * unchanged files are only parsed once. The returned test case is the
+     * caller's own copy.
+     *
+     * @throws TestLoadException if the file can't be read, is not a valid test case
+     *                           or holds several test cases
+     */
     public TestCase loadTestCase(String yamlFilePath) {
-        try (InputStream input = new FileInputStream(yamlFilePath)) {
-            Yaml yaml = new Yaml();
-            Map<String, Object> data = yaml.load(input);
+        List<TestCase> testCases = loadTestCases(yamlFilePath);
+        if (testCases.size() > 1) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(
+                    yamlFilePath + ": holds " + testCases.size() + " test cases, expected one"));
+        }
+        return testCases.get(0);
+    }
+
+    /**
+     * Loads every test case of the file, one per "---" separated document,
+     * through the shared TestCaseCache. The returned test cases are the
+     * caller's own copies. Use openStream to read a large file lazily instead.
+     *
+     * @throws TestLoadException if the file can't be read or a document is not a valid test case
+     */
+    public List<TestCase> loadTestCases(String yamlFilePath) {
+        try {
+            return TestCaseCache.getDefault().get(Paths.get(yamlFilePath), content -> parse(yamlFilePath, content));
+        } catch (TestLoadException e) {
+            throw e;
+        } catch (NoSuchFileException e) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(yamlFilePath + ": file not found"));
+        } catch (Exception e) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(yamlFilePath + ": " + e));
+        }
+    }
+
+    /**
+     * Opens the file for reading its test cases one document at a time. The
+     * stream bypasses the cache; close it when done.
+     *
+     * @throws TestLoadException if the file can't be opened
+     */
+    public TestCaseStream openStream(String yamlFilePath) {
+        try {
+            return new TestCaseStream(yamlFilePath, Files.newBufferedReader(Paths.get(yamlFilePath), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(yamlFilePath + ": file not found"));
+        } catch (IOException e) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(yamlFilePath + ": " + e));
+        }
+    }
 
+    /**
+     * Builds the models from the file content, reporting every schema error
+     * with its line and column. Lists are read-only because the result is cached.
+     */
+    static List<TestCase> parse(String file, byte[] content) {
+        List<TestCase> testCases = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        try (TestCaseStream stream = new TestCaseStream(file,
+                new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            while (stream.hasNext()) {
+                try {
+                    testCases.add(stream.next());
+                } catch (TestLoadException e) {
+                    errors.addAll(e.getErrors());
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new TestLoadException(file, errors);
+        }
+        if (testCases.isEmpty()) {
+            throw new TestLoadException(file, Collections.singletonList(file + ": file is empty"));
+        }
+        return Collections.unmodifiableList(testCases);
+    }
+
+    static Yaml yaml() {
+        return yaml.get();
+    }
+
+    // Builds one document's test case
+    static TestCase build(String file, Node root) {
+        ModelBuilder builder = new ModelBuilder(file);
+        TestCase testCase = builder.testCase(root);
+        if (!builder.errors.isEmpty()) {
+            throw new TestLoadException(file, builder.errors);
+        }
+        return testCase;
+    }
+
+    static boolean isEmptyDocument(Node root) {
+        return ModelBuilder.isNull(root);
+    }
+
+    static TestLoadException syntaxError(String file, YAMLException e) {
+        if (e instanceof MarkedYAMLException) {
+            MarkedYAMLException marked = (MarkedYAMLException) e;
+            Mark mark = marked.getProblemMark() != null ? marked.getProblemMark() : marked.getContextMark();
+            return new TestLoadException(file, Collections.singletonList(
+                    (mark != null ? position(file, mark) : file + ": ") + marked.getProblem()));
+        }
+        return new TestLoadException(file, Collections.singletonList(file + ": " + e.getMessage()));
+    }
+
+    /**
+     * Loads the test cases of a file and expands those that name a dataset
+     * (see expandDataset)
+     *
+     * @throws TestLoadException if the file or a dataset can't be loaded
+     */
+    public List<TestCase> loadTestCaseInstances(String yamlFilePath) {
+        List<TestCase> testCases = loadTestCases(yamlFilePath);
+        if (testCases.size() == 1) {
+            return expandDataset(testCases.get(0), yamlFilePath);
+        }
+        List<TestCase> instances = new ArrayList<>();
+        for (TestCase testCase : testCases) {
+            instances.addAll(expandDataset(testCase, yamlFilePath));
+        }
+        return instances;
+    }
+
+    /**
+     * If the test case names a dataset, expands it into one instance per
+     * dataset row. Instances are named "<name> [row]" and share the id of the
+     * test case, so dependsOn on that id waits for all of them. The dataset
+     * path is resolved relative to the YAML file.
+     *
+     * @throws TestLoadException if the dataset can't be loaded
+     */
+    public List<TestCase> expandDataset(TestCase testCase, String yamlFilePath) {
+        if (testCase.getDataset() == null) {
+            return Collections.singletonList(testCase);
+        }
+        Path yamlDir = Paths.get(yamlFilePath).toAbsolutePath().getParent();
+        Path datasetFile = yamlDir.resolve(testCase.getDataset());
+        List<Map<String, String>> rows;
+        try {
+            rows = DatasetReader.read(datasetFile);
+        } catch (Exception e) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(
+                    yamlFilePath + ": failed to read dataset " + datasetFile + ": " + e.getMessage()));
+        }
+        if (rows.isEmpty()) {
+            throw new TestLoadException(yamlFilePath, Collections.singletonList(
+                    yamlFilePath + ": dataset " + datasetFile + " has no rows"));
+        }
+
+        List<TestCase> instances = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TestCase instance = new TestCase();
+            instance.setId(testCase.getId() != null ? testCase.getId() : testCase.getName());
+            instance.setName(testCase.getName() + " [" + (i + 1) + "]");
+            instance.setSteps(testCase.getSteps());
+            instance.setSetup(testCase.getSetup());
+            instance.setTimeout(testCase.getTimeout());
+            instance.setPollInterval(testCase.getPollInterval());
+            instance.setDependsOn(testCase.getDependsOn());
+            instance.setInstanceOf(testCase);
+            instance.setParameters(rows.get(i));
+            instances.add(instance);
+        }
+        return instances;
+    }
+
+    private static String position(String file, Mark mark) {
+        return file + ":" + (mark.getLine() + 1) + ":" + (mark.getColumn() + 1) + ": ";
+    }
+
+    // Walks the YAML node tree, so errors can point at the line they come from
+    private static final class ModelBuilder {
+        private final String file;
+        private final List<String> errors = new ArrayList<>();
+
+        ModelBuilder(String file) {
+            this.file = file;
+        }
+
+        TestCase testCase(Node root) {
             TestCase testCase = new TestCase();
-            testCase.setName((String) data.get("testCaseName"));
+            Map<String, Node> data = mapping(root, TEST_CASE_KEYS, "test case");
+            if (data == null) {
+                return testCase;
+            }
+            testCase.setId(string(data.get("id")));
+            testCase.setName(string(data.get("testCaseName")));
+            testCase.setTimeout(number(data.get("timeout"), "timeout"));
+            testCase.setPollInterval(number(data.get("pollInterval"), "pollInterval"));
+            List<String> dependsOn = stringList(data.get("dependsOn"));
+            testCase.setDependsOn(dependsOn != null ? Collections.unmodifiableList(dependsOn) : null);
+            testCase.setDataset(string(data.get("dataset")));
 
-            List<TestStep> steps = new ArrayList<>();
-            List<LinkedHashMap<String, Object>> yamlSteps = (List<LinkedHashMap<String, Object>>) data.get("steps");
+            Node setupNode = data.get("setup");
+            if (setupNode != null && !isNull(setupNode)) {
+                Map<String, Node> setup = mapping(setupNode, SETUP_KEYS, "setup");
+                if (setup != null) {
+                    TestFixture fixture = new TestFixture();
+                    fixture.setName(string(setup.get("name")));
+                    fixture.setTtl(number(setup.get("ttl"), "ttl"));
+                    fixture.setSteps(Collections.unmodifiableList(steps(setup.get("steps"))));
+                    testCase.setSetup(fixture);
+                }
+            }
 
-            for (LinkedHashMap<String, Object> yamlStep : yamlSteps) {
-                TestStep step = new TestStep();
+            testCase.setSteps(Collections.unmodifiableList(steps(data.get("steps"))));
+            return testCase;
+        }
 
-                step.setAction((String) yamlStep.get("action"));
+        private List<TestStep> steps(Node node) {
+            List<TestStep> steps = new ArrayList<>();
+            if (node == null || isNull(node)) {
+                return steps;
+            }
+            if (!(node instanceof SequenceNode)) {
+                error(node, "steps must be a list");
+                return steps;
+            }
+            for (Node stepNode : ((SequenceNode) node).getValue()) {
+                Map<String, Node> yamlStep = mapping(stepNode, STEP_KEYS, "step");
+                if (yamlStep == null) {
+                    continue;
+                }
+                TestStep step = new TestStep();
+                step.setLine(stepNode.getStartMark().getLine() + 1);
+                step.setId(string(yamlStep.get("id")));
+                step.setAction(string(yamlStep.get("action")));
 
                 // Handle selector
-                String selectorType = (String) yamlStep.get("selectorType");
-                String selector = (String) yamlStep.get("selector");
-
+                String selectorType = string(yamlStep.get("selectorType"));
+                String selector = string(yamlStep.get("selector"));
                 if (selectorType != null && selector != null) {
                     step.setSelectorType(selectorType);
                     step.setSelector(selector);
                     step.setElement(selectorType + "=" + selector);
+                } else if (selectorType != null || selector != null) {
+                    error(stepNode, "selectorType and selector must be given together");
                 }
 
                 // Handle other fields
-                step.setValue(yamlStep.get("value") != null ? yamlStep.get("value").toString() : null);
-                step.setExpected((String) yamlStep.get("expected"));
-                step.setUrl((String) yamlStep.get("url"));
-
-                Boolean critical = (Boolean) yamlStep.get("critical");
-                step.setCritical(critical != null ? critical : false);
+                step.setValue(string(yamlStep.get("value")));
+                step.setExpected(string(yamlStep.get("expected")));
+                step.setUrl(string(yamlStep.get("url")));
+                step.setCritical(bool(yamlStep.get("critical"), "critical"));
+                step.setEndOfTest(bool(yamlStep.get("endOfTest"), "endOfTest"));
+                step.setReplacesSleep(number(yamlStep.get("replacesSleep"), "replacesSleep"));
+                step.setTimeout(number(yamlStep.get("timeout"), "timeout"));
+                step.setPollInterval(number(yamlStep.get("pollInterval"), "pollInterval"));
 
-                Boolean endOfTest = (Boolean) yamlStep.get("endOfTest");
-                step.setEndOfTest(endOfTest != null ? endOfTest : false);
+                // dependsOn may be a single ID, a comma separated string or a list
+                List<String> dependsOn = stringList(yamlStep.get("dependsOn"));
+                step.setDependsOn(dependsOn != null ? String.join(",", dependsOn) : null);
 
                 steps.add(step);
             }
+            return steps;
+        }
 
-            testCase.setSteps(steps);
-            return testCase;
+        private Map<String, Node> mapping(Node node, Set<String> allowedKeys, String what) {
+            if (!(node instanceof MappingNode)) {
+                error(node, "expected a " + what + " with keys, not " + describe(node));
+                return null;
+            }
+            Map<String, Node> values = new LinkedHashMap<>();
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                Node keyNode = tuple.getKeyNode();
+                String key = keyNode instanceof ScalarNode ? ((ScalarNode) keyNode).getValue() : null;
+                if (key == null || !allowedKeys.contains(key)) {
+                    error(keyNode, "unknown " + what + " key '" + key + "'");
+                } else if (values.put(key, tuple.getValueNode()) != null) {
+                    error(keyNode, "duplicate key '" + key + "'");
+                }
+            }
+            return values;
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+        private String string(Node node) {
+            if (node == null || isNull(node)) {
+                return null;
+            }
+            if (!(node instanceof ScalarNode)) {
+                error(node, "expected a single value, not " + describe(node));
+                return null;
+            }
+            return ((ScalarNode) node).getValue();
+        }
+
+        private Long number(Node node, String key) {
+            String value = string(node);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                error(node, key + " must be a whole number, not '" + value + "'");
+                return null;
+            }
+        }
+
+        private boolean bool(Node node, String key) {
+            String value = string(node);
+            if (value == null) {
+                return false;
+            }
+            if (!Tag.BOOL.equals(node.getTag())) {
+                error(node, key + " must be true or false, not '" + value + "'");
+                return false;
+            }
+            String normalized = value.toLowerCase();
+            return normalized.equals("true") || normalized.equals("yes") || normalized.equals("on") || normalized.equals("y");
+        }
+
+        private List<String> stringList(Node node) {
+            if (node == null || isNull(node)) {
+                return null;
+            }
+            List<String> items = new ArrayList<>();
+            if (node instanceof SequenceNode) {
+                for (Node item : ((SequenceNode) node).getValue()) {
+                    String value = string(item);
+                    if (value != null) {
+                        items.add(value.trim());
+                    }
+                }
+            } else {
+                String value = string(node);
+                for (String item : value != null ? value.split(",") : new String[0]) {
+                    if (!item.trim().isEmpty()) {
+                        items.add(item.trim());
+                    }
+                }
+            }
+            return items;
+        }
+
+        private static boolean isNull(Node node) {
+            return Tag.NULL.equals(node.getTag());
+        }
+
+        private static String describe(Node node) {
+            if (node instanceof SequenceNode) {
+                return "a list";
+            }
+            if (node instanceof MappingNode) {
+                return "a mapping";
+            }
+            return "'" + ((ScalarNode) node).getValue() + "'";
+        }
+
+        private void error(Node node, String message) {
+            errors.add(position(file, node.getStartMark()) + message);
         }
     }
-}
\ No newline at end of file
+}
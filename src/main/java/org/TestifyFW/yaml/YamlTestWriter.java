@@ -23,55 +23,102 @@ public class YamlTestWriter {
             Yaml yaml = new Yaml(options);
 
             Map<String, Object> data = new LinkedHashMap<>();
+            if (testCase.getId() != null) {
+                data.put("id", testCase.getId());
+            }
             data.put("testCaseName", testCase.getName());
+            if (testCase.getDependsOn() != null && !testCase.getDependsOn().isEmpty()) {
+                data.put("dependsOn", testCase.getDependsOn());
+            }
+            if (testCase.getDataset() != null) {
+                data.put("dataset", testCase.getDataset());
+            }
+            if (testCase.getTimeout() != null) {
+                data.put("timeout", testCase.getTimeout());
+            }
+            if (testCase.getPollInterval() != null) {
+                data.put("pollInterval", testCase.getPollInterval());
+            }
 
-            List<Map<String, Object>> steps = new ArrayList<>();
+            if (testCase.getSetup() != null) {
+                Map<String, Object> setup = new LinkedHashMap<>();
+                setup.put("name", testCase.getSetup().getName());
+                if (testCase.getSetup().getTtl() != null) {
+                    setup.put("ttl", testCase.getSetup().getTtl());
+                }
+                setup.put("steps", toStepMaps(testCase.getSetup().getSteps()));
+                data.put("setup", setup);
+            }
 
-            for (TestStep step : testCase.getSteps()) {
-                Map<String, Object> stepMap = new LinkedHashMap<>();
+            data.put("steps", toStepMaps(testCase.getSteps()));
 
-                // Add all step properties
-                stepMap.put("action", step.getAction());
+            yaml.dump(data, writer);
 
-                // Only include selector details if they exist
-                if (step.getSelectorType() != null && !step.getSelectorType().isEmpty()) {
-                    stepMap.put("selectorType", step.getSelectorType());
-                    stepMap.put("selector", step.getSelector());
-                }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-                // Add other properties, only if they have values
-                if (step.getValue() != null && !step.getValue().isEmpty()) {
-                    stepMap.put("value", step.getValue());
-                }
+    private static List<Map<String, Object>> toStepMaps(List<TestStep> steps) {
+        List<Map<String, Object>> stepMaps = new ArrayList<>();
 
-                if (step.getExpected() != null && !step.getExpected().isEmpty()) {
-                    stepMap.put("expected", step.getExpected());
-                }
+        for (TestStep step : steps) {
+            Map<String, Object> stepMap = new LinkedHashMap<>();
 
-                if (step.getUrl() != null && !step.getUrl().isEmpty()) {
-                    stepMap.put("url", step.getUrl());
-                }
+            // Add all step properties
+            if (step.getId() != null && !step.getId().isEmpty()) {
+                stepMap.put("id", step.getId());
+            }
+            stepMap.put("action", step.getAction());
 
-                // Include boolean properties
-                if (step.isCritical()) {
-                    stepMap.put("critical", true);
-                }
+            // Only include selector details if they exist
+            if (step.getSelectorType() != null && !step.getSelectorType().isEmpty()) {
+                stepMap.put("selectorType", step.getSelectorType());
+                stepMap.put("selector", step.getSelector());
+            }
 
-                if (step.isEndOfTest()) {
-                    stepMap.put("endOfTest", true);
-                }
+            // Add other properties, only if they have values
+            if (step.getValue() != null && !step.getValue().isEmpty()) {
+                stepMap.put("value", step.getValue());
+            }
 
-                steps.add(stepMap);
+            if (step.getExpected() != null && !step.getExpected().isEmpty()) {
+                stepMap.put("expected", step.getExpected());
             }
 
-            data.put("steps", steps);
+            if (step.getUrl() != null && !step.getUrl().isEmpty()) {
+                stepMap.put("url", step.getUrl());
+            }
 
-            yaml.dump(data, writer);
+            // Include boolean properties
+            if (step.isCritical()) {
+                stepMap.put("critical", true);
+            }
 
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+            if (step.isEndOfTest()) {
+                stepMap.put("endOfTest", true);
+            }
+
+            if (step.getReplacesSleep() != null) {
+                stepMap.put("replacesSleep", step.getReplacesSleep());
+            }
+
+            if (step.getTimeout() != null) {
+                stepMap.put("timeout", step.getTimeout());
+            }
+
+            if (step.getPollInterval() != null) {
+                stepMap.put("pollInterval", step.getPollInterval());
+            }
+
+            if (step.getDependsOn() != null && !step.getDependsOn().isEmpty()) {
+                stepMap.put("dependsOn", step.getDependsOn());
+            }
+
+            stepMaps.add(stepMap);
         }
+        return stepMaps;
     }
-}
\ No newline at end of file
+}
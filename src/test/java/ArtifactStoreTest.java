@@ -0,0 +1,44 @@
+import org.TestifyFW.reporter.ArtifactStore;
+import org.TestifyFW.reporter.ScreenshotWriter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+public class ArtifactStoreTest {
+
+    @Test(description = "Runs and tests never share a directory, identical screenshots are stored once")
+    public void keepsArtifactsApart() throws Exception {
+        Path base = Files.createTempDirectory("testify-artifacts");
+        ArtifactStore first = ArtifactStore.createRun(base);
+        ArtifactStore second = ArtifactStore.createRun(base);
+        Assert.assertNotEquals(first.getDirectory(), second.getDirectory());
+
+        String login = first.createTest("Login Test");
+        String again = first.createTest("Login Test");
+        Assert.assertEquals(login, "0001-login-test");
+        Assert.assertEquals(again, "0002-login-test");
+
+        byte[] image = "not really a png".getBytes(StandardCharsets.UTF_8);
+        List<Future<?>> pending = new ArrayList<>();
+        String file = first.saveScreenshot(image, pending);
+        Assert.assertEquals(first.saveScreenshot(image.clone(), pending), file);
+        ScreenshotWriter.awaitAll(pending);
+        try (java.util.stream.Stream<Path> stored = Files.list(first.getDirectory().resolve("screenshots"))) {
+            Assert.assertEquals(stored.count(), 1);
+        }
+
+        first.recordTest(login, "Login Test", "PASSED", "tests/" + login + "/report.html", Collections.<String>emptyList());
+        first.close();
+        second.close();
+        List<String> manifest = Files.readAllLines(first.getDirectory().resolve("manifest.jsonl"));
+        Assert.assertEquals(manifest.size(), 2);
+        Assert.assertTrue(manifest.get(1).contains("\"testId\": \"0001-login-test\""), manifest.get(1));
+    }
+}
@@ -0,0 +1,52 @@
+import org.TestifyFW.history.FlakinessAnalyzer;
+import org.TestifyFW.history.HistoryStore;
+import org.TestifyFW.history.HistoryStore.Outcome;
+import org.TestifyFW.history.HistoryStore.StepRun;
+import org.TestifyFW.history.HistoryStore.TestRun;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class FlakinessAnalyzerTest {
+
+    @Test(description = "Only tests whose outcome flips without their definition changing are flaky")
+    public void scoresOutcomeFlips() throws Exception {
+        try (HistoryStore store = HistoryStore.open(Files.createTempDirectory("testify-flaky"))) {
+            for (int night = 0; night < 10; night++) {
+                Outcome submit = night % 2 == 0 ? Outcome.PASSED : Outcome.FAILED;
+                // Edited after night 4 and broken ever since
+                Outcome checkout = night < 5 ? Outcome.PASSED : Outcome.FAILED;
+                List<TestRun> runs = new ArrayList<>();
+                runs.add(new TestRun(night, "run-" + night, "Login", submit, 1000, 42L, Arrays.asList(
+                        new StepRun("Open page", Outcome.PASSED, 1_000_000L),
+                        new StepRun("Submit", submit, 1_000_000L))));
+                runs.add(new TestRun(night, "run-" + night, "Checkout", checkout, 1000, night < 5 ? 1L : 2L,
+                        new ArrayList<>()));
+                runs.add(new TestRun(night, "run-" + night, "Cart", Outcome.FAILED, 1000, 7L, new ArrayList<>()));
+                store.append(runs);
+            }
+
+            FlakinessAnalyzer analyzer = new FlakinessAnalyzer(store, 20, 0.2, 4);
+            FlakinessAnalyzer.Flakiness login = analyzer.analyze("Login");
+            Assert.assertTrue(login.isFlaky());
+            Assert.assertEquals(login.getPairs(), 9);
+            Assert.assertEquals(login.getFlips(), 9);
+            Assert.assertEquals(login.getStepScores().keySet().iterator().next(), "Submit");
+            Assert.assertFalse(login.getStepScores().containsKey("Open page"));
+
+            FlakinessAnalyzer.Flakiness checkout = analyzer.analyze("Checkout");
+            Assert.assertEquals(checkout.getPairs(), 8);
+            Assert.assertEquals(checkout.getFlips(), 0);
+            Assert.assertFalse(analyzer.analyze("Cart").isFlaky());
+
+            Assert.assertEquals(analyzer.findFlaky(Arrays.asList("Login", "Checkout", "Cart", "Unknown")),
+                    Collections.singleton("Login"));
+            Assert.assertEquals(analyzer.analyzeAll().get(0).getTestName(), "Login");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import org.TestifyFW.history.HistoryStore;
+import org.TestifyFW.history.HistoryStore.Outcome;
+import org.TestifyFW.history.HistoryStore.StepRun;
+import org.TestifyFW.history.HistoryStore.TestRun;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class HistoryStoreTest {
+
+    @Test(description = "Runs appended by one store are found by name and time after reopening")
+    public void queriesAppendedRuns() throws Exception {
+        Path directory = Files.createTempDirectory("testify-history");
+        long day = 24 * 60 * 60 * 1000L;
+        try (HistoryStore store = HistoryStore.open(directory)) {
+            for (int night = 0; night < 30; night++) {
+                List<TestRun> runs = new ArrayList<>();
+                Outcome login = night % 10 == 0 ? Outcome.FAILED : Outcome.PASSED;
+                runs.add(new TestRun(night * day, "run-" + night, "Login", login, 1000 + night, 42L, Arrays.asList(
+                        new StepRun("Open page", Outcome.PASSED, (night + 1) * 1_000_000L),
+                        new StepRun("Submit", login, 5_000_000L))));
+                runs.add(new TestRun(night * day, "run-" + night, "Cart", Outcome.PASSED, 500, 7L, new ArrayList<>()));
+                store.append(runs);
+            }
+        }
+
+        try (HistoryStore store = HistoryStore.open(directory)) {
+            Assert.assertEquals(store.getRunCount(), 60);
+            Assert.assertEquals(store.getTestNames(), Arrays.asList("Login", "Cart"));
+
+            List<TestRun> last = store.getLastRuns("Login", 3);
+            Assert.assertEquals(last.size(), 3);
+            Assert.assertEquals(last.get(0).getRunId(), "run-29");
+            Assert.assertEquals(last.get(0).getDefinition(), 42L);
+            Assert.assertEquals(last.get(0).getSteps().get(1).getStepName(), "Submit");
+            Assert.assertEquals(last.get(2).getOutcome(), Outcome.PASSED);
+
+            Assert.assertEquals(store.getRuns("Login", 20 * day, false).size(), 10);
+            Map<String, Long> p95 = store.getStepDurationPercentiles("Login", 95, 0);
+            Assert.assertEquals(p95.keySet().iterator().next(), "Open page");
+            Assert.assertEquals((long) p95.get("Open page"), 29_000_000L);
+
+            List<HistoryStore.TestStats> stats = store.getTestStats(20 * day);
+            Assert.assertEquals(stats.get(0).getTestName(), "Login");
+            Assert.assertEquals(stats.get(0).getFailures(), 1);
+            Assert.assertEquals(stats.get(0).getRuns(), 10);
+            Assert.assertEquals(stats.get(1).getFailureRate(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+import org.TestifyFW.reporter.HtmlReportSink;
+import org.TestifyFW.reporter.ResultEvent;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class HtmlReportSinkTest {
+
+    @Test(description = "Steps are on disk as soon as they are logged, the summary is added when finished")
+    public void writesStepsIncrementally() throws Exception {
+        Path file = Files.createTempDirectory("testify-report").resolve("Login-Report.html");
+        HtmlReportSink sink = new HtmlReportSink(file, "Login", System.currentTimeMillis());
+
+        sink.onEvent(stepEnd("Open <login>", "open url", "PASSED", "ok"));
+        String partial = read(file);
+        Assert.assertTrue(partial.startsWith("<!DOCTYPE html>"));
+        Assert.assertTrue(partial.contains("INCOMPLETE"));
+        Assert.assertTrue(partial.contains("Open &lt;login&gt;"));
+
+        sink.onEvent(stepEnd("Submit", "click", "FAILED", "no such element"));
+        ResultEvent end = new ResultEvent(ResultEvent.Type.TEST_END);
+        end.setStatus("FAILED");
+        end.setJiraKey("QA-1");
+        end.setJiraUrl("https://jira.example.com");
+        sink.onEvent(end);
+
+        String report = read(file);
+        Assert.assertTrue(report.startsWith("<!DOCTYPE html>"));
+        Assert.assertFalse(report.contains("INCOMPLETE"));
+        Assert.assertTrue(report.contains("<span class='failed'>FAILED</span>"));
+        Assert.assertTrue(report.contains("2 (1 passed, 1 failed, 0 skipped, 0 info)"));
+        Assert.assertTrue(report.contains("https://jira.example.com/browse/QA-1"));
+        Assert.assertTrue(report.indexOf("Jira Issue") < report.indexOf("Test Procedure"));
+        Assert.assertTrue(report.contains("<strong>2:</strong> Submit"));
+        Assert.assertTrue(report.endsWith("</html>\n"));
+    }
+
+    private static ResultEvent stepEnd(String stepName, String action, String status, String details) {
+        ResultEvent event = new ResultEvent(ResultEvent.Type.STEP_END);
+        event.setStepName(stepName);
+        event.setAction(action);
+        event.setStatus(status);
+        event.setDetails(details);
+        return event;
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
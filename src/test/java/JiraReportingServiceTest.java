@@ -0,0 +1,144 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.TestifyFW.jira.FailureFingerprint;
+import org.TestifyFW.jira.FailureReport;
+import org.TestifyFW.jira.FingerprintIndex;
+import org.TestifyFW.jira.JiraIssueReporter;
+import org.TestifyFW.jira.JiraReportingService;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JiraReportingServiceTest {
+    private static final String CREATE_META = "{\"projects\":[{\"key\":\"TES1\",\"issuetypes\":[{\"name\":\"Bug\",\"fields\":{"
+            + "\"summary\":{\"schema\":{\"type\":\"string\"}},"
+            + "\"description\":{\"schema\":{\"type\":\"string\"}},"
+            + "\"project\":{\"schema\":{\"type\":\"project\"}},"
+            + "\"issuetype\":{\"schema\":{\"type\":\"issuetype\"}}}}]}]}";
+
+    private HttpServer server;
+    private final AtomicInteger createRequests = new AtomicInteger();
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private final AtomicInteger commentRequests = new AtomicInteger();
+
+    @BeforeMethod
+    public void startStubJira() throws IOException {
+        createRequests.set(0);
+        commentRequests.set(0);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rest/api/latest/issue", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/createmeta")) {
+                respond(exchange, 200, CREATE_META);
+            } else if (path.endsWith("/comment")) {
+                commentRequests.incrementAndGet();
+                respond(exchange, 201, "{\"id\":\"1\",\"body\":\"comment\"}");
+            } else if ("POST".equals(exchange.getRequestMethod())) {
+                int request = createRequests.incrementAndGet();
+                if (failuresBeforeSuccess.getAndDecrement() > 0) {
+                    respond(exchange, 503, "{\"errorMessages\":[\"unavailable\"]}");
+                } else {
+                    respond(exchange, 201, "{\"id\":\"" + request + "\",\"key\":\"TES1-" + request + "\"}");
+                }
+            } else {
+                String key = path.substring(path.lastIndexOf('/') + 1);
+                respond(exchange, 200, "{\"id\":\"1\",\"key\":\"" + key + "\",\"fields\":{}}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStubJira() {
+        server.stop(0);
+    }
+
+    @Test(description = "Queued failures are created in the background and flushed")
+    public void createsQueuedIssues() {
+        failuresBeforeSuccess.set(0);
+        JiraReportingService service = new JiraReportingService(stubReporter(), null, 2, 10, 10, 3);
+        List<String> keys = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(service.submit(new FailureReport("Test " + i, "Test Failure", "details", keys::add)));
+        }
+
+        Assert.assertTrue(service.flush(10000));
+        Assert.assertEquals(service.getCreatedCount(), 5);
+        Assert.assertEquals(keys.size(), 5);
+        service.shutdown(1000);
+    }
+
+    @Test(description = "Transient errors are retried with back-off")
+    public void retriesTransientFailures() {
+        failuresBeforeSuccess.set(2);
+        JiraReportingService service = new JiraReportingService(stubReporter(), null, 1, 10, 10, 3);
+
+        service.submit(new FailureReport("Flaky Jira", "Test Failure", "details"));
+
+        Assert.assertTrue(service.flush(10000));
+        Assert.assertEquals(createRequests.get(), 3);
+        Assert.assertEquals(service.getCreatedCount(), 1);
+        Assert.assertEquals(service.getFailedCount(), 0);
+        service.shutdown(1000);
+    }
+
+    @Test(description = "Repeated failures with the same fingerprint comment on the existing issue")
+    public void deduplicatesByFingerprint() throws IOException {
+        failuresBeforeSuccess.set(0);
+        Path indexFile = Files.createTempFile("jira-fingerprints", ".properties");
+        Files.delete(indexFile);
+        FingerprintIndex index = new FingerprintIndex(indexFile);
+        JiraReportingService service = new JiraReportingService(stubReporter(), index, 2, 10, 10, 3);
+
+        String fingerprint = FailureFingerprint.compute("Login", 2, "click",
+                new RuntimeException("Element not found: id=submit-1234"));
+        String sameFailure = FailureFingerprint.compute("Login", 2, "click",
+                new RuntimeException("Element not found: id=submit-5678"));
+        Assert.assertEquals(sameFailure, fingerprint);
+
+        for (int i = 0; i < 3; i++) {
+            service.submit(new FailureReport("Login", "Test Failure", "details", fingerprint, null));
+        }
+
+        Assert.assertTrue(service.flush(10000));
+        Assert.assertEquals(createRequests.get(), 1);
+        Assert.assertEquals(commentRequests.get(), 2);
+        Assert.assertEquals(service.getCommentedCount(), 2);
+        // The index survives a restart
+        Assert.assertEquals(new FingerprintIndex(indexFile).get(fingerprint).getOccurrences(), 3);
+        service.shutdown(1000);
+        Files.deleteIfExists(indexFile);
+    }
+
+    private JiraIssueReporter stubReporter() {
+        Properties props = new Properties();
+        props.setProperty("jira.enabled", "true");
+        props.setProperty("jira.url", "http://127.0.0.1:" + server.getAddress().getPort());
+        props.setProperty("jira.username", "automation");
+        props.setProperty("jira.api_token", "token");
+        props.setProperty("jira.project_key", "TES1");
+        return new JiraIssueReporter(props);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
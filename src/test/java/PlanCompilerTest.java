@@ -0,0 +1,232 @@
+import org.TestifyFW.framework.plan.CompiledStep;
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.framework.plan.PlanCompiler;
+import org.TestifyFW.framework.plan.PlanValidationException;
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.model.TestFixture;
+import org.TestifyFW.model.TestStep;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+public class PlanCompilerTest {
+
+    @Test(description = "Locators and durations are resolved at compile time")
+    public void compilesValidTestCase() {
+        TestCase testCase = testCase("Login Test",
+                step("open url", null, null, null, "https://www.saucedemo.com"),
+                step("input text", "id", "user-name", "standard_user", null),
+                step("wait", null, null, "1500", null));
+
+        ExecutionPlan plan = PlanCompiler.compile(testCase);
+
+        Assert.assertEquals(plan.getTestName(), "Login Test");
+        Assert.assertEquals(plan.getSteps().size(), 3);
+        CompiledStep input = plan.getSteps().get(1);
+        Assert.assertEquals(input.getLocator(), By.id("user-name"));
+        Assert.assertEquals(input.getDisplayName(), "Step 2: input text");
+        Assert.assertEquals(plan.getSteps().get(2).getDuration(), Duration.ofMillis(1500));
+    }
+
+    @Test(description = "Step timeouts override the test case default")
+    public void resolvesTimeoutOverrides() {
+        TestStep fastStep = step("click", "id", "login-button", null, null);
+        fastStep.setTimeout(500L);
+        fastStep.setPollInterval(20L);
+        TestCase testCase = testCase("Timeouts", fastStep, step("verify_absent", "css", ".error", null, null));
+        testCase.setTimeout(3000L);
+
+        ExecutionPlan plan = PlanCompiler.compile(testCase);
+
+        Assert.assertEquals(plan.getSteps().get(0).getTimeout(), Duration.ofMillis(500));
+        Assert.assertEquals(plan.getSteps().get(0).getPollInterval(), Duration.ofMillis(20));
+        Assert.assertEquals(plan.getSteps().get(1).getTimeout(), Duration.ofMillis(3000));
+        Assert.assertNull(plan.getSteps().get(1).getPollInterval());
+    }
+
+    @Test(description = "Plans are cached per test case")
+    public void cachesPlanPerTestCase() {
+        TestCase testCase = testCase("Cached", step("click", "css", "#login", null, null));
+        Assert.assertSame(PlanCompiler.compile(testCase), PlanCompiler.compile(testCase));
+    }
+
+    @Test(description = "A test case edited after its first run is compiled again")
+    public void recompilesEditedTestCase() {
+        TestCase testCase = testCase("Edited", step("click", "css", "#login", null, null));
+        ExecutionPlan first = PlanCompiler.compile(testCase);
+
+        testCase.getSteps().get(0).setSelector("#submit");
+        testCase.getSteps().add(step("wait", null, null, "500", null));
+        ExecutionPlan edited = PlanCompiler.compile(testCase);
+
+        Assert.assertNotSame(edited, first);
+        Assert.assertEquals(edited.getSteps().size(), 2);
+        Assert.assertEquals(edited.getSteps().get(0).getLocator(), By.cssSelector("#submit"));
+        Assert.assertEquals(first.getSteps().get(0).getLocator(), By.cssSelector("#login"));
+    }
+
+    @Test(description = "Every invalid step is reported before anything runs")
+    public void rejectsInvalidTestCase() {
+        TestCase testCase = testCase("Broken",
+                step("open url", null, null, null, null),
+                step("clik", "id", "login-button", null, null),
+                step("click", "name", "login", null, null));
+
+        try {
+            PlanCompiler.compile(testCase);
+            Assert.fail("Expected PlanValidationException");
+        } catch (PlanValidationException e) {
+            Assert.assertEquals(e.getErrors().size(), 3, e.getMessage());
+            Assert.assertTrue(e.getErrors().get(1).contains("unknown action"));
+            Assert.assertTrue(e.getErrors().get(2).contains("Unknown selector type: name"));
+        }
+    }
+
+    @Test(description = "Setup sequences are compiled and validated with the test case")
+    public void compilesSetupFixture() {
+        TestCase testCase = testCase("Cart", step("click", "id", "add-to-cart", null, null));
+        TestFixture setup = new TestFixture();
+        setup.setName("standard_user_login");
+        setup.setTtl(600L);
+        setup.setSteps(Arrays.asList(
+                step("open url", null, null, null, "https://www.saucedemo.com"),
+                step("input text", "id", "user-name", "standard_user", null),
+                step("click", "id", "login-button", null, null)));
+        testCase.setSetup(setup);
+
+        ExecutionPlan plan = PlanCompiler.compile(testCase);
+
+        Assert.assertEquals(plan.getSetup().getName(), "standard_user_login");
+        Assert.assertEquals(plan.getSetup().getTtl(), Duration.ofSeconds(600));
+        Assert.assertEquals(plan.getSetup().getSteps().size(), 3);
+        Assert.assertEquals(plan.getSteps().size(), 1);
+
+        setup.setTtl(0L);
+        setup.setSteps(Arrays.asList(step("clik", "id", "login-button", null, null)));
+        TestCase broken = testCase("Broken setup", step("click", "id", "add-to-cart", null, null));
+        broken.setSetup(setup);
+        try {
+            PlanCompiler.compile(broken);
+            Assert.fail("Expected PlanValidationException");
+        } catch (PlanValidationException e) {
+            Assert.assertEquals(e.getErrors().size(), 2, e.getMessage());
+            Assert.assertTrue(e.getErrors().get(1).startsWith("Setup step 1"));
+        }
+    }
+
+    @Test(description = "dependsOn is resolved to earlier steps and critical steps guard everything after them")
+    public void resolvesStepDependencies() {
+        TestStep login = step("click", "id", "login-button", null, null);
+        login.setId("login");
+        login.setCritical(true);
+        TestStep addToCart = step("click", "id", "add-to-cart", null, null);
+        addToCart.setId("add");
+        TestStep checkout = step("click", "id", "checkout", null, null);
+        checkout.setDependsOn("add");
+        TestCase testCase = testCase("Checkout", step("open url", null, null, null, "https://www.saucedemo.com"),
+                login, addToCart, checkout);
+
+        ExecutionPlan plan = PlanCompiler.compile(testCase);
+
+        Assert.assertTrue(plan.getSteps().get(1).getDependencies().isEmpty());
+        Assert.assertEquals(plan.getSteps().get(2).getDependencies(), Arrays.asList(1));
+        Assert.assertEquals(plan.getSteps().get(3).getDependencies(), Arrays.asList(1, 2));
+
+        TestStep forward = step("click", "id", "checkout", null, null);
+        forward.setDependsOn("later");
+        TestStep later = step("click", "id", "finish", null, null);
+        later.setId("later");
+        try {
+            PlanCompiler.compile(testCase("Forward reference", forward, later));
+            Assert.fail("Expected PlanValidationException");
+        } catch (PlanValidationException e) {
+            Assert.assertEquals(e.getErrors().size(), 1, e.getMessage());
+            Assert.assertTrue(e.getErrors().get(0).contains("does not name an earlier step"));
+        }
+    }
+
+    @Test(description = "Dataset instances bind their row to the plan of the test case they came from")
+    public void bindsDatasetRows() {
+        TestCase template = testCase("Login",
+                step("open url", null, null, null, "https://www.saucedemo.com/${page}"),
+                step("input text", "id", "user-name", "${user}", null),
+                step("click", "css", "[data-test='${button}']", null, null));
+
+        TestCase alice = instance(template, "Login [1]", "page", "", "user", "alice", "button", "login-button");
+        TestCase bob = instance(template, "Login [2]", "page", "inventory.html", "user", "bob", "button", "login");
+        ExecutionPlan alicePlan = PlanCompiler.compile(alice);
+        ExecutionPlan bobPlan = PlanCompiler.compile(bob);
+
+        Assert.assertEquals(alicePlan.getTestName(), "Login [1]");
+        Assert.assertEquals(alicePlan.getSteps().get(0).getUrl(), "https://www.saucedemo.com/");
+        Assert.assertEquals(bobPlan.getSteps().get(1).getValue(), "bob");
+        Assert.assertEquals(bobPlan.getSteps().get(2).getLocator(), By.cssSelector("[data-test='login']"));
+        Assert.assertEquals(PlanCompiler.compile(template).getParameterNames(),
+                new LinkedHashSet<>(Arrays.asList("page", "user", "button")));
+
+        try {
+            PlanCompiler.compile(instance(template, "Login [3]", "user", "carol"));
+            Assert.fail("Expected PlanValidationException");
+        } catch (PlanValidationException e) {
+            Assert.assertEquals(e.getErrors().size(), 2, e.getMessage());
+            Assert.assertTrue(e.getErrors().get(0).contains("${page}"));
+        }
+    }
+
+    @Test(description = "URL patterns are checked around their placeholders and bound per dataset row")
+    public void bindsTemplatedUrlPatterns() {
+        TestCase template = testCase("Inventory",
+                step("wait_for_url", null, null, null, "${base}/inventory.*"));
+
+        ExecutionPlan plan = PlanCompiler.compile(instance(template, "Inventory [1]", "base", "https://www.saucedemo.com"));
+        Assert.assertEquals(plan.getSteps().get(0).getUrl(), "https://www.saucedemo.com/inventory.*");
+
+        try {
+            PlanCompiler.compile(testCase("Broken", step("wait_for_url", null, null, null, "${base}/inventory(")));
+            Assert.fail("Expected PlanValidationException");
+        } catch (PlanValidationException e) {
+            Assert.assertTrue(e.getErrors().get(0).contains("invalid URL pattern"), e.getMessage());
+        }
+    }
+
+    private static TestCase instance(TestCase template, String name, String... columns) {
+        TestCase instance = testCase(name);
+        instance.setSteps(template.getSteps());
+        instance.setInstanceOf(template);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < columns.length; i += 2) {
+            row.put(columns[i], columns[i + 1]);
+        }
+        instance.setParameters(row);
+        return instance;
+    }
+
+    private static TestCase testCase(String name, TestStep... steps) {
+        TestCase testCase = new TestCase();
+        testCase.setName(name);
+        List<TestStep> stepList = new ArrayList<>();
+        for (TestStep step : steps) {
+            stepList.add(step);
+        }
+        testCase.setSteps(stepList);
+        return testCase;
+    }
+
+    private static TestStep step(String action, String selectorType, String selector, String value, String url) {
+        TestStep step = new TestStep();
+        step.setAction(action);
+        step.setSelectorType(selectorType);
+        step.setSelector(selector);
+        step.setValue(value);
+        step.setUrl(url);
+        return step;
+    }
+}
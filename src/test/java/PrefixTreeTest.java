@@ -0,0 +1,93 @@
+import org.TestifyFW.framework.plan.ExecutionPlan;
+import org.TestifyFW.framework.plan.PlanCompiler;
+import org.TestifyFW.framework.plan.PrefixTree;
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.model.TestStep;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PrefixTreeTest {
+
+    @Test(description = "Test cases with common leading steps share one path through the tree")
+    public void sharesCommonPrefixes() {
+        ExecutionPlan addToCart = plan("Add to cart", login("standard_user"), click("add-to-cart"));
+        ExecutionPlan logout = plan("Logout", login("standard_user"), click("logout"));
+        ExecutionPlan lockedOut = plan("Locked out", login("locked_out_user"));
+
+        PrefixTree tree = PrefixTree.build(Arrays.asList(addToCart, logout, lockedOut));
+
+        Assert.assertEquals(tree.getTotalStepCount(), 5 + 5 + 4);
+        // open url is shared by all three, the standard user's login by two of them
+        Assert.assertEquals(tree.getUniqueStepCount(), 1 + 3 + 1 + 1 + 3);
+
+        List<PrefixTree.Node> roots = tree.getRoot().getChildren();
+        Assert.assertEquals(roots.size(), 1);
+        Assert.assertEquals(roots.get(0).getPlans().size(), 3);
+        List<PrefixTree.Node> users = roots.get(0).getChildren();
+        Assert.assertEquals(users.size(), 2);
+        Assert.assertEquals(users.get(0).getPlans(), Arrays.asList(addToCart, logout));
+    }
+
+    @Test(description = "A test case that is a prefix of another ends inside the tree")
+    public void recordsPlansEndingOnInnerNodes() {
+        ExecutionPlan shortPlan = plan("Short", click("a"));
+        ExecutionPlan longPlan = plan("Long", click("a"), click("b"));
+
+        PrefixTree tree = PrefixTree.build(Arrays.asList(shortPlan, longPlan));
+
+        PrefixTree.Node first = tree.getRoot().getChildren().get(0);
+        Assert.assertEquals(first.getEndingPlans(), Arrays.asList(shortPlan));
+        Assert.assertEquals(first.getChildren().get(0).getEndingPlans(), Arrays.asList(longPlan));
+    }
+
+    @Test(description = "A plan listed twice is told apart by its position")
+    public void keepsPositionsOfRepeatedPlans() {
+        ExecutionPlan plan = plan("Twice", click("a"));
+
+        PrefixTree tree = PrefixTree.build(Arrays.asList(plan, plan));
+
+        PrefixTree.Node first = tree.getRoot().getChildren().get(0);
+        Assert.assertEquals(first.getPlanIndexes(), Arrays.asList(0, 1));
+        Assert.assertEquals(first.getEndingPlanIndexes(), Arrays.asList(0, 1));
+    }
+
+    private static List<TestStep> login(String user) {
+        return Arrays.asList(
+                step("open url", null, null, "https://www.saucedemo.com"),
+                step("input text", "user-name", user, null),
+                step("input text", "password", "secret_sauce", null),
+                step("click", "login-button", null, null));
+    }
+
+    private static List<TestStep> click(String id) {
+        return Arrays.asList(step("click", id, null, null));
+    }
+
+    @SafeVarargs
+    private static ExecutionPlan plan(String name, List<TestStep>... parts) {
+        TestCase testCase = new TestCase();
+        testCase.setName(name);
+        List<TestStep> steps = new ArrayList<>();
+        for (List<TestStep> part : parts) {
+            steps.addAll(part);
+        }
+        testCase.setSteps(steps);
+        return PlanCompiler.compile(testCase);
+    }
+
+    private static TestStep step(String action, String id, String value, String url) {
+        TestStep step = new TestStep();
+        step.setAction(action);
+        if (id != null) {
+            step.setSelectorType("id");
+            step.setSelector(id);
+        }
+        step.setValue(value);
+        step.setUrl(url);
+        return step;
+    }
+}
@@ -0,0 +1,78 @@
+import org.TestifyFW.reporter.ArtifactStore;
+import org.TestifyFW.reporter.RunContext;
+import org.TestifyFW.reporter.TestReporter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class RunContextTest {
+
+    @Test(description = "The static facade reports to the bound context, which is emptied when closed")
+    public void facadeUsesBoundContext() {
+        RunContext context = RunContext.stepLogOnly();
+        RunContext previous = TestReporter.bind(context);
+        try {
+            TestReporter.logInfo("Wait", "Condition met");
+            Assert.assertEquals(context.getStepLog().size(), 1);
+            Assert.assertEquals(context.getDetailedStepLog().get(0).getDetails(), "Condition met");
+        } finally {
+            TestReporter.bind(previous);
+        }
+
+        context.close();
+        Assert.assertTrue(context.getStepLog().isEmpty());
+        Assert.assertThrows(IllegalStateException.class, () -> context.logInfo("Wait", "Too late"));
+    }
+
+    @Test(description = "A context that never logged anything leaves no directory, manifest entry or events")
+    public void unusedContextLeavesNoTrace() throws Exception {
+        ArtifactStore store = ArtifactStore.createRun(Files.createTempDirectory("testify-events"));
+        RunContext.start("Idle", store).close();
+        store.close();
+
+        Assert.assertEquals(Files.readAllLines(store.getDirectory().resolve("manifest.jsonl")).size(), 1);
+        Assert.assertTrue(Files.readAllLines(store.getDirectory().resolve("events.jsonl")).isEmpty());
+        try (Stream<Path> tests = Files.list(store.getDirectory().resolve("tests"))) {
+            Assert.assertEquals(tests.count(), 0L);
+        }
+    }
+
+    @Test(description = "Steps become events in the run's event log, the report is rendered from them")
+    public void writesEventStream() throws Exception {
+        ArtifactStore store = ArtifactStore.createRun(Files.createTempDirectory("testify-events"));
+        RunContext context = RunContext.start("Login", store);
+        context.startStep("Open page", "open_url", null);
+        context.logStep("Open page", "open_url", true);
+        context.startStep("Submit", "click", "id=submit");
+        context.logInfo("Submit", "Waiting for the button");
+        context.logStep("Submit", "click", false);
+        context.generateReport();
+        context.close();
+        // Jira issues are created in the background, after the test has ended
+        context.recordJiraIssue("QA-7", "https://jira.example.com");
+        store.close();
+
+        List<String> events = Files.readAllLines(store.getDirectory().resolve("events.jsonl"));
+        Assert.assertEquals(events.size(), 8);
+        Assert.assertTrue(events.get(0).startsWith("{\"type\": \"test.start\""), events.get(0));
+        Assert.assertTrue(events.get(3).contains("\"type\": \"step.start\"") && events.get(3).contains("\"stepId\": \"0001-login/s2\""));
+        Assert.assertTrue(events.get(4).contains("\"type\": \"info\"") && events.get(4).contains("\"stepId\": \"0001-login/s2\""));
+        String failed = events.get(5);
+        Assert.assertTrue(failed.contains("\"type\": \"step.end\"") && failed.contains("\"status\": \"FAILED\"")
+                && failed.contains("\"locator\": \"id=submit\"") && failed.contains("\"durationNanos\": "), failed);
+        Assert.assertTrue(events.get(6).contains("\"type\": \"test.end\"") && events.get(6).contains("\"status\": \"FAILED\""));
+
+        String report = new String(Files.readAllBytes(Paths.get(context.getReportPath())), StandardCharsets.UTF_8);
+        Assert.assertTrue(report.contains("5 (1 passed, 1 failed, 0 skipped, 3 info)"), report);
+        Assert.assertTrue(events.get(7).contains("\"type\": \"jira.issue\""), events.get(7));
+        Assert.assertTrue(report.contains("https://jira.example.com/browse/QA-7"), report);
+        Assert.assertTrue(report.indexOf("Jira Issue") < report.indexOf("Test Procedure"));
+        Assert.assertTrue(report.endsWith("</html>\n"));
+    }
+}
@@ -0,0 +1,97 @@
+import org.TestifyFW.runner.LoadedSuite;
+import org.TestifyFW.runner.LoadedTestCase;
+import org.TestifyFW.runner.SuiteLoader;
+import org.TestifyFW.yaml.TestCaseStream;
+import org.TestifyFW.yaml.TestLoadException;
+import org.TestifyFW.yaml.YamlTestLoader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SuiteLoaderTest {
+
+    @Test(description = "Every file is loaded in order, with errors reported by file and line")
+    public void loadsDirectoryWithPositions() throws Exception {
+        Path directory = Files.createTempDirectory("testify-suite");
+        write(directory.resolve("a-valid.yaml"),
+                "testCaseName: Valid\n"
+                        + "steps:\n"
+                        + "  - action: open url\n"
+                        + "    url: https://www.saucedemo.com\n");
+        write(directory.resolve("b-schema.yaml"),
+                "testCaseName: Schema\n"
+                        + "steps:\n"
+                        + "  - action: click\n"
+                        + "    selectorType: id\n"
+                        + "    selecter: login\n");
+        write(directory.resolve("c-action.yaml"),
+                "testCaseName: Action\n"
+                        + "steps:\n"
+                        + "  - action: open url\n"
+                        + "    url: https://www.saucedemo.com\n"
+                        + "  - action: clik\n");
+
+        LoadedSuite suite = new SuiteLoader().load(directory.toString());
+
+        List<LoadedTestCase> testCases = suite.getTestCases();
+        Assert.assertEquals(suite.getFileCount(), 3);
+        Assert.assertEquals(testCases.size(), 3);
+        Assert.assertTrue(testCases.get(0).isValid());
+        Assert.assertEquals(testCases.get(0).getPlan().getTestName(), "Valid");
+        Assert.assertFalse(suite.isValid());
+
+        List<String> schemaErrors = testCases.get(1).getErrors();
+        Assert.assertTrue(schemaErrors.get(0).endsWith("b-schema.yaml:5:5: unknown step key 'selecter'"), schemaErrors.toString());
+        Assert.assertTrue(testCases.get(2).getErrors().get(0).contains("Step 2 (clik) at line 5: unknown action"),
+                testCases.get(2).getErrors().toString());
+    }
+
+    @Test(description = "Each document of a multi-document file is its own test case")
+    public void loadsMultiDocumentFile() throws Exception {
+        Path directory = Files.createTempDirectory("testify-suite");
+        write(directory.resolve("suite.yaml"),
+                "---\n"
+                        + "testCaseName: First\n"
+                        + "steps:\n"
+                        + "  - action: open url\n"
+                        + "    url: https://www.saucedemo.com\n"
+                        + "---\n"
+                        + "testCaseName: Second\n"
+                        + "steps:\n"
+                        + "  - action: open url\n"
+                        + "    url: https://www.saucedemo.com\n");
+
+        List<LoadedTestCase> testCases = new SuiteLoader().load(directory.toString()).getTestCases();
+        Assert.assertEquals(testCases.size(), 2);
+        Assert.assertEquals(testCases.get(0).getName(), "First");
+        Assert.assertEquals(testCases.get(1).getName(), "Second");
+
+        // Documents are read lazily, and a bad one doesn't hide the ones after it
+        write(directory.resolve("suite.yaml"),
+                "testCaseName: Bad\n"
+                        + "stepz: []\n"
+                        + "---\n"
+                        + "testCaseName: Good\n");
+        try (TestCaseStream stream = new YamlTestLoader().openStream(directory.resolve("suite.yaml").toString())) {
+            Assert.assertTrue(stream.hasNext());
+            try {
+                stream.next();
+                Assert.fail("Expected the first document to be rejected");
+            } catch (TestLoadException e) {
+                Assert.assertTrue(e.getErrors().get(0).endsWith("suite.yaml:2:1: unknown test case key 'stepz'"),
+                        e.getErrors().toString());
+            }
+            Assert.assertEquals(stream.next().getName(), "Good");
+            Assert.assertEquals(stream.getDocumentNumber(), 2);
+            Assert.assertFalse(stream.hasNext());
+        }
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
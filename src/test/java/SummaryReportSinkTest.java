@@ -0,0 +1,49 @@
+import org.TestifyFW.reporter.ResultEvent;
+import org.TestifyFW.reporter.SummaryReportSink;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SummaryReportSinkTest {
+
+    @Test(description = "The summary lists each test's outcome from its events, with Jira issues filed later")
+    public void summarizesTestEvents() throws Exception {
+        SummaryReportSink summary = new SummaryReportSink();
+        summary.onEvent(event(ResultEvent.Type.TEST_START, "0001-login", "login", null));
+        summary.onEvent(event(ResultEvent.Type.TEST_START, "0002-checkout", "checkout", null));
+        summary.onEvent(event(ResultEvent.Type.TEST_END, "0001-login", "login", "PASSED"));
+        summary.onEvent(event(ResultEvent.Type.TEST_END, "0002-checkout", "checkout", "FAILED"));
+        summary.onEvent(event(ResultEvent.Type.TEST_START, "0003-profile", "profile", null));
+        summary.onEvent(event(ResultEvent.Type.TEST_END, "0003-profile", "profile", "SKIPPED"));
+        summary.onEvent(event(ResultEvent.Type.TEST_START, "0004-logout", "logout", null));
+        ResultEvent issue = event(ResultEvent.Type.JIRA_ISSUE, "0002-checkout", "checkout", null);
+        issue.setJiraKey("QA-3");
+        issue.setJiraUrl("https://jira.example.com");
+        summary.onEvent(issue);
+
+        Path file = Files.createTempDirectory("testify-summary").resolve("test-summary.html");
+        summary.write(file);
+        String html = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+
+        Assert.assertEquals(summary.getCount("FAILED"), 1);
+        Assert.assertTrue(html.contains("<td>4</td><td class='passed'>1</td><td class='failed'>1</td><td class='skipped'>1</td>"), html);
+        Assert.assertTrue(html.contains("<td>checkout</td><td class='failed'>FAILED</td><td>1500</td>"), html);
+        Assert.assertTrue(html.contains("https://jira.example.com/browse/QA-3"), html);
+        Assert.assertTrue(html.contains("<td>logout</td><td class='incomplete'>INCOMPLETE</td>"), html);
+        Assert.assertTrue(html.indexOf("login") < html.indexOf("checkout"));
+    }
+
+    private static ResultEvent event(ResultEvent.Type type, String testId, String testName, String status) {
+        ResultEvent event = new ResultEvent(type);
+        event.setTestId(testId);
+        event.setTestName(testName);
+        event.setStatus(status);
+        if (status != null) {
+            event.setDurationNanos(1_500_000_000L);
+        }
+        return event;
+    }
+}
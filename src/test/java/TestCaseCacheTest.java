@@ -0,0 +1,89 @@
+import org.TestifyFW.model.TestCase;
+import org.TestifyFW.yaml.TestCaseCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class TestCaseCacheTest {
+
+    @Test(description = "Unchanged files are parsed once, changed files again")
+    public void reparsesOnlyChangedFiles() throws Exception {
+        Path file = Files.createTempFile("testify-cache", ".yaml");
+        Files.write(file, "testCaseName: First".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger parses = new AtomicInteger();
+        TestCaseCache cache = new TestCaseCache(10, null);
+        TestCaseCache.Parser parser = content -> {
+            parses.incrementAndGet();
+            TestCase testCase = new TestCase();
+            testCase.setName(new String(content, StandardCharsets.UTF_8));
+            return Collections.singletonList(testCase);
+        };
+
+        List<TestCase> first = cache.get(file, parser);
+        first.get(0).setName("Edited by the caller");
+        Assert.assertEquals(cache.get(file, parser).get(0).getName(), "testCaseName: First");
+        Assert.assertNotSame(cache.get(file, parser).get(0), cache.get(file, parser).get(0));
+        Assert.assertEquals(parses.get(), 1);
+
+        Files.write(file, "testCaseName: Second".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        Assert.assertEquals(cache.get(file, parser).get(0).getName(), "testCaseName: Second");
+        Assert.assertEquals(parses.get(), 2);
+    }
+
+    @Test(description = "Parsed test cases are reused from disk by a new cache")
+    public void persistsToDisk() throws Exception {
+        Path directory = Files.createTempDirectory("testify-cache");
+        Path file = Files.createTempFile("testify-cache", ".yaml");
+        Files.write(file, "testCaseName: Persisted".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger parses = new AtomicInteger();
+        TestCaseCache.Parser parser = content -> {
+            parses.incrementAndGet();
+            TestCase testCase = new TestCase();
+            testCase.setName("Persisted");
+            return Collections.singletonList(testCase);
+        };
+
+        new TestCaseCache(10, directory).get(file, parser);
+        TestCase reloaded = new TestCaseCache(10, directory).get(file, parser).get(0);
+
+        Assert.assertEquals(parses.get(), 1);
+        Assert.assertEquals(reloaded.getName(), "Persisted");
+    }
+
+    @Test(description = "Cache files holding anything but test case models are not deserialized")
+    public void rejectsForeignCacheFiles() throws Exception {
+        Path directory = Files.createTempDirectory("testify-cache");
+        Path file = Files.createTempFile("testify-cache", ".yaml");
+        Files.write(file, "testCaseName: Filtered".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger parses = new AtomicInteger();
+        TestCaseCache.Parser parser = content -> {
+            parses.incrementAndGet();
+            TestCase testCase = new TestCase();
+            testCase.setName("Filtered");
+            return Collections.singletonList(testCase);
+        };
+        new TestCaseCache(10, directory).get(file, parser);
+
+        Path cached;
+        try (Stream<Path> files = Files.list(directory)) {
+            cached = files.filter(path -> path.toString().endsWith(".ser")).findFirst().get();
+        }
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(cached))) {
+            out.writeObject(new ArrayList<Object>(Collections.singletonList(new File("not-a-test-case"))));
+        }
+        Assert.assertEquals(new TestCaseCache(10, directory).get(file, parser).get(0).getName(), "Filtered");
+        Assert.assertEquals(parses.get(), 2);
+    }
+}
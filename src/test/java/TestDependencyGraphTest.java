@@ -0,0 +1,41 @@
+import org.TestifyFW.runner.TestDependencyGraph;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TestDependencyGraphTest {
+
+    @Test(description = "Test cases are grouped into levels that only depend on earlier levels")
+    public void ordersByDependencies() {
+        TestDependencyGraph graph = TestDependencyGraph.build(
+                Arrays.asList("login", "cart", "checkout", "search"),
+                Arrays.asList(none(), Arrays.asList("login"), Arrays.asList("cart", "login"), none()));
+
+        Assert.assertEquals(graph.getLevels(), Arrays.asList(Arrays.asList(0, 3), Arrays.asList(1), Arrays.asList(2)));
+        Assert.assertEquals(graph.getDependents(0), Arrays.asList(1, 2));
+        Assert.assertEquals(graph.getDependencies(2), Arrays.asList(1, 0));
+        for (int i = 0; i < graph.size(); i++) {
+            Assert.assertNull(graph.getError(i));
+        }
+    }
+
+    @Test(description = "Unknown ids and cycles make the affected test cases invalid")
+    public void reportsInvalidDependencies() {
+        TestDependencyGraph graph = TestDependencyGraph.build(
+                Arrays.asList("a", "b", "c", "d"),
+                Arrays.asList(Arrays.asList("b"), Arrays.asList("a"), Arrays.asList("a"), Arrays.asList("missing")));
+
+        Assert.assertTrue(graph.getError(0).contains("cycle"));
+        Assert.assertTrue(graph.getError(1).contains("cycle"));
+        Assert.assertTrue(graph.getError(2).contains("cycle"));
+        Assert.assertTrue(graph.getError(3).contains("missing"));
+        Assert.assertEquals(graph.getLevels(), Collections.singletonList(Arrays.asList(3)));
+    }
+
+    private static List<String> none() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,148 @@
+import org.TestifyFW.framework.WebDriverPool;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class WebDriverPoolTest {
+
+    @Test(description = "A session that stayed on one origin is cleared and reused in a fresh tab")
+    public void reusesSessionThatStayedOnItsOrigin() {
+        List<FakeBrowser> browsers = new ArrayList<>();
+        try (WebDriverPool pool = new WebDriverPool(() -> FakeBrowser.start(browsers), 0, 1)) {
+            WebDriver driver = pool.borrow();
+            driver.get("https://shop.example/login");
+            browsers.get(0).cookieOrigins.add("https://shop.example");
+            String testWindow = driver.getWindowHandle();
+            pool.release(driver);
+
+            FakeBrowser browser = browsers.get(0);
+            Assert.assertFalse(browser.quit);
+            Assert.assertTrue(browser.cookieOrigins.isEmpty());
+            Assert.assertFalse(browser.tabs.containsKey(testWindow));
+            Assert.assertEquals(browser.tabs.size(), 1);
+            Assert.assertEquals((int) browser.tabs.get(browser.current), 1);
+
+            Assert.assertSame(pool.borrow(), driver);
+            Assert.assertEquals(pool.getCreatedCount(), 1);
+        }
+    }
+
+    @Test(description = "A session that may hold state of other origins is replaced")
+    public void replacesSessionThatLeftItsOrigin() {
+        List<FakeBrowser> browsers = new ArrayList<>();
+        try (WebDriverPool pool = new WebDriverPool(() -> FakeBrowser.start(browsers), 0, 1)) {
+            WebDriver driver = pool.borrow();
+            driver.get("https://shop.example/login");
+            driver.get("https://sso.example/authorize");
+            pool.release(driver);
+
+            Assert.assertTrue(browsers.get(0).quit);
+            Assert.assertNotSame(pool.borrow(), driver);
+            Assert.assertEquals(pool.getCreatedCount(), 2);
+        }
+    }
+
+    @Test(description = "A session started while the pool closes is quit instead of handed out")
+    public void quitsSessionStartedDuringClose() {
+        List<FakeBrowser> browsers = new ArrayList<>();
+        WebDriverPool[] pool = new WebDriverPool[1];
+        pool[0] = new WebDriverPool(() -> {
+            WebDriver driver = FakeBrowser.start(browsers);
+            pool[0].close();
+            return driver;
+        }, 0, 1);
+
+        Assert.assertThrows(IllegalStateException.class, pool[0]::borrow);
+        Assert.assertTrue(browsers.get(0).quit);
+        Assert.assertEquals(pool[0].getActiveCount(), 0);
+    }
+
+    // Just enough of a browser for the pool: tabs with a history length, and cookies per origin
+    private static final class FakeBrowser implements InvocationHandler {
+        private final Map<String, Integer> tabs = new LinkedHashMap<>();
+        private final Map<String, String> tabOrigins = new LinkedHashMap<>();
+        private final Set<String> cookieOrigins = new HashSet<>();
+        private String current;
+        private int windowCounter;
+        private boolean quit;
+
+        static WebDriver start(List<FakeBrowser> browsers) {
+            FakeBrowser browser = new FakeBrowser();
+            browser.openTab();
+            browsers.add(browser);
+            return (WebDriver) Proxy.newProxyInstance(WebDriverPoolTest.class.getClassLoader(),
+                    new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, browser);
+        }
+
+        private void openTab() {
+            current = "window-" + (++windowCounter);
+            tabs.put(current, 1);
+            tabOrigins.put(current, "null");
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "get":
+                    String url = (String) args[0];
+                    tabs.merge(current, 1, Integer::sum);
+                    tabOrigins.put(current, url.replaceAll("^(\\w+://[^/]+).*$", "$1"));
+                    return null;
+                case "getWindowHandle":
+                    return current;
+                case "getWindowHandles":
+                    return new HashSet<>(tabs.keySet());
+                case "close":
+                    tabs.remove(current);
+                    tabOrigins.remove(current);
+                    return null;
+                case "quit":
+                    quit = true;
+                    return null;
+                case "executeScript":
+                    String script = (String) args[0];
+                    if (script.contains("history.length")) {
+                        return tabs.get(current) <= 2;
+                    }
+                    return null;
+                case "switchTo":
+                    return proxy(WebDriver.TargetLocator.class, (target, targetMethod, targetArgs) -> {
+                        if (targetMethod.getName().equals("newWindow")) {
+                            openTab();
+                        } else {
+                            current = (String) targetArgs[0];
+                        }
+                        return proxy;
+                    });
+                case "manage":
+                    return proxy(WebDriver.Options.class, (options, optionsMethod, optionsArgs) -> {
+                        if (optionsMethod.getName().equals("deleteAllCookies")) {
+                            cookieOrigins.remove(tabOrigins.get(current));
+                        }
+                        return null;
+                    });
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        }
+
+        private static Object proxy(Class<?> type, InvocationHandler handler) {
+            return Proxy.newProxyInstance(WebDriverPoolTest.class.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+    }
+}